@@ -0,0 +1,37 @@
+package com.ecommerce.gateway.controller;
+
+import com.ecommerce.gateway.ratelimit.RateLimitFilter;
+import com.ecommerce.gateway.resilience.CircuitBreakerFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Operational state of the gateway itself. Served under {@code /gateway}, outside the proxied
+ * {@code /api} routes.
+ */
+@RestController
+@RequestMapping("/gateway")
+public class GatewayStatusController {
+
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    @Autowired
+    private CircuitBreakerFilter circuitBreakerFilter;
+
+    @GetMapping("/circuit-breakers")
+    public ResponseEntity<List<Map<String, Object>>> getCircuitBreakers() {
+        return ResponseEntity.ok(circuitBreakerFilter.getStats());
+    }
+
+    @GetMapping("/rate-limits")
+    public ResponseEntity<Map<String, Object>> getRateLimits() {
+        return ResponseEntity.ok(rateLimitFilter.getStats());
+    }
+}
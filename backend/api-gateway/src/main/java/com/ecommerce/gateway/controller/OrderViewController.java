@@ -0,0 +1,44 @@
+package com.ecommerce.gateway.controller;
+
+import com.ecommerce.gateway.view.OrderViewService;
+import com.ecommerce.gateway.view.ViewFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Composite views that save the frontend one round-trip per backend. Served by the gateway itself
+ * under {@code /api/views}, which no proxied route claims; {@link ViewFilter} verifies tokens and
+ * applies the rate limits there.
+ */
+@RestController
+@RequestMapping("/api/views")
+public class OrderViewController {
+
+    @Autowired
+    private OrderViewService orderViewService;
+
+    /**
+     * The order with each item's product and the order's user, in one response.
+     */
+    @GetMapping("/orders/{id}")
+    public Mono<ResponseEntity<?>> getOrderView(
+            @PathVariable long id,
+            @RequestHeader(value = OrderViewService.DEADLINE_HEADER, required = false) Long deadline,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        return orderViewService.getOrderView(id, deadline, authorization)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(OrderViewService.OrderNotFoundException.class,
+                        e -> Mono.just(ResponseEntity.notFound().build()))
+                .onErrorResume(TimeoutException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                        .body(Map.of("message", "The order could not be fetched in time"))))
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                        .body(Map.of("message", "The order could not be fetched"))));
+    }
+}
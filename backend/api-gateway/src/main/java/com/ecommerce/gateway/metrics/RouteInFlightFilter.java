@@ -0,0 +1,63 @@
+package com.ecommerce.gateway.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes {@code gateway.route.in.flight}, the requests each route is handling right now,
+ * including those still waiting on authentication, the rate limiter or the breaker. Latency,
+ * throughput and errors per route come from Spring Cloud Gateway's own
+ * {@code spring.cloud.gateway.requests} timer. A route's counter is registered on its first
+ * request; after that a request costs one map lookup and two atomic updates.
+ */
+@Component
+public class RouteInFlightFilter implements GlobalFilter, Ordered {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    public RouteInFlightFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+        AtomicInteger counter = inFlight.get(route.getId());
+        if (counter == null) {
+            counter = inFlight.computeIfAbsent(route.getId(), this::register);
+        }
+        AtomicInteger active = counter;
+        active.incrementAndGet();
+        return chain.filter(exchange).doFinally(signal -> active.decrementAndGet());
+    }
+
+    private AtomicInteger register(String routeId) {
+        AtomicInteger counter = new AtomicInteger();
+        Gauge.builder("gateway.route.in.flight", counter, AtomicInteger::get)
+                .description("Requests currently being handled per route")
+                .tag("routeId", routeId)
+                .register(meterRegistry);
+        return counter;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 5;
+    }
+}
@@ -0,0 +1,193 @@
+package com.ecommerce.gateway.ratelimit;
+
+import com.ecommerce.gateway.security.TokenAuthenticationFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Enforces the {@code gateway.rate-limit} rules in memory, without Redis, before a request is
+ * proxied. Each applicable rule takes a token from the bucket of its key: the client address,
+ * the authenticated user or the rule itself. A request that finds any bucket empty is answered
+ * 429 with {@code Retry-After} and never reaches the service; the tokens it already took from
+ * earlier rules are given back, so a rejected request costs the client nothing.
+ */
+@Component
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    private static final class CompiledRule {
+        final String name;
+        final String overflowKey;
+        final String route;
+        final PathPattern path;
+        final RateLimitProperties.KeyType key;
+        final int capacity;
+        final long intervalNanos;
+        final LongAdder allowed = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+
+        CompiledRule(RateLimitProperties.Rule rule, int index) {
+            if (rule.getCapacity() < 1 || rule.getRefillPerSecond() <= 0) {
+                throw new IllegalArgumentException("Rate limit rule " + index + " needs a positive capacity and refill rate");
+            }
+            this.name = rule.getName() != null ? rule.getName() : "rule-" + index;
+            this.overflowKey = name + "|overflow";
+            this.route = rule.getRoute();
+            this.path = rule.getPath() != null ? PathPatternParser.defaultInstance.parse(rule.getPath()) : null;
+            this.key = rule.getKey();
+            this.capacity = rule.getCapacity();
+            this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / rule.getRefillPerSecond()));
+        }
+
+        boolean appliesTo(String routeId, ServerHttpRequest request) {
+            return (route == null || route.equals(routeId))
+                    && (path == null || path.matches(request.getPath().pathWithinApplication()));
+        }
+    }
+
+    private final RateLimitProperties properties;
+    private final List<CompiledRule> rules = new ArrayList<>();
+    private final TokenBucketTable buckets;
+
+    public RateLimitFilter(RateLimitProperties properties) {
+        this.properties = properties;
+        for (int i = 0; i < properties.getRules().size(); i++) {
+            rules.add(new CompiledRule(properties.getRules().get(i), i));
+        }
+        this.buckets = new TokenBucketTable(properties.getShards(), properties.getMaxKeysPerShard(),
+                properties.getIdleTimeout().toNanos());
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!properties.isEnabled() || rules.isEmpty()) {
+            return chain.filter(exchange);
+        }
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : null;
+        long now = System.nanoTime();
+        String[] keys = new String[rules.size()];
+        for (int i = 0; i < rules.size(); i++) {
+            CompiledRule rule = rules.get(i);
+            if (!rule.appliesTo(routeId, exchange.getRequest())) {
+                continue;
+            }
+            String key = key(rule, exchange);
+            if (key == null) {
+                continue;
+            }
+            TokenBucketTable.Decision decision = buckets.tryAcquire(key, rule.overflowKey, rule.capacity,
+                    rule.intervalNanos, now);
+            if (!decision.allowed()) {
+                rule.rejected.increment();
+                release(keys, i);
+                return tooManyRequests(exchange, decision.retryAfterNanos());
+            }
+            keys[i] = key;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                rules.get(i).allowed.increment();
+            }
+        }
+        return chain.filter(exchange);
+    }
+
+    private void release(String[] keys, int before) {
+        for (int i = 0; i < before; i++) {
+            if (keys[i] != null) {
+                CompiledRule rule = rules.get(i);
+                buckets.release(keys[i], rule.overflowKey, rule.intervalNanos);
+            }
+        }
+    }
+
+    private String key(CompiledRule rule, ServerWebExchange exchange) {
+        return switch (rule.key) {
+            case IP -> rule.name + "|" + clientAddress(exchange.getRequest());
+            case USER -> {
+                Long userId = exchange.getAttribute(TokenAuthenticationFilter.USER_ID_ATTRIBUTE);
+                yield userId != null ? rule.name + "|" + userId : null;
+            }
+            case ROUTE -> rule.name;
+        };
+    }
+
+    /**
+     * The address the request came from. Behind proxies, each hop appends the address it was
+     * called from to X-Forwarded-For, so only the last {@code trusted-proxies} entries were
+     * written by proxies we run; anything left of them is whatever the client chose to send.
+     */
+    private String clientAddress(ServerHttpRequest request) {
+        if (properties.isTrustForwardedFor()) {
+            String forwarded = request.getHeaders().getFirst("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) {
+                String[] hops = forwarded.split(",");
+                int client = hops.length - properties.getTrustedProxies();
+                if (client >= 0 && !hops[client].isBlank()) {
+                    return hops[client].trim();
+                }
+            }
+        }
+        InetSocketAddress remote = request.getRemoteAddress();
+        return remote != null && remote.getAddress() != null ? remote.getAddress().getHostAddress() : "unknown";
+    }
+
+    private static Mono<Void> tooManyRequests(ServerWebExchange exchange, long retryAfterNanos) {
+        long retryAfterSeconds = Math.max(1, (retryAfterNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] body = ("{\"message\":\"Too many requests, retry in " + retryAfterSeconds + " s\"}")
+                .getBytes(StandardCharsets.UTF_8);
+        DataBuffer buffer = response.bufferFactory().wrap(body);
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    @Scheduled(fixedDelayString = "${gateway.rate-limit.eviction-interval:PT1M}")
+    public void evictIdleBuckets() {
+        buckets.evictIdle(System.nanoTime());
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("buckets", buckets.size());
+        stats.put("untrackedRequests", buckets.untracked());
+        Map<String, Object> perRule = new LinkedHashMap<>();
+        for (CompiledRule rule : rules) {
+            perRule.put(rule.name, Map.of("allowed", rule.allowed.sum(), "rejected", rule.rejected.sum()));
+        }
+        stats.put("rules", perRule);
+        return stats;
+    }
+
+    @Override
+    public int getOrder() {
+        // After the token filter, so USER rules can see the authenticated user
+        return Ordered.HIGHEST_PRECEDENCE + 20;
+    }
+}
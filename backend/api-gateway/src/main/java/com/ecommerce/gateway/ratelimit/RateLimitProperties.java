@@ -0,0 +1,73 @@
+package com.ecommerce.gateway.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rate limit rules from {@code gateway.rate-limit} in application.yml. A rule applies to requests
+ * of its route id and/or path pattern; every rule that applies must have a token to spare.
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    public enum KeyType {
+        /** One bucket per client address. */
+        IP,
+        /** One bucket per authenticated user; the rule is skipped for anonymous requests. */
+        USER,
+        /** One bucket shared by all clients of the rule. */
+        ROUTE
+    }
+
+    public static class Rule {
+        private String name;
+        private String route;
+        private String path;
+        private KeyType key = KeyType.IP;
+        private int capacity = 100;
+        private double refillPerSecond = 50;
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public String getRoute() { return route; }
+        public void setRoute(String route) { this.route = route; }
+        public String getPath() { return path; }
+        public void setPath(String path) { this.path = path; }
+        public KeyType getKey() { return key; }
+        public void setKey(KeyType key) { this.key = key; }
+        public int getCapacity() { return capacity; }
+        public void setCapacity(int capacity) { this.capacity = capacity; }
+        public double getRefillPerSecond() { return refillPerSecond; }
+        public void setRefillPerSecond(double refillPerSecond) { this.refillPerSecond = refillPerSecond; }
+    }
+
+    private boolean enabled = true;
+    // Only enable behind proxies that append to X-Forwarded-For; otherwise clients pick their own key
+    private boolean trustForwardedFor = false;
+    // Proxy hops in front of the gateway; the client is the entry this many places from the right
+    private int trustedProxies = 1;
+    private int shards = 16;
+    private int maxKeysPerShard = 65536;
+    private Duration idleTimeout = Duration.ofMinutes(5);
+    private List<Rule> rules = new ArrayList<>();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public boolean isTrustForwardedFor() { return trustForwardedFor; }
+    public void setTrustForwardedFor(boolean trustForwardedFor) { this.trustForwardedFor = trustForwardedFor; }
+    public int getTrustedProxies() { return trustedProxies; }
+    public void setTrustedProxies(int trustedProxies) { this.trustedProxies = trustedProxies; }
+    public int getShards() { return shards; }
+    public void setShards(int shards) { this.shards = shards; }
+    public int getMaxKeysPerShard() { return maxKeysPerShard; }
+    public void setMaxKeysPerShard(int maxKeysPerShard) { this.maxKeysPerShard = maxKeysPerShard; }
+    public Duration getIdleTimeout() { return idleTimeout; }
+    public void setIdleTimeout(Duration idleTimeout) { this.idleTimeout = idleTimeout; }
+    public List<Rule> getRules() { return rules; }
+    public void setRules(List<Rule> rules) { this.rules = rules; }
+}
@@ -0,0 +1,122 @@
+package com.ecommerce.gateway.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token buckets for many keys, split into shards that are each capped in size.
+ *
+ * A bucket is a single {@link AtomicLong} holding its theoretical arrival time (the generic cell
+ * rate algorithm): the instant at which the bucket would be full again. Taking a token is one
+ * compare-and-set that pushes that instant forward by one emission interval, with no lock and
+ * no allocation. A bucket whose arrival time has passed is indistinguishable from a new one, so
+ * idle buckets can be dropped at any moment without changing any decision.
+ */
+final class TokenBucketTable {
+
+    /**
+     * Result of {@link #tryAcquire}: whether the request may pass and, if not, how long until it
+     * could. Rejections are rare enough that allocating one is fine; allowing returns a constant.
+     */
+    record Decision(boolean allowed, long retryAfterNanos) {
+        static final Decision ALLOWED = new Decision(true, 0);
+    }
+
+    private final Map<String, AtomicLong>[] shards;
+    private final int maxKeysPerShard;
+    private final long idleNanos;
+    // One bucket per rule, shared by keys that arrive while their shard is full
+    private final Map<String, AtomicLong> overflow = new ConcurrentHashMap<>();
+    private final LongAdder untracked = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    TokenBucketTable(int shardCount, int maxKeysPerShard, long idleNanos) {
+        this.shards = new Map[Math.max(1, shardCount)];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new ConcurrentHashMap<>();
+        }
+        this.maxKeysPerShard = maxKeysPerShard;
+        this.idleNanos = idleNanos;
+    }
+
+    /**
+     * Takes one token from the bucket of {@code key}, which holds up to {@code capacity} tokens
+     * and gains one every {@code intervalNanos}. When the key's shard is full of active keys, the
+     * token comes from the shared bucket of {@code overflowKey} instead, so flooding the table
+     * with fresh keys throttles those keys together rather than letting them all through.
+     */
+    Decision tryAcquire(String key, String overflowKey, int capacity, long intervalNanos, long now) {
+        AtomicLong bucket = bucket(key, now);
+        if (bucket == null) {
+            untracked.increment();
+            bucket = overflow.computeIfAbsent(overflowKey, k -> new AtomicLong(now));
+        }
+        long tolerance = (capacity - 1) * intervalNanos;
+        while (true) {
+            long arrival = bucket.get();
+            long earliest = arrival - tolerance;
+            if (now < earliest) {
+                return new Decision(false, earliest - now);
+            }
+            long next = Math.max(arrival, now) + intervalNanos;
+            if (bucket.compareAndSet(arrival, next)) {
+                return Decision.ALLOWED;
+            }
+        }
+    }
+
+    /**
+     * Gives back a token taken by {@link #tryAcquire}, for a request that a later rule rejected.
+     */
+    void release(String key, String overflowKey, long intervalNanos) {
+        AtomicLong bucket = shards[(key.hashCode() & 0x7fffffff) % shards.length].get(key);
+        if (bucket == null) {
+            bucket = overflow.get(overflowKey);
+        }
+        if (bucket != null) {
+            bucket.addAndGet(-intervalNanos);
+        }
+    }
+
+    private AtomicLong bucket(String key, long now) {
+        Map<String, AtomicLong> shard = shards[(key.hashCode() & 0x7fffffff) % shards.length];
+        AtomicLong bucket = shard.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (shard.size() >= maxKeysPerShard) {
+            evictIdle(shard, now, 0);
+            if (shard.size() >= maxKeysPerShard) {
+                return null;
+            }
+        }
+        return shard.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    /**
+     * Drops buckets that have been full for longer than the idle timeout.
+     */
+    void evictIdle(long now) {
+        for (Map<String, AtomicLong> shard : shards) {
+            evictIdle(shard, now, idleNanos);
+        }
+    }
+
+    private static void evictIdle(Map<String, AtomicLong> shard, long now, long idleNanos) {
+        shard.values().removeIf(bucket -> bucket.get() + idleNanos <= now);
+    }
+
+    long size() {
+        long size = 0;
+        for (Map<String, AtomicLong> shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    long untracked() {
+        return untracked.sum();
+    }
+}
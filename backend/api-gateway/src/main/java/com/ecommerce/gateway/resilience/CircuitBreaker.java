@@ -0,0 +1,148 @@
+package com.ecommerce.gateway.resilience;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Circuit breaker for one route.
+ *
+ * CLOSED lets every call through and trips to OPEN once at least {@code minimumCalls} of the
+ * current window have completed and the failure rate reaches the threshold. OPEN rejects calls
+ * without contacting the backend until {@code openDuration} has passed, then HALF_OPEN admits up
+ * to {@code halfOpenProbes} calls: if they all succeed the breaker closes, and the first failure
+ * reopens it. State changes are compare-and-sets, so admitting a call in CLOSED is a volatile read.
+ */
+final class CircuitBreaker {
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String routeId;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openNanos;
+    private final int halfOpenProbes;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private volatile long openedAt;
+    private final AtomicInteger windowCalls = new AtomicInteger();
+    private final AtomicInteger windowFailures = new AtomicInteger();
+    private final AtomicInteger probesStarted = new AtomicInteger();
+    private final AtomicInteger probesSucceeded = new AtomicInteger();
+
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder opened = new LongAdder();
+
+    CircuitBreaker(String routeId, CircuitBreakerProperties.Settings settings) {
+        this.routeId = routeId;
+        this.windowSize = settings.getWindowSize();
+        this.minimumCalls = settings.getMinimumCalls();
+        this.failureRateThreshold = settings.getFailureRateThreshold();
+        this.openNanos = settings.getOpenDuration().toNanos();
+        this.halfOpenProbes = settings.getHalfOpenProbes();
+    }
+
+    /**
+     * @return whether a call may go to the backend now; every admitted call must be reported
+     * through {@link #onSuccess}, {@link #onFailure} or {@link #onCancel}
+     */
+    boolean tryAcquire(long now) {
+        State current = state.get();
+        if (current == State.OPEN) {
+            if (now - openedAt < openNanos) {
+                rejected.increment();
+                return false;
+            }
+            // Whoever loses this race sees the state the winner left and proceeds from there
+            state.compareAndSet(State.OPEN, State.HALF_OPEN);
+            current = state.get();
+        }
+        if (current == State.HALF_OPEN && probesStarted.incrementAndGet() > halfOpenProbes) {
+            rejected.increment();
+            return false;
+        }
+        return true;
+    }
+
+    void onSuccess() {
+        successes.increment();
+        if (state.get() == State.HALF_OPEN) {
+            if (probesSucceeded.incrementAndGet() >= halfOpenProbes && state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+                resetWindow();
+            }
+            return;
+        }
+        if (windowCalls.incrementAndGet() >= windowSize) {
+            resetWindow();
+        }
+    }
+
+    /**
+     * The client went away before the backend answered: the call says nothing about the backend,
+     * but a probe slot it held must be handed back or HALF_OPEN could never finish.
+     */
+    void onCancel() {
+        if (state.get() == State.HALF_OPEN) {
+            probesStarted.decrementAndGet();
+        }
+    }
+
+    void onFailure(long now) {
+        failures.increment();
+        State current = state.get();
+        if (current == State.HALF_OPEN) {
+            trip(State.HALF_OPEN, now);
+            return;
+        }
+        if (current != State.CLOSED) {
+            return;
+        }
+        int calls = windowCalls.incrementAndGet();
+        int failed = windowFailures.incrementAndGet();
+        if (calls >= minimumCalls && failed * 100 >= failureRateThreshold * calls) {
+            trip(State.CLOSED, now);
+        } else if (calls >= windowSize) {
+            resetWindow();
+        }
+    }
+
+    private void trip(State from, long now) {
+        openedAt = now;
+        probesStarted.set(0);
+        probesSucceeded.set(0);
+        if (state.compareAndSet(from, State.OPEN)) {
+            opened.increment();
+            resetWindow();
+        }
+    }
+
+    private void resetWindow() {
+        windowCalls.set(0);
+        windowFailures.set(0);
+    }
+
+    /**
+     * Nanoseconds until an open breaker admits a probe, for Retry-After.
+     */
+    long remainingOpenNanos(long now) {
+        return Math.max(0, openNanos - (now - openedAt));
+    }
+
+    Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("route", routeId);
+        stats.put("state", state.get().name());
+        stats.put("successes", successes.sum());
+        stats.put("failures", failures.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("timesOpened", opened.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,127 @@
+package com.ecommerce.gateway.resilience;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Wraps every proxied call in its route's {@link CircuitBreaker}. A call counts as failed when
+ * the backend answers 5xx, times out or cannot be reached; the breaker sees the outcome after the
+ * route's retries. Rejected and failed calls get an immediate JSON fallback instead of an error
+ * page, so one unhealthy backend fails fast without tying up connections for the other routes.
+ */
+@Component
+public class CircuitBreakerFilter implements GlobalFilter, Ordered {
+
+    private final CircuitBreakerProperties properties;
+    private final Map<String, Optional<CircuitBreaker>> breakers = new ConcurrentHashMap<>();
+
+    public CircuitBreakerFilter(CircuitBreakerProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+        CircuitBreaker breaker = breakers.computeIfAbsent(route.getId(), this::create).orElse(null);
+        if (breaker == null) {
+            return chain.filter(exchange);
+        }
+        long start = System.nanoTime();
+        if (!breaker.tryAcquire(start)) {
+            return fallback(exchange, HttpStatus.SERVICE_UNAVAILABLE, route.getId() + " is temporarily unavailable",
+                    breaker.remainingOpenNanos(start));
+        }
+        return chain.filter(exchange)
+                .then(Mono.fromRunnable(() -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (status != null && status.is5xxServerError()) {
+                        breaker.onFailure(System.nanoTime());
+                    } else {
+                        breaker.onSuccess();
+                    }
+                }))
+                .onErrorResume(error -> {
+                    breaker.onFailure(System.nanoTime());
+                    if (exchange.getResponse().isCommitted()) {
+                        return Mono.error(error);
+                    }
+                    HttpStatus status = statusFor(error);
+                    String message = status == HttpStatus.GATEWAY_TIMEOUT
+                            ? route.getId() + " did not answer in time"
+                            : route.getId() + " is unreachable";
+                    return fallback(exchange, status, message, 0);
+                })
+                .doOnCancel(breaker::onCancel)
+                .then();
+    }
+
+    private Optional<CircuitBreaker> create(String routeId) {
+        CircuitBreakerProperties.Settings settings = properties.forRoute(routeId);
+        return Boolean.FALSE.equals(settings.getEnabled())
+                ? Optional.empty()
+                : Optional.of(new CircuitBreaker(routeId, settings));
+    }
+
+    private static HttpStatus statusFor(Throwable error) {
+        if (error instanceof ResponseStatusException statusError
+                && statusError.getStatusCode().value() == HttpStatus.GATEWAY_TIMEOUT.value()) {
+            return HttpStatus.GATEWAY_TIMEOUT;
+        }
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException) {
+                return HttpStatus.GATEWAY_TIMEOUT;
+            }
+        }
+        return HttpStatus.SERVICE_UNAVAILABLE;
+    }
+
+    private static Mono<Void> fallback(ServerWebExchange exchange, HttpStatus status, String message, long retryAfterNanos) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        if (retryAfterNanos > 0) {
+            long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        }
+        byte[] body = ("{\"message\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8);
+        DataBuffer buffer = response.bufferFactory().wrap(body);
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    public List<Map<String, Object>> getStats() {
+        List<Map<String, Object>> stats = new ArrayList<>();
+        breakers.values().forEach(breaker -> breaker.ifPresent(b -> stats.add(b.getStats())));
+        return stats;
+    }
+
+    @Override
+    public int getOrder() {
+        // After rate limiting, so rejected clients do not count against the backend
+        return Ordered.HIGHEST_PRECEDENCE + 30;
+    }
+}
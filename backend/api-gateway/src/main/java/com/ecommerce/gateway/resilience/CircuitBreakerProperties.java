@@ -0,0 +1,73 @@
+package com.ecommerce.gateway.resilience;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Circuit breaker settings from {@code gateway.circuit-breaker} in application.yml. Every route
+ * gets its own breaker with the defaults, overridden field by field under {@code routes.<id>}.
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.circuit-breaker")
+public class CircuitBreakerProperties {
+
+    public static class Settings {
+        private Boolean enabled;
+        // Calls counted before the failure rate is evaluated; the counts restart after this many
+        private Integer windowSize;
+        private Integer minimumCalls;
+        private Integer failureRateThreshold;
+        private Duration openDuration;
+        private Integer halfOpenProbes;
+
+        public Boolean getEnabled() { return enabled; }
+        public void setEnabled(Boolean enabled) { this.enabled = enabled; }
+        public Integer getWindowSize() { return windowSize; }
+        public void setWindowSize(Integer windowSize) { this.windowSize = windowSize; }
+        public Integer getMinimumCalls() { return minimumCalls; }
+        public void setMinimumCalls(Integer minimumCalls) { this.minimumCalls = minimumCalls; }
+        public Integer getFailureRateThreshold() { return failureRateThreshold; }
+        public void setFailureRateThreshold(Integer failureRateThreshold) { this.failureRateThreshold = failureRateThreshold; }
+        public Duration getOpenDuration() { return openDuration; }
+        public void setOpenDuration(Duration openDuration) { this.openDuration = openDuration; }
+        public Integer getHalfOpenProbes() { return halfOpenProbes; }
+        public void setHalfOpenProbes(Integer halfOpenProbes) { this.halfOpenProbes = halfOpenProbes; }
+
+        Settings withDefaults(Settings defaults) {
+            Settings merged = new Settings();
+            merged.enabled = enabled != null ? enabled : defaults.enabled;
+            merged.windowSize = windowSize != null ? windowSize : defaults.windowSize;
+            merged.minimumCalls = minimumCalls != null ? minimumCalls : defaults.minimumCalls;
+            merged.failureRateThreshold = failureRateThreshold != null ? failureRateThreshold : defaults.failureRateThreshold;
+            merged.openDuration = openDuration != null ? openDuration : defaults.openDuration;
+            merged.halfOpenProbes = halfOpenProbes != null ? halfOpenProbes : defaults.halfOpenProbes;
+            return merged;
+        }
+    }
+
+    private Settings defaults = new Settings();
+    private Map<String, Settings> routes = new LinkedHashMap<>();
+
+    public CircuitBreakerProperties() {
+        defaults.enabled = true;
+        defaults.windowSize = 50;
+        defaults.minimumCalls = 10;
+        defaults.failureRateThreshold = 50;
+        defaults.openDuration = Duration.ofSeconds(10);
+        defaults.halfOpenProbes = 3;
+    }
+
+    public Settings getDefaults() { return defaults; }
+    public void setDefaults(Settings defaults) { this.defaults = defaults.withDefaults(this.defaults); }
+    public Map<String, Settings> getRoutes() { return routes; }
+    public void setRoutes(Map<String, Settings> routes) { this.routes = routes; }
+
+    Settings forRoute(String routeId) {
+        Settings route = routes.get(routeId);
+        return route != null ? route.withDefaults(defaults) : defaults;
+    }
+}
@@ -0,0 +1,60 @@
+package com.ecommerce.gateway.security;
+
+import com.ecommerce.auth.RevocationMirror;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Keeps a {@link RevocationMirror} of user-service's revoked token ids, refreshed by polling its
+ * revocation journal for changes since the last sequence seen, so verifying a token never leaves the gateway.
+ */
+@Component
+public class RevocationSet {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record RevocationsResponse(String epoch, long sequence, List<RevocationMirror.Revocation> revoked) {
+    }
+
+    private final WebClient webClient;
+    private final Duration timeout;
+    private final RevocationMirror mirror = new RevocationMirror();
+
+    public RevocationSet(WebClient.Builder webClientBuilder,
+                         @Value("${USER_SERVICE_URL:http://localhost:8083}") String userServiceUrl,
+                         @Value("${auth.revocation.timeout:3s}") Duration timeout) {
+        this.webClient = webClientBuilder.baseUrl(userServiceUrl).build();
+        this.timeout = timeout;
+    }
+
+    public boolean isRevoked(long tokenId) {
+        return mirror.isRevoked(tokenId);
+    }
+
+    /**
+     * Runs on the scheduler thread, never on the event loop, so blocking for the reply is fine.
+     */
+    @Scheduled(fixedDelayString = "${auth.revocation.poll-interval:PT5S}")
+    public synchronized void poll() {
+        RevocationsResponse response;
+        try {
+            response = webClient.get()
+                    .uri("/api/users/tokens/revocations?epoch={epoch}&after={after}", mirror.epoch(), mirror.sequence())
+                    .retrieve()
+                    .bodyToMono(RevocationsResponse.class)
+                    .block(timeout);
+        } catch (RuntimeException e) {
+            return;
+        }
+        if (response == null) {
+            return;
+        }
+        mirror.apply(response.epoch(), response.sequence(), response.revoked(), Instant.now());
+    }
+}
@@ -0,0 +1,77 @@
+package com.ecommerce.gateway.security;
+
+import com.ecommerce.auth.SessionToken;
+import com.ecommerce.auth.TokenCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Verifies bearer tokens at the edge. A valid token's user id is forwarded to the services in
+ * {@link #USER_ID_HEADER}; any such header sent by the client is stripped first, so downstream
+ * code can trust it. An invalid, expired or revoked token is answered 401 without reaching a
+ * service. Requests without a token pass through, as every route is still public.
+ */
+@Component
+public class TokenAuthenticationFilter implements GlobalFilter, Ordered {
+
+    public static final String USER_ID_HEADER = "X-Authenticated-User-Id";
+    public static final String USER_ID_ATTRIBUTE = "authenticatedUserId";
+
+    private static final byte[] UNAUTHORIZED_BODY = "{\"message\":\"Invalid or expired token\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final TokenCodec tokenCodec;
+    private final RevocationSet revocationSet;
+
+    public TokenAuthenticationFilter(@Value("${auth.token.secret}") String secret, RevocationSet revocationSet) {
+        this.tokenCodec = new TokenCodec(secret);
+        this.revocationSet = revocationSet;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        String authorization = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            ServerHttpRequest request = exchange.getRequest().mutate()
+                    .headers(headers -> headers.remove(USER_ID_HEADER))
+                    .build();
+            return chain.filter(exchange.mutate().request(request).build());
+        }
+        Optional<SessionToken> claims = tokenCodec
+                .verify(authorization.substring(7).trim(), SessionToken.Type.ACCESS, Instant.now())
+                .filter(token -> !revocationSet.isRevoked(token.tokenId()));
+        if (claims.isEmpty()) {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            DataBuffer body = response.bufferFactory().wrap(UNAUTHORIZED_BODY);
+            return response.writeWith(Mono.just(body));
+        }
+        long userId = claims.get().userId();
+        exchange.getAttributes().put(USER_ID_ATTRIBUTE, userId);
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .headers(headers -> headers.set(USER_ID_HEADER, Long.toString(userId)))
+                .build();
+        return chain.filter(exchange.mutate().request(request).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+}
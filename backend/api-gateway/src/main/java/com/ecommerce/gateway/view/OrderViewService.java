@@ -0,0 +1,161 @@
+package com.ecommerce.gateway.view;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Composes the order page in one gateway call: the order first, then its products and its user
+ * fetched concurrently, merged into a single document.
+ *
+ * The whole composition shares one deadline, taken from the caller's {@link #DEADLINE_HEADER}
+ * when it is sooner than {@code gateway.views.deadline}. The deadline is enforced here only: each
+ * backend call is given the time left as its timeout, and the services themselves do not see it.
+ * The order is required; a product or user lookup that fails or misses the deadline is left out
+ * and named in {@code unavailable}, so the page can still render.
+ */
+@Service
+public class OrderViewService {
+
+    /** Absolute deadline in epoch milliseconds, accepted from clients. */
+    public static final String DEADLINE_HEADER = "X-Request-Deadline";
+
+    public static class OrderNotFoundException extends RuntimeException {
+    }
+
+    private final WebClient orders;
+    private final WebClient products;
+    private final WebClient users;
+    private final Duration maxDeadline;
+    private final int productBatchSize;
+
+    public OrderViewService(WebClient.Builder webClientBuilder,
+                            @Value("${ORDER_SERVICE_URL:http://localhost:8082}") String orderServiceUrl,
+                            @Value("${PRODUCT_SERVICE_URL:http://localhost:8081}") String productServiceUrl,
+                            @Value("${USER_SERVICE_URL:http://localhost:8083}") String userServiceUrl,
+                            @Value("${gateway.views.deadline:2s}") Duration maxDeadline,
+                            @Value("${gateway.views.product-batch-size:200}") int productBatchSize) {
+        this.orders = webClientBuilder.clone().baseUrl(orderServiceUrl).build();
+        this.products = webClientBuilder.clone().baseUrl(productServiceUrl).build();
+        this.users = webClientBuilder.clone().baseUrl(userServiceUrl).build();
+        this.maxDeadline = maxDeadline;
+        this.productBatchSize = productBatchSize;
+    }
+
+    /**
+     * @param requestedDeadline the caller's deadline in epoch milliseconds, or null
+     * @param authorization     forwarded to the backends as-is, or null
+     * @return the view; fails with {@link OrderNotFoundException} if there is no such order, or
+     * with the backend error if the order itself cannot be fetched in time
+     */
+    public Mono<ObjectNode> getOrderView(long orderId, Long requestedDeadline, String authorization) {
+        Instant deadline = Instant.now().plus(maxDeadline);
+        if (requestedDeadline != null && requestedDeadline < deadline.toEpochMilli()) {
+            deadline = Instant.ofEpochMilli(requestedDeadline);
+        }
+        Instant end = deadline;
+
+        return get(orders, end, authorization, "/api/orders/{id}", orderId)
+                .onErrorMap(WebClientResponseException.NotFound.class, e -> new OrderNotFoundException())
+                .flatMap(order -> {
+                    Mono<Optional<Map<Long, JsonNode>>> productLookup = fetchProducts(productIds(order), end, authorization)
+                            .map(Optional::of)
+                            .onErrorResume(e -> Mono.just(Optional.empty()));
+                    Mono<Optional<JsonNode>> userLookup = order.hasNonNull("userId")
+                            ? get(users, end, authorization, "/api/users/{id}", order.get("userId").asLong())
+                                    .map(Optional::of)
+                                    .onErrorResume(e -> Mono.just(Optional.empty()))
+                            : Mono.just(Optional.empty());
+                    return Mono.zip(productLookup, userLookup).map(parts -> compose(order, parts.getT1(), parts.getT2()));
+                });
+    }
+
+    private ObjectNode compose(JsonNode order, Optional<Map<Long, JsonNode>> products, Optional<JsonNode> user) {
+        ObjectNode view = (ObjectNode) order.deepCopy();
+        List<String> unavailable = new ArrayList<>();
+        if (products.isPresent()) {
+            for (JsonNode item : view.path("items")) {
+                JsonNode product = products.get().get(item.path("productId").asLong());
+                if (product != null) {
+                    ((ObjectNode) item).set("product", product);
+                }
+            }
+        } else if (view.path("items").size() > 0) {
+            unavailable.add("products");
+        }
+        if (user.isPresent()) {
+            ObjectNode userNode = (ObjectNode) user.get();
+            // user-service no longer serializes the hash, but never let one reach a browser
+            userNode.remove("password");
+            view.set("user", userNode);
+        } else if (order.hasNonNull("userId")) {
+            unavailable.add("user");
+        }
+        view.put("partial", !unavailable.isEmpty());
+        view.putPOJO("unavailable", unavailable);
+        return view;
+    }
+
+    private static List<Long> productIds(JsonNode order) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (JsonNode item : order.path("items")) {
+            if (item.hasNonNull("productId")) {
+                ids.add(item.get("productId").asLong());
+            }
+        }
+        return new ArrayList<>(ids);
+    }
+
+    /**
+     * Resolves the products through product-service's batch endpoint, one concurrent call per
+     * {@code productBatchSize} ids.
+     */
+    private Mono<Map<Long, JsonNode>> fetchProducts(List<Long> ids, Instant deadline, String authorization) {
+        if (ids.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        List<Mono<JsonNode>> calls = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += productBatchSize) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + productBatchSize));
+            StringJoiner joined = new StringJoiner(",");
+            chunk.forEach(id -> joined.add(id.toString()));
+            calls.add(get(products, deadline, authorization, "/api/products/batch?ids={ids}", joined.toString()));
+        }
+        return Flux.merge(calls)
+                .collect(HashMap::new, (found, response) -> {
+                    for (JsonNode result : response.path("results")) {
+                        if ("FOUND".equals(result.path("status").asText())) {
+                            found.put(result.path("id").asLong(), result.get("product"));
+                        }
+                    }
+                });
+    }
+
+    private static Mono<JsonNode> get(WebClient client, Instant deadline, String authorization, String uri, Object... variables) {
+        Duration remaining = Duration.between(Instant.now(), deadline);
+        if (remaining.isNegative() || remaining.isZero()) {
+            return Mono.error(new TimeoutException("Deadline passed before calling " + uri));
+        }
+        return client.get()
+                .uri(uri, variables)
+                .headers(headers -> {
+                    if (authorization != null) {
+                        headers.set(HttpHeaders.AUTHORIZATION, authorization);
+                    }
+                })
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(remaining);
+    }
+}
@@ -0,0 +1,41 @@
+package com.ecommerce.gateway.view;
+
+import com.ecommerce.gateway.ratelimit.RateLimitFilter;
+import com.ecommerce.gateway.security.TokenAuthenticationFilter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs token verification and rate limiting for {@code /api/views}. The gateway serves those
+ * requests from a controller, so they never pass through the route filters where the global
+ * filters normally run. The circuit breakers are not applied: a view already degrades to a
+ * partial response when a backend fails.
+ */
+@Component
+public class ViewFilter implements WebFilter {
+
+    private static final PathPattern VIEWS = PathPatternParser.defaultInstance.parse("/api/views/**");
+
+    private final TokenAuthenticationFilter tokenAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
+
+    public ViewFilter(TokenAuthenticationFilter tokenAuthenticationFilter, RateLimitFilter rateLimitFilter) {
+        this.tokenAuthenticationFilter = tokenAuthenticationFilter;
+        this.rateLimitFilter = rateLimitFilter;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!VIEWS.matches(exchange.getRequest().getPath().pathWithinApplication())) {
+            return chain.filter(exchange);
+        }
+        // Same order as on routes: the rate limiter's USER rules need the verified user
+        return tokenAuthenticationFilter.filter(exchange,
+                authenticated -> rateLimitFilter.filter(authenticated, chain::filter));
+    }
+}
@@ -0,0 +1,146 @@
+package com.ecommerce.gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTableTest {
+
+    private static final long INTERVAL = 100;
+
+    @Test
+    void allowsABurstOfCapacityThenOneTokenPerInterval() {
+        TokenBucketTable table = new TokenBucketTable(4, 100, 1_000);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(acquire(table, "a", 3, 0).allowed());
+        }
+        TokenBucketTable.Decision rejected = acquire(table, "a", 3, 0);
+        assertFalse(rejected.allowed());
+        assertEquals(INTERVAL, rejected.retryAfterNanos());
+
+        assertFalse(acquire(table, "a", 3, 99).allowed());
+        assertTrue(acquire(table, "a", 3, 100).allowed());
+        assertEquals(INTERVAL, acquire(table, "a", 3, 100).retryAfterNanos());
+    }
+
+    @Test
+    void anIdleBucketRefillsOnlyUpToCapacity() {
+        TokenBucketTable table = new TokenBucketTable(4, 100, 1_000);
+        acquire(table, "a", 3, 0);
+
+        int allowed = 0;
+        for (int i = 0; i < 10; i++) {
+            if (acquire(table, "a", 3, 1_000_000).allowed()) {
+                allowed++;
+            }
+        }
+        assertEquals(3, allowed);
+    }
+
+    @Test
+    void keysHaveTheirOwnBuckets() {
+        TokenBucketTable table = new TokenBucketTable(4, 100, 1_000);
+
+        assertTrue(acquire(table, "a", 1, 0).allowed());
+        assertFalse(acquire(table, "a", 1, 0).allowed());
+        assertTrue(acquire(table, "b", 1, 0).allowed());
+    }
+
+    @Test
+    void releaseGivesTheTokenBack() {
+        TokenBucketTable table = new TokenBucketTable(4, 100, 1_000);
+        acquire(table, "a", 2, 0);
+        acquire(table, "a", 2, 0);
+        assertFalse(acquire(table, "a", 2, 0).allowed());
+
+        table.release("a", "rule", INTERVAL);
+
+        assertTrue(acquire(table, "a", 2, 0).allowed());
+        assertFalse(acquire(table, "a", 2, 0).allowed());
+    }
+
+    @Test
+    void keysBeyondAFullShardShareTheOverflowBucket() {
+        TokenBucketTable table = new TokenBucketTable(1, 2, 1_000);
+        acquire(table, "a", 1, 0);
+        acquire(table, "b", 1, 0);
+
+        assertTrue(acquire(table, "c", 1, 0).allowed());
+        assertFalse(acquire(table, "d", 1, 0).allowed());
+
+        assertEquals(2, table.size());
+        assertEquals(2, table.untracked());
+        // Released into the overflow bucket, since c never got one of its own
+        table.release("c", "rule", INTERVAL);
+        assertTrue(acquire(table, "d", 1, 0).allowed());
+    }
+
+    @Test
+    void aFullShardMakesRoomByDroppingRefilledBuckets() {
+        TokenBucketTable table = new TokenBucketTable(1, 1, 1_000);
+        acquire(table, "a", 1, 0);
+
+        // At 100 the bucket of a is full again and can go without changing any decision
+        assertTrue(acquire(table, "b", 1, INTERVAL).allowed());
+
+        assertEquals(1, table.size());
+        assertEquals(0, table.untracked());
+    }
+
+    @Test
+    void evictsBucketsIdleForTheTimeout() {
+        TokenBucketTable table = new TokenBucketTable(4, 100, 1_000);
+        acquire(table, "a", 1, 0);
+        acquire(table, "b", 1, 500);
+
+        table.evictIdle(INTERVAL + 999);
+        assertEquals(2, table.size());
+        table.evictIdle(INTERVAL + 1_000);
+        assertEquals(1, table.size());
+        table.evictIdle(500 + INTERVAL + 1_000);
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    void concurrentCallersNeverTakeMoreThanCapacity() throws Exception {
+        TokenBucketTable table = new TokenBucketTable(4, 100, 1_000);
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger allowed = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 100; i++) {
+                    if (acquire(table, "hot", 50, 0).allowed()) {
+                        allowed.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        assertEquals(50, allowed.get());
+    }
+
+    private static TokenBucketTable.Decision acquire(TokenBucketTable table, String key, int capacity, long now) {
+        return table.tryAcquire(key, "rule", capacity, INTERVAL, now);
+    }
+}
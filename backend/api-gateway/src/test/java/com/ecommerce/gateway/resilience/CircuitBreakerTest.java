@@ -0,0 +1,123 @@
+package com.ecommerce.gateway.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    private static final long OPEN_NANOS = 1_000;
+
+    private final CircuitBreaker breaker = new CircuitBreaker("products", settings());
+
+    @Test
+    void staysClosedUntilTheMinimumNumberOfCalls() {
+        fail(3, 0);
+
+        assertEquals("CLOSED", state());
+        assertTrue(breaker.tryAcquire(0));
+    }
+
+    @Test
+    void opensWhenTheFailureRateReachesTheThreshold() {
+        succeed(2);
+        fail(2, 100);
+
+        assertEquals("OPEN", state());
+        assertFalse(breaker.tryAcquire(100 + OPEN_NANOS - 1));
+        assertEquals(1, breaker.remainingOpenNanos(100 + OPEN_NANOS - 1));
+        assertEquals(1L, breaker.getStats().get("rejected"));
+        assertEquals(1L, breaker.getStats().get("timesOpened"));
+    }
+
+    @Test
+    void countsRestartAfterAFullWindow() {
+        succeed(8);
+        fail(2, 0);
+        assertEquals("CLOSED", state());
+
+        // Judged on the new window alone: the earlier successes no longer dilute these
+        fail(3, 0);
+        assertEquals("CLOSED", state());
+        fail(1, 0);
+        assertEquals("OPEN", state());
+    }
+
+    @Test
+    void closesAfterEveryProbeSucceeds() {
+        trip();
+
+        assertTrue(breaker.tryAcquire(OPEN_NANOS));
+        assertEquals("HALF_OPEN", state());
+        assertTrue(breaker.tryAcquire(OPEN_NANOS));
+        assertFalse(breaker.tryAcquire(OPEN_NANOS));
+
+        breaker.onSuccess();
+        assertEquals("HALF_OPEN", state());
+        breaker.onSuccess();
+        assertEquals("CLOSED", state());
+        assertTrue(breaker.tryAcquire(OPEN_NANOS));
+    }
+
+    @Test
+    void aFailedProbeReopensForAnotherFullPeriod() {
+        trip();
+        assertTrue(breaker.tryAcquire(OPEN_NANOS));
+
+        breaker.onFailure(OPEN_NANOS + 10);
+
+        assertEquals("OPEN", state());
+        assertFalse(breaker.tryAcquire(2 * OPEN_NANOS + 9));
+        assertTrue(breaker.tryAcquire(2 * OPEN_NANOS + 10));
+        assertEquals(2L, breaker.getStats().get("timesOpened"));
+    }
+
+    @Test
+    void aCancelledProbeHandsItsSlotBack() {
+        trip();
+        assertTrue(breaker.tryAcquire(OPEN_NANOS));
+        assertTrue(breaker.tryAcquire(OPEN_NANOS));
+
+        breaker.onCancel();
+
+        assertTrue(breaker.tryAcquire(OPEN_NANOS));
+        assertFalse(breaker.tryAcquire(OPEN_NANOS));
+    }
+
+    private void trip() {
+        fail(4, 0);
+        assertEquals("OPEN", state());
+    }
+
+    private void succeed(int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertTrue(breaker.tryAcquire(0));
+            breaker.onSuccess();
+        }
+    }
+
+    private void fail(int calls, long now) {
+        for (int i = 0; i < calls; i++) {
+            assertTrue(breaker.tryAcquire(now));
+            breaker.onFailure(now);
+        }
+    }
+
+    private String state() {
+        return (String) breaker.getStats().get("state");
+    }
+
+    private static CircuitBreakerProperties.Settings settings() {
+        CircuitBreakerProperties.Settings settings = new CircuitBreakerProperties.Settings();
+        settings.setWindowSize(10);
+        settings.setMinimumCalls(4);
+        settings.setFailureRateThreshold(50);
+        settings.setOpenDuration(Duration.ofNanos(OPEN_NANOS));
+        settings.setHalfOpenProbes(2);
+        return settings;
+    }
+}
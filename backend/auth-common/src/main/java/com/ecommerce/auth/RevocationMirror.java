@@ -0,0 +1,67 @@
+package com.ecommerce.auth;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local copy of user-service's revoked token ids, fed from its revocation journal. The services
+ * poll the journal over their own HTTP client and hand each reply to {@link #apply}; a token is
+ * only ever checked against this copy, so a revocation takes effect within one poll interval.
+ *
+ * When the epoch changes, user-service has restarted and its sequence numbers start over, but the
+ * reply holds its whole reloaded set. That set replaces the old map in one step, so a check
+ * running alongside never sees the set empty.
+ */
+public final class RevocationMirror {
+
+    public record Revocation(long tokenId, long expiresAt) {
+    }
+
+    private volatile Map<Long, Long> revoked = new ConcurrentHashMap<>();
+    private String epoch;
+    private long sequence;
+
+    public boolean isRevoked(long tokenId) {
+        return revoked.containsKey(tokenId);
+    }
+
+    /**
+     * The epoch to ask for changes under, or an empty string before the first reply.
+     */
+    public synchronized String epoch() {
+        return epoch != null ? epoch : "";
+    }
+
+    /**
+     * The last sequence applied; the next poll asks for changes after it.
+     */
+    public synchronized long sequence() {
+        return sequence;
+    }
+
+    /**
+     * Applies one journal reply and drops the entries whose tokens have expired since.
+     */
+    public synchronized void apply(String replyEpoch, long replySequence, List<Revocation> changes, Instant now) {
+        Map<Long, Long> target = revoked;
+        if (!replyEpoch.equals(epoch)) {
+            target = new ConcurrentHashMap<>();
+        }
+        if (changes != null) {
+            for (Revocation revocation : changes) {
+                target.put(revocation.tokenId(), revocation.expiresAt());
+            }
+        }
+        long cutoff = now.getEpochSecond();
+        target.values().removeIf(expiresAt -> expiresAt <= cutoff);
+        revoked = target;
+        epoch = replyEpoch;
+        sequence = replySequence;
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.auth;
+
+import java.time.Instant;
+
+/**
+ * Claims carried by a signed session token. Access tokens authenticate requests; refresh tokens
+ * are only accepted by user-service to issue a new pair.
+ */
+public record SessionToken(Type type, long userId, long tokenId, Instant expiresAt) {
+
+    public enum Type {
+        ACCESS, REFRESH
+    }
+
+    public boolean isExpired(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+}
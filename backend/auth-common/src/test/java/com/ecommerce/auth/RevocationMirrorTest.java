@@ -0,0 +1,52 @@
+package com.ecommerce.auth;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RevocationMirrorTest {
+
+    private static final Instant NOW = Instant.parse("2030-01-01T00:00:00Z");
+    private static final long LIVE = NOW.plusSeconds(60).getEpochSecond();
+
+    private final RevocationMirror mirror = new RevocationMirror();
+
+    @Test
+    void appliesChangesWithinAnEpoch() {
+        assertEquals("", mirror.epoch());
+
+        mirror.apply("a", 1, List.of(new RevocationMirror.Revocation(1, LIVE)), NOW);
+        mirror.apply("a", 2, List.of(new RevocationMirror.Revocation(2, LIVE)), NOW);
+
+        assertTrue(mirror.isRevoked(1));
+        assertTrue(mirror.isRevoked(2));
+        assertEquals("a", mirror.epoch());
+        assertEquals(2, mirror.sequence());
+    }
+
+    @Test
+    void replacesTheSetWhenTheEpochChanges() {
+        mirror.apply("a", 2, List.of(new RevocationMirror.Revocation(1, LIVE), new RevocationMirror.Revocation(2, LIVE)), NOW);
+
+        mirror.apply("b", 1, List.of(new RevocationMirror.Revocation(2, LIVE)), NOW);
+
+        assertFalse(mirror.isRevoked(1));
+        assertTrue(mirror.isRevoked(2));
+        assertEquals(1, mirror.sequence());
+    }
+
+    @Test
+    void dropsExpiredEntries() {
+        mirror.apply("a", 2, List.of(new RevocationMirror.Revocation(1, LIVE),
+                new RevocationMirror.Revocation(2, NOW.getEpochSecond())), NOW);
+        assertEquals(1, mirror.size());
+
+        mirror.apply("a", 2, null, NOW.plusSeconds(60));
+        assertEquals(0, mirror.size());
+    }
+}
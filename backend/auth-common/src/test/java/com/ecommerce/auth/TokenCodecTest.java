@@ -0,0 +1,62 @@
+package com.ecommerce.auth;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The vectors pin the wire format, so a change to it fails here before tokens issued by one
+ * service stop verifying in another that was deployed from an older build.
+ */
+class TokenCodecTest {
+
+    private static final String SECRET = "test-token-secret-0123456789abcdef";
+    private static final Instant EXPIRES_AT = Instant.parse("2030-01-01T00:00:00Z");
+    private static final String ACCESS_TOKEN = "AQAAAAAAAAAAKgAAAAAAAAAHAAAAAHDb2IA.q4PjvnqL2ZJQYXuOrGMc3_vnJQzMaTiJjGQSO4o_n8Q";
+    private static final String REFRESH_TOKEN = "AQEAAAAAAAAAKgAAAAAAAAAIAAAAAHDb2IA.qVN4cmjuj7Opz8crHNF8AnSqj4UOGgOE55Utw4A6V6c";
+
+    private final TokenCodec codec = new TokenCodec(SECRET);
+
+    @Test
+    void encodesTheSharedVectors() {
+        assertEquals(ACCESS_TOKEN, codec.encode(new SessionToken(SessionToken.Type.ACCESS, 42, 7, EXPIRES_AT)));
+        assertEquals(REFRESH_TOKEN, codec.encode(new SessionToken(SessionToken.Type.REFRESH, 42, 8, EXPIRES_AT)));
+    }
+
+    @Test
+    void roundTripsClaims() {
+        SessionToken token = new SessionToken(SessionToken.Type.REFRESH, Long.MAX_VALUE, -1, Instant.ofEpochSecond(0));
+
+        assertEquals(Optional.of(token), codec.decode(codec.encode(token)));
+    }
+
+    @Test
+    void verifiesTypeAndExpiry() {
+        SessionToken access = new SessionToken(SessionToken.Type.ACCESS, 42, 7, EXPIRES_AT);
+
+        assertEquals(Optional.of(access), codec.verify(ACCESS_TOKEN, SessionToken.Type.ACCESS, EXPIRES_AT.minusSeconds(1)));
+        assertTrue(codec.verify(ACCESS_TOKEN, SessionToken.Type.ACCESS, EXPIRES_AT).isEmpty());
+        assertTrue(codec.verify(REFRESH_TOKEN, SessionToken.Type.ACCESS, EXPIRES_AT.minusSeconds(1)).isEmpty());
+    }
+
+    @Test
+    void rejectsTamperedAndMalformedTokens() {
+        String otherUser = ACCESS_TOKEN.replaceFirst("AKg", "AKw");
+
+        assertTrue(codec.decode(otherUser).isEmpty());
+        assertTrue(new TokenCodec(SECRET + "x").decode(ACCESS_TOKEN).isEmpty());
+        assertTrue(codec.decode(ACCESS_TOKEN + ".x").isEmpty());
+        assertTrue(codec.decode("not a token").isEmpty());
+        assertTrue(codec.decode(null).isEmpty());
+    }
+
+    @Test
+    void rejectsShortSecrets() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenCodec("too-short"));
+    }
+}
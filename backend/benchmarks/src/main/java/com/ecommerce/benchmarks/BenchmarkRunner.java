@@ -0,0 +1,46 @@
+package com.ecommerce.benchmarks;
+
+import org.openjdk.jmh.Main;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of {@code target/benchmarks.jar}. Takes the usual JMH arguments, and unless told
+ * otherwise writes the results as JSON to {@code results/benchmarks-<timestamp>.json}, so runs can
+ * be kept and compared:
+ *
+ * <pre>
+ * mvn -B package
+ * java -jar target/benchmarks.jar                        # everything
+ * java -jar target/benchmarks.jar ProductQuery -p catalogSize=100000
+ * java -jar target/benchmarks.jar -rff results/baseline.json
+ * </pre>
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        if (!arguments.contains("-rf")) {
+            arguments.add("-rf");
+            arguments.add("json");
+        }
+        if (!arguments.contains("-rff")) {
+            Path results = Paths.get("results");
+            Files.createDirectories(results);
+            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+            arguments.add("-rff");
+            arguments.add(results.resolve("benchmarks-" + timestamp + ".json").toString());
+        }
+        Main.main(arguments.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,88 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.product.model.Product;
+import com.ecommerce.product.model.ProductQuery;
+import com.ecommerce.product.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Lookups and searches running against a stream of product updates on the same catalog. With
+ * {@code durable} every update also waits for the group commit of the product log, as it does in
+ * production.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class CatalogMixedBenchmark {
+
+    private static final ProductQuery[] QUERIES = Stream.of("laptop", "wireless", "smart watch", "leather wal", "camera")
+            .map(Fixtures::search)
+            .toArray(ProductQuery[]::new);
+
+    @Param({"false", "true"})
+    boolean durable;
+
+    @Param({"100000"})
+    int catalogSize;
+
+    private Path directory;
+    private ProductService productService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        directory = durable ? Fixtures.tempDirectory("catalog-mixed-benchmark") : null;
+        productService = Services.products(directory);
+        for (Product product : Fixtures.products(catalogSize)) {
+            productService.createProduct(product);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Fixtures.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    @Group("catalog")
+    @GroupThreads(4)
+    public Optional<Product> getProductById() {
+        return productService.getProductById(randomId());
+    }
+
+    @Benchmark
+    @Group("catalog")
+    @GroupThreads(2)
+    public List<Product> findProducts() {
+        return productService.findProducts(QUERIES[ThreadLocalRandom.current().nextInt(QUERIES.length)]);
+    }
+
+    @Benchmark
+    @Group("catalog")
+    @GroupThreads(2)
+    public Optional<Product> updateProduct() {
+        long id = randomId();
+        Optional<Product> current = productService.getProductById(id);
+        if (current.isEmpty()) {
+            return current;
+        }
+        Product product = current.get();
+        Product changed = new Product(null, product.getName(), product.getDescription(), product.getPrice(),
+                product.getCategory(), ThreadLocalRandom.current().nextInt(500), product.getImageUrl(),
+                product.getBrand(), product.getRating(), product.getImages(), null);
+        return productService.updateProduct(id, changed);
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextInt(catalogSize) + 1;
+    }
+}
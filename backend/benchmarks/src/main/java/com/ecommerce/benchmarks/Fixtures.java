@@ -0,0 +1,163 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderItem;
+import com.ecommerce.product.model.Product;
+import com.ecommerce.product.model.ProductQuery;
+import com.ecommerce.user.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic test data shaped like the dummyjson catalog, so runs on different days and
+ * machines index, search and serialize the same documents.
+ */
+final class Fixtures {
+
+    static final String[] CATEGORIES = {
+            "smartphones", "laptops", "fragrances", "skincare", "groceries", "home-decoration",
+            "furniture", "tops", "womens-dresses", "womens-shoes", "mens-shirts", "mens-shoes",
+            "mens-watches", "womens-watches", "womens-bags", "womens-jewellery", "sunglasses",
+            "automotive", "motorcycle", "lighting"
+    };
+
+    private static final String[] BRANDS = {
+            "Apple", "Samsung", "Huawei", "Dell", "Lenovo", "Asus", "Chanel", "Dior", "Nike",
+            "Adidas", "Rolex", "Casio", "Ikea", "Philips", "Bosch", "Sony", "Gucci", "Prada",
+            "Ray-Ban", "Generic"
+    };
+
+    private static final String[] ADJECTIVES = {
+            "wireless", "compact", "premium", "classic", "portable", "ergonomic", "smart",
+            "vintage", "ultra", "organic", "leather", "waterproof", "foldable", "luxury",
+            "lightweight", "handmade", "digital", "cordless", "modern", "rugged"
+    };
+
+    private static final String[] NOUNS = {
+            "laptop", "phone", "headphones", "lamp", "chair", "watch", "jacket", "bottle",
+            "speaker", "camera", "backpack", "sneakers", "perfume", "sofa", "helmet", "tablet",
+            "blender", "sunglasses", "wallet", "keyboard"
+    };
+
+    private static final long SEED = 20240601L;
+
+    private Fixtures() {
+    }
+
+    /**
+     * Products without ids, ready for {@code ProductService.createProduct}. Every combination of
+     * adjective and noun occurs, so a one-word query matches about one product in twenty.
+     */
+    static List<Product> products(int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            products.add(product(random, i));
+        }
+        return products;
+    }
+
+    static Product product(SplittableRandom random, int i) {
+        String adjective = ADJECTIVES[i % ADJECTIVES.length];
+        String noun = NOUNS[(i / ADJECTIVES.length) % NOUNS.length];
+        String brand = BRANDS[random.nextInt(BRANDS.length)];
+        String name = capitalize(adjective) + " " + capitalize(noun) + " " + (100 + i % 900);
+        String image = "https://cdn.dummyjson.com/products/images/" + i + "/thumbnail.png";
+        return new Product(null, name,
+                "A " + adjective + " " + noun + " by " + brand + ", built for everyday use and backed by a two-year warranty.",
+                BigDecimal.valueOf(random.nextInt(100, 500_000), 2),
+                CATEGORIES[random.nextInt(CATEGORIES.length)],
+                random.nextInt(0, 500),
+                image,
+                brand,
+                Math.round(random.nextDouble(1, 5) * 100) / 100.0,
+                List.of(image, image.replace("thumbnail", "1")),
+                null);
+    }
+
+    /**
+     * An order of one to three items for {@code userId}, priced as the client would send it.
+     */
+    static Order order(SplittableRandom random, long userId, int catalogSize) {
+        int lines = random.nextInt(1, 4);
+        List<OrderItem> items = new ArrayList<>(lines);
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < lines; i++) {
+            long productId = random.nextInt(catalogSize) + 1;
+            int quantity = random.nextInt(1, 4);
+            BigDecimal price = BigDecimal.valueOf(random.nextInt(100, 100_000), 2);
+            items.add(new OrderItem(productId, "Product " + productId, quantity, price));
+            total = total.add(price.multiply(BigDecimal.valueOf(quantity)));
+        }
+        return new Order(null, userId, items, total, null, userId + " Benchmark Street, Springfield", null, null,
+                null);
+    }
+
+    /**
+     * A query with only a search term, as {@code GET /api/products?search=} sends it.
+     */
+    static ProductQuery search(String term) {
+        ProductQuery query = new ProductQuery();
+        query.setSearch(term);
+        return query;
+    }
+
+    static User user(long n, String password) {
+        return new User(null, "user" + n + "@benchmark.example", password, "Bench", "User " + n, "555-0100",
+                n + " Benchmark Street, Springfield", null);
+    }
+
+    /**
+     * Configured like the ObjectMapper Spring Boot gives the controllers.
+     */
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    static Path tempDirectory(String prefix) {
+        try {
+            return Files.createTempDirectory(prefix);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void deleteRecursively(Path root) {
+        if (root == null || !Files.exists(root)) {
+            return;
+        }
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                    Files.delete(file);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path directory, IOException e) throws IOException {
+                    Files.delete(directory);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
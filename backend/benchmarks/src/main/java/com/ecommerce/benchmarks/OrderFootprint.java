@@ -0,0 +1,84 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.order.service.OrderService;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Measures what an order costs in each storage tier, which no estimate from field counts gets
+ * right. Creates the orders through the real OrderService, cancels them so they are terminal,
+ * and takes the used heap after a full GC before and after; then moves them all to the cold tier
+ * and measures the heap again. What stays on the heap for a cold order is its index slots and its
+ * entry in the per-user index. The file side of the cold tier is the figure the service itself
+ * reports, read off its segments.
+ *
+ * Not a JMH benchmark, since it measures space rather than time; run it on its own JVM and
+ * without {@code -XX:+DisableExplicitGC}:
+ *
+ * <pre>
+ * mvn -B package
+ * java -Xmx2g -cp target/benchmarks.jar com.ecommerce.benchmarks.OrderFootprint 200000
+ * </pre>
+ */
+public final class OrderFootprint {
+
+    private OrderFootprint() {
+    }
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        Path directory = Fixtures.tempDirectory("order-footprint");
+        try (AnnotationConfigApplicationContext context = Services.tieredOrders(directory)) {
+            OrderService orderService = context.getBean(OrderService.class);
+            SplittableRandom random = new SplittableRandom(7);
+            // Allocated before the baseline so it does not count towards the orders
+            long[] ids = new long[count];
+            long baseline = usedHeapAfterGc();
+
+            for (int i = 0; i < count; i++) {
+                ids[i] = orderService.createOrder(Fixtures.order(random, i % 10_000 + 1, 100_000)).getId();
+            }
+            for (long id : ids) {
+                orderService.cancelOrder(id);
+            }
+            long hot = usedHeapAfterGc();
+
+            orderService.tierColdOrders();
+            long cold = usedHeapAfterGc();
+            Map<String, Object> stats = orderService.getStorageStats();
+            if (!Integer.valueOf(count).equals(stats.get("coldOrders"))) {
+                throw new IllegalStateException("Expected " + count + " cold orders, got " + stats);
+            }
+
+            System.out.printf("orders:                   %d%n", count);
+            System.out.printf("hot heap bytes/order:     %d%n", (hot - baseline) / count);
+            System.out.printf("cold heap bytes/order:    %d%n", (cold - baseline) / count);
+            System.out.printf("cold file bytes/order:    %s%n", stats.get("coldBytesPerOrder"));
+            System.out.printf("cold mapped bytes:        %s%n", stats.get("coldMappedBytes"));
+        } finally {
+            Fixtures.deleteRecursively(directory);
+        }
+    }
+
+    /**
+     * Used heap once repeated collections stop freeing anything.
+     */
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            long now = memory.getHeapMemoryUsage().getUsed();
+            if (now >= used) {
+                return now;
+            }
+            used = now;
+        }
+        return used;
+    }
+}
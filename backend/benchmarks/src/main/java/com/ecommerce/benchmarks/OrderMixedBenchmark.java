@@ -0,0 +1,82 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checkout writes mixed with order-history and order-status reads. With {@code durable} every
+ * new order waits for the group commit of the write-ahead log, as it does in production.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class OrderMixedBenchmark {
+
+    @Param({"false", "true"})
+    boolean durable;
+
+    @Param({"100000"})
+    int initialOrders;
+
+    @Param({"10000"})
+    int userCount;
+
+    private Path directory;
+    private AnnotationConfigApplicationContext context;
+    private OrderService orderService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        directory = Fixtures.tempDirectory("order-mixed-benchmark");
+        context = Services.orders(directory, durable);
+        orderService = context.getBean(OrderService.class);
+        SplittableRandom random = new SplittableRandom(3);
+        for (int i = 0; i < initialOrders; i++) {
+            orderService.createOrder(Fixtures.order(random, i % userCount + 1, 100_000));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        Fixtures.deleteRecursively(directory);
+    }
+
+    @State(Scope.Thread)
+    public static class Writer {
+        final SplittableRandom random = new SplittableRandom(ThreadLocalRandom.current().nextLong());
+    }
+
+    @Benchmark
+    @Group("orders")
+    @GroupThreads(4)
+    public List<Order> getOrdersByUserId() {
+        return orderService.getOrdersByUserId((long) ThreadLocalRandom.current().nextInt(userCount) + 1);
+    }
+
+    @Benchmark
+    @Group("orders")
+    @GroupThreads(2)
+    public Optional<Order> getOrderById() {
+        return orderService.getOrderById((long) ThreadLocalRandom.current().nextInt(initialOrders) + 1);
+    }
+
+    @Benchmark
+    @Group("orders")
+    @GroupThreads(2)
+    public Order createOrder(Writer writer) {
+        return orderService.createOrder(Fixtures.order(writer.random, writer.random.nextInt(userCount) + 1, 100_000));
+    }
+}
@@ -0,0 +1,59 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A user's order history, which the frontend loads on every visit to the orders page, with up
+ * to a million orders held in memory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class OrderQueryBenchmark {
+
+    @Param({"100000", "1000000"})
+    int totalOrders;
+
+    @Param({"10", "100"})
+    int ordersPerUser;
+
+    private Path directory;
+    private AnnotationConfigApplicationContext context;
+    private OrderService orderService;
+    private int userCount;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        directory = Fixtures.tempDirectory("order-query-benchmark");
+        context = Services.orders(directory, false);
+        orderService = context.getBean(OrderService.class);
+        userCount = totalOrders / ordersPerUser;
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < totalOrders; i++) {
+            orderService.createOrder(Fixtures.order(random, i % userCount + 1, 100_000));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        Fixtures.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public List<Order> getOrdersByUserId() {
+        return orderService.getOrdersByUserId((long) ThreadLocalRandom.current().nextInt(userCount) + 1);
+    }
+}
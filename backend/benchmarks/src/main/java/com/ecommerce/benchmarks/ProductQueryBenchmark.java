@@ -0,0 +1,76 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.product.model.Product;
+import com.ecommerce.product.model.ProductQuery;
+import com.ecommerce.product.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Catalog reads as the product endpoints run them: {@code findProducts} with a search term alone,
+ * with the term narrowed by filters and a sort, and with filters alone, plus the category listing,
+ * over catalogs from the size of dummyjson to a million products.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class ProductQueryBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int catalogSize;
+
+    /**
+     * A common term, two terms intersected, and a prefix that expands to one term.
+     */
+    @Param({"laptop", "wireless laptop", "lapt"})
+    String query;
+
+    @Param({"laptops"})
+    String category;
+
+    private ProductService productService;
+    private ProductQuery searchQuery;
+    private ProductQuery filteredSearchQuery;
+    private ProductQuery filterQuery;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        productService = Services.products(null);
+        searchQuery = Fixtures.search(query);
+        // The term narrowed to one category and a price band, cheapest first
+        filteredSearchQuery = new ProductQuery(query, category, null, BigDecimal.valueOf(50),
+                BigDecimal.valueOf(2500), null, "price");
+        // No term, so the most selective secondary index drives the query: one brand in twenty,
+        // about a quarter of it rated four or better, best rated first
+        filterQuery = new ProductQuery(null, null, "Sony", null, null, 4.0, "-rating");
+        for (Product product : Fixtures.products(catalogSize)) {
+            productService.createProduct(product);
+        }
+    }
+
+    @Benchmark
+    public List<Product> findProducts() {
+        return productService.findProducts(searchQuery);
+    }
+
+    @Benchmark
+    public List<Product> findProductsFiltered() {
+        return productService.findProducts(filteredSearchQuery);
+    }
+
+    @Benchmark
+    public List<Product> findProductsByFilters() {
+        return productService.findProducts(filterQuery);
+    }
+
+    @Benchmark
+    public List<Product> getProductsByCategory() {
+        return productService.getProductsByCategory(category);
+    }
+}
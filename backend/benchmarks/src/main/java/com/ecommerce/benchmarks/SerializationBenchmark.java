@@ -0,0 +1,61 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.product.model.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the list responses, with the ObjectMapper configuration the
+ * controllers use.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"20", "200", "2000"})
+    int size;
+
+    private ObjectMapper objectMapper;
+    private List<Product> products;
+    private List<Order> orders;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Fixtures.objectMapper();
+        products = Fixtures.products(size);
+        for (int i = 0; i < size; i++) {
+            products.get(i).setId((long) i + 1);
+            products.get(i).setVersion(1L);
+        }
+        SplittableRandom random = new SplittableRandom(11);
+        LocalDateTime now = LocalDateTime.now();
+        orders = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Order order = Fixtures.order(random, i % 50 + 1, 1000);
+            orders.add(new Order((long) i + 1, order.getUserId(), order.getItems(), order.getTotalAmount(), "PENDING",
+                    order.getShippingAddress(), now, now, null));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeProducts() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public byte[] serializeOrders() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(orders);
+    }
+}
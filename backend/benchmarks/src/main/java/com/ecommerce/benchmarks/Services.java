@@ -0,0 +1,117 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.order.client.InventoryClient;
+import com.ecommerce.order.client.ProductCatalogClient;
+import com.ecommerce.order.service.OrderPricingService;
+import com.ecommerce.order.service.OrderService;
+import com.ecommerce.order.store.ColdOrderStore;
+import com.ecommerce.order.store.OrderStore;
+import com.ecommerce.product.service.CatalogLoader;
+import com.ecommerce.product.service.ProductService;
+import com.ecommerce.product.store.ProductStore;
+import com.ecommerce.user.config.SecurityConfig;
+import com.ecommerce.user.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Builds the real services outside Spring Boot: no web server, no schedulers and no calls to
+ * product-service, dummyjson or Gemini, but the same classes, stores and metrics as in production.
+ * Services with constructor injection are created directly; those with field injection get a
+ * minimal application context holding just their collaborators.
+ */
+final class Services {
+
+    private Services() {
+    }
+
+    /**
+     * @param storeDirectory where the product log is kept, or null to keep the catalog in memory only
+     */
+    static ProductService products(Path storeDirectory) {
+        Path directory = storeDirectory != null ? storeDirectory : Path.of("unused");
+        ProductStore store = new ProductStore(storeDirectory != null, directory.toString(), 64L << 20, 4096);
+        // No snapshot file and an unreachable source: the catalog starts empty and is never refreshed
+        CatalogLoader loader = new CatalogLoader(directory.resolve("no-snapshot.json").toString(),
+                "http://127.0.0.1:9", 100, 1, Duration.ofSeconds(1));
+        return new ProductService(event -> {
+        }, loader, store, new SimpleMeterRegistry(), false);
+    }
+
+    /**
+     * Order service with pricing, inventory and tiering switched off, so creating an order only
+     * touches the order maps and, when {@code durable}, the write-ahead log.
+     */
+    static AnnotationConfigApplicationContext orders(Path storeDirectory, boolean durable) {
+        return orders(storeDirectory, durable, false);
+    }
+
+    /**
+     * Like {@link #orders(Path, boolean)}, but with tiering on and no minimum age, so every
+     * terminal order is moved to the cold tier when {@code tierColdOrders} is called. Nothing
+     * calls it on a schedule.
+     */
+    static AnnotationConfigApplicationContext tieredOrders(Path storeDirectory) {
+        return orders(storeDirectory, false, true);
+    }
+
+    private static AnnotationConfigApplicationContext orders(Path storeDirectory, boolean durable, boolean tiering) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("orders.store.enabled", String.valueOf(durable));
+        properties.put("orders.store.directory", storeDirectory.toString());
+        properties.put("inventory.enabled", "false");
+        properties.put("pricing.enabled", "false");
+        properties.put("orders.tiering.enabled", String.valueOf(tiering));
+        properties.put("orders.tiering.min-age", "PT0S");
+        properties.put("services.product.url", "http://127.0.0.1:9");
+
+        AnnotationConfigApplicationContext context = newContext(properties);
+        context.registerBean(ObjectMapper.class, Fixtures::objectMapper);
+        context.registerBean(RestTemplateBuilder.class, () -> new RestTemplateBuilder());
+        context.register(ProductCatalogClient.class, InventoryClient.class, OrderPricingService.class,
+                OrderStore.class, ColdOrderStore.class, OrderService.class);
+        context.refresh();
+        return context;
+    }
+
+    /**
+     * User service with the production hashing pools and a BCrypt encoder of the given cost.
+     */
+    static AnnotationConfigApplicationContext users(int bcryptStrength) {
+        SecurityConfig security = new SecurityConfig();
+        AnnotationConfigApplicationContext context = newContext(Map.of());
+        context.registerBean(PasswordEncoder.class, () -> new BCryptPasswordEncoder(bcryptStrength));
+        // Queue deep enough that benchmark threads are never rejected; rejection is not what is measured
+        context.registerBean("passwordHashingExecutor", ExecutorService.class,
+                () -> security.passwordHashingExecutor(0, 4096), definition -> definition.setDestroyMethodName("shutdown"));
+        context.registerBean("passwordImportPool", ForkJoinPool.class,
+                () -> security.passwordImportPool(0), definition -> definition.setDestroyMethodName("shutdown"));
+        context.registerBean(ObjectMapper.class, Fixtures::objectMapper);
+        context.register(UserService.class);
+        context.refresh();
+        return context;
+    }
+
+    private static AnnotationConfigApplicationContext newContext(Map<String, Object> properties) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", properties));
+        // Lets @Value bind durations such as "P7D" the way Spring Boot does
+        context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance());
+        context.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+        return context;
+    }
+}
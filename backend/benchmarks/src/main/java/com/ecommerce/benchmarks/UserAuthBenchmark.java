@@ -0,0 +1,69 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.user.model.User;
+import com.ecommerce.user.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registration and login throughput through the bounded BCrypt pool. Cost 10 is what production
+ * uses; cost 4 makes hashing cheap enough to show what the service adds around it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+public class UserAuthBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+    private static final int REGISTERED_USERS = 1000;
+
+    @Param({"4", "10"})
+    int bcryptStrength;
+
+    private final AtomicLong nextUser = new AtomicLong(REGISTERED_USERS + 1);
+    private AnnotationConfigApplicationContext context;
+    private UserService userService;
+    private String[] emails;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = Services.users(bcryptStrength);
+        userService = context.getBean(UserService.class);
+        emails = new String[REGISTERED_USERS];
+        List<CompletableFuture<Optional<User>>> registrations = new ArrayList<>(REGISTERED_USERS);
+        for (int i = 0; i < REGISTERED_USERS; i++) {
+            User user = Fixtures.user(i + 1, PASSWORD);
+            emails[i] = user.getEmail();
+            registrations.add(userService.registerUser(user));
+        }
+        registrations.forEach(CompletableFuture::join);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<User> registerUser() {
+        return userService.registerUser(Fixtures.user(nextUser.getAndIncrement(), PASSWORD)).join();
+    }
+
+    @Benchmark
+    public Optional<User> loginUser() {
+        String email = emails[ThreadLocalRandom.current().nextInt(emails.length)];
+        return userService.loginUser(email, PASSWORD).join();
+    }
+}
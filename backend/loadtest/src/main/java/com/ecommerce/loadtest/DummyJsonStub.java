@@ -0,0 +1,114 @@
+package com.ecommerce.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Serves {@code GET /products?limit=&skip=} in dummyjson's shape from a generated catalog, which
+ * product-service loads on startup in place of dummyjson.com. Stock is high enough that orders
+ * placed during a run do not sell out.
+ */
+class DummyJsonStub extends StubServer {
+
+    private static final String[] CATEGORIES = {
+            "smartphones", "laptops", "fragrances", "skincare", "groceries", "home-decoration",
+            "furniture", "tops", "womens-dresses", "mens-shoes", "sunglasses", "lighting"
+    };
+    private static final String[] ADJECTIVES = {
+            "wireless", "compact", "premium", "classic", "portable", "ergonomic", "smart", "vintage",
+            "organic", "leather", "waterproof", "lightweight"
+    };
+    private static final String[] NOUNS = {
+            "laptop", "phone", "headphones", "lamp", "chair", "watch", "jacket", "bottle", "speaker",
+            "camera", "backpack", "perfume"
+    };
+    private static final String[] BRANDS = {"Apple", "Samsung", "Dell", "Nike", "Chanel", "Ikea", "Sony", "Casio"};
+
+    private final ObjectMapper objectMapper;
+    private final ObjectNode[] products;
+
+    DummyJsonStub(LoadTestConfig config, ObjectMapper objectMapper) {
+        super("dummyjson", config);
+        this.objectMapper = objectMapper;
+        this.products = new ObjectNode[config.getInt("loadtest.stub.dummyjson.products")];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < products.length; i++) {
+            products[i] = product(i + 1, random);
+        }
+    }
+
+    static String[] searchTerms() {
+        String[] terms = new String[ADJECTIVES.length + NOUNS.length];
+        System.arraycopy(ADJECTIVES, 0, terms, 0, ADJECTIVES.length);
+        System.arraycopy(NOUNS, 0, terms, ADJECTIVES.length, NOUNS.length);
+        return terms;
+    }
+
+    static String[] categories() {
+        return CATEGORIES.clone();
+    }
+
+    @Override
+    protected void respond(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestURI().getPath().equals("/products")) {
+            send(exchange, 404, "{\"message\":\"Not found\"}");
+            return;
+        }
+        Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+        int limit = Integer.parseInt(query.getOrDefault("limit", "30"));
+        int skip = Integer.parseInt(query.getOrDefault("skip", "0"));
+
+        ObjectNode page = objectMapper.createObjectNode();
+        ArrayNode items = page.putArray("products");
+        for (int i = skip; i < Math.min(products.length, skip + limit); i++) {
+            items.add(products[i]);
+        }
+        page.put("total", products.length);
+        page.put("skip", skip);
+        page.put("limit", items.size());
+        send(exchange, 200, objectMapper.writeValueAsString(page));
+    }
+
+    private ObjectNode product(long id, SplittableRandom random) {
+        String adjective = ADJECTIVES[random.nextInt(ADJECTIVES.length)];
+        String noun = NOUNS[random.nextInt(NOUNS.length)];
+        String brand = BRANDS[random.nextInt(BRANDS.length)];
+        ObjectNode product = objectMapper.createObjectNode();
+        product.put("id", id);
+        product.put("title", capitalize(adjective) + " " + capitalize(noun) + " " + id);
+        product.put("description", capitalize(adjective) + " " + noun + " by " + brand + " for everyday use.");
+        product.put("price", random.nextInt(100, 200_000) / 100.0);
+        product.put("category", CATEGORIES[random.nextInt(CATEGORIES.length)]);
+        product.put("stock", 1_000_000);
+        product.put("brand", brand);
+        product.put("rating", Math.round(random.nextDouble(1, 5) * 100) / 100.0);
+        String image = "https://cdn.dummyjson.com/products/images/" + id + "/1.png";
+        product.putArray("images").add(image);
+        product.put("thumbnail", image);
+        return product;
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery != null) {
+            for (String pair : rawQuery.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0) {
+                    query.put(pair.substring(0, eq), pair.substring(eq + 1));
+                }
+            }
+        }
+        return query;
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
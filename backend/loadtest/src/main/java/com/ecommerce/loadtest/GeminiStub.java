@@ -0,0 +1,42 @@
+package com.ecommerce.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Answers {@code POST .../models/<model>:generateContent} with a candidate whose text is the
+ * recommendation JSON that product-service asks the model for.
+ */
+class GeminiStub extends StubServer {
+
+    static final String PATH = "/v1beta/models/gemini-2.5-flash:generateContent";
+
+    private final String response;
+
+    GeminiStub(LoadTestConfig config, ObjectMapper objectMapper) throws IOException {
+        super("gemini", config);
+        String recommendation = objectMapper.writeValueAsString(Map.of(
+                "summary", "A dependable product with good value for its price.",
+                "pros", List.of("Solid build quality", "Good value", "Well reviewed"),
+                "cons", List.of("Limited colour options", "Average battery life", "Basic packaging"),
+                "recommendation", "A sensible choice for most buyers."));
+        this.response = objectMapper.writeValueAsString(Map.of(
+                "candidates", List.of(Map.of(
+                        "content", Map.of("role", "model", "parts", List.of(Map.of("text", recommendation))),
+                        "finishReason", "STOP")),
+                "modelVersion", "gemini-2.5-flash"));
+    }
+
+    @Override
+    protected void respond(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod()) || !exchange.getRequestURI().getPath().endsWith(":generateContent")) {
+            send(exchange, 404, "{\"error\":{\"code\":404,\"message\":\"Not found\"}}");
+            return;
+        }
+        send(exchange, 200, response);
+    }
+}
@@ -0,0 +1,151 @@
+package com.ecommerce.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * What the scenarios share: the HTTP client, the catalog as seen through the gateway, the seeded
+ * sessions, and a ring of recently placed orders for status polling.
+ */
+final class LoadContext {
+
+    record Session(long userId, String email, String password, String accessToken) {
+    }
+
+    static final String PASSWORD = "load-test-password";
+    private static final int RECENT_ORDERS = 4096;
+
+    final HttpClient httpClient;
+    final ObjectMapper objectMapper;
+    final String runId = Long.toString(System.currentTimeMillis(), 36);
+    final String[] searchTerms = DummyJsonStub.searchTerms();
+    final String[] categories = DummyJsonStub.categories();
+    final AtomicLong nextUser = new AtomicLong();
+    final List<Long> productIds = new ArrayList<>();
+    final List<Session> sessions = new ArrayList<>();
+
+    private final String gatewayUrl;
+    private final Duration requestTimeout;
+    private final int clients;
+    private final AtomicLongArray recentOrders = new AtomicLongArray(RECENT_ORDERS);
+    private final AtomicLong ordersPlaced = new AtomicLong();
+
+    LoadContext(LoadTestConfig config, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.gatewayUrl = config.get("loadtest.gateway.url");
+        this.requestTimeout = config.getDuration("loadtest.request-timeout");
+        this.clients = config.getInt("loadtest.clients");
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * A request to the gateway from one of {@code loadtest.clients} addresses, so per-client rate
+     * limits see many browsers instead of one very busy one.
+     */
+    HttpRequest.Builder request(String path) {
+        int client = ThreadLocalRandom.current().nextInt(clients);
+        return HttpRequest.newBuilder(URI.create(gatewayUrl + path))
+                .timeout(requestTimeout)
+                .header("Accept", "application/json")
+                .header("X-Forwarded-For", "10." + (client >> 16 & 255) + "." + (client >> 8 & 255) + "." + (client & 255));
+    }
+
+    HttpRequest.BodyPublisher json(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    long randomProductId() {
+        return productIds.get(ThreadLocalRandom.current().nextInt(productIds.size()));
+    }
+
+    Session randomSession() {
+        return sessions.get(ThreadLocalRandom.current().nextInt(sessions.size()));
+    }
+
+    void orderPlaced(long orderId) {
+        recentOrders.set((int) (ordersPlaced.getAndIncrement() % RECENT_ORDERS), orderId);
+    }
+
+    /**
+     * One of the last {@value #RECENT_ORDERS} orders placed, or -1 before the first.
+     */
+    long randomRecentOrder() {
+        long placed = Math.min(ordersPlaced.get(), RECENT_ORDERS);
+        return placed == 0 ? -1 : recentOrders.get(ThreadLocalRandom.current().nextInt((int) placed));
+    }
+
+    /**
+     * Reads the product ids through the gateway, then registers and logs in the seed users and
+     * places the seed orders, one request at a time.
+     */
+    void seed(int users, int orders) throws IOException, InterruptedException {
+        String cursor = null;
+        do {
+            String path = "/api/products?limit=500" + (cursor != null ? "&cursor=" + encode(cursor) : "");
+            JsonNode page = send(request(path).GET().build());
+            page.path("items").forEach(product -> productIds.add(product.path("id").asLong()));
+            cursor = page.path("nextCursor").isTextual() ? page.path("nextCursor").asText() : null;
+        } while (cursor != null);
+        if (productIds.isEmpty()) {
+            throw new IllegalStateException("The catalog is empty");
+        }
+
+        for (int i = 0; i < users; i++) {
+            long n = nextUser.getAndIncrement();
+            String email = email(n);
+            send(request("/api/users/register").header("Content-Type", "application/json")
+                    .POST(json(Scenarios.newUser(email, n))).build());
+            JsonNode login = send(request("/api/users/login").header("Content-Type", "application/json")
+                    .POST(json(Map.of("email", email, "password", PASSWORD))).build());
+            sessions.add(new Session(login.path("id").asLong(), email, PASSWORD, login.path("accessToken").asText()));
+        }
+        for (int i = 0; i < orders; i++) {
+            Session session = sessions.get(i % sessions.size());
+            JsonNode order = send(request("/api/orders").header("Content-Type", "application/json")
+                    .header("Authorization", "Bearer " + session.accessToken())
+                    .POST(json(Scenarios.newOrder(this))).build());
+            orderPlaced(order.path("id").asLong());
+        }
+        System.out.println("Seeded " + productIds.size() + " products, " + sessions.size() + " sessions and "
+                + orders + " orders");
+    }
+
+    String email(long n) {
+        return "lt-" + runId + "-" + n + "@loadtest.example";
+    }
+
+    private JsonNode send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Seeding failed: " + request.method() + " " + request.uri() + " returned "
+                    + response.statusCode());
+        }
+        return objectMapper.readTree(response.body());
+    }
+}
@@ -0,0 +1,88 @@
+package com.ecommerce.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * The {@code loadtest.*} settings: the bundled defaults, then an optional properties file, then
+ * system properties, each overriding the one before.
+ */
+final class LoadTestConfig {
+
+    private static final String RATE_PREFIX = "loadtest.rate.";
+
+    private final Properties properties = new Properties();
+
+    private LoadTestConfig() {
+    }
+
+    static LoadTestConfig load(String file) throws IOException {
+        LoadTestConfig config = new LoadTestConfig();
+        try (InputStream defaults = LoadTestConfig.class.getResourceAsStream("/loadtest.properties")) {
+            if (defaults == null) {
+                throw new IllegalStateException("loadtest.properties is missing from the classpath");
+            }
+            config.properties.load(defaults);
+        }
+        if (file != null) {
+            try (Reader reader = Files.newBufferedReader(Path.of(file))) {
+                config.properties.load(reader);
+            }
+        }
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith("loadtest.")) {
+                config.properties.setProperty(key, System.getProperty(key));
+            }
+        }
+        return config;
+    }
+
+    String get(String key) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing setting " + key);
+        }
+        return value.trim();
+    }
+
+    int getInt(String key) {
+        return Integer.parseInt(get(key));
+    }
+
+    double getDouble(String key) {
+        return Double.parseDouble(get(key));
+    }
+
+    boolean getBoolean(String key) {
+        return Boolean.parseBoolean(get(key));
+    }
+
+    Duration getDuration(String key) {
+        return Duration.parse(get(key));
+    }
+
+    /**
+     * Arrival rate per second of every scenario named in a {@code loadtest.rate.*} key.
+     */
+    Map<String, Double> rates() {
+        Map<String, Double> rates = new LinkedHashMap<>();
+        properties.stringPropertyNames().stream()
+                .filter(key -> key.startsWith(RATE_PREFIX))
+                .sorted()
+                .forEach(key -> rates.put(key.substring(RATE_PREFIX.length()), getDouble(key)));
+        return rates;
+    }
+
+    Map<String, String> asMap() {
+        Map<String, String> all = new LinkedHashMap<>();
+        properties.stringPropertyNames().stream().sorted().forEach(key -> all.put(key, get(key)));
+        return all;
+    }
+}
@@ -0,0 +1,68 @@
+package com.ecommerce.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Runs a full-stack load test offline:
+ *
+ * <pre>
+ * (cd ../product-service &amp;&amp; mvn -B package) ... for all four services
+ * mvn -B package
+ * java -jar target/loadtest.jar [settings.properties] [-Dloadtest.rate.search=200 ...]
+ * </pre>
+ *
+ * Starts the dummyjson and Gemini stubs, launches the services and the gateway against them,
+ * seeds users and orders, drives the {@code loadtest.rate.*} mix through the gateway and
+ * reports latency percentiles and throughput per scenario. See {@code loadtest.properties}.
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.load(args.length > 0 ? args[0] : null);
+        ObjectMapper objectMapper = new ObjectMapper();
+        Path results = Files.createDirectories(Path.of(config.get("loadtest.results.directory")));
+
+        DummyJsonStub dummyJson = new DummyJsonStub(config, objectMapper);
+        GeminiStub gemini = new GeminiStub(config, objectMapper);
+        ServiceLauncher launcher = config.getBoolean("loadtest.services.launch")
+                ? new ServiceLauncher(config, results)
+                : null;
+        Thread cleanup = new Thread(() -> {
+            if (launcher != null) {
+                launcher.stop();
+            }
+            gemini.stop();
+            dummyJson.stop();
+        }, "loadtest-cleanup");
+        Runtime.getRuntime().addShutdownHook(cleanup);
+
+        try {
+            dummyJson.start();
+            gemini.start();
+            if (launcher != null) {
+                launcher.start(dummyJson.url(), gemini.url());
+            }
+
+            LoadContext context = new LoadContext(config, objectMapper);
+            context.seed(config.getInt("loadtest.seed.users"), config.getInt("loadtest.seed.orders"));
+
+            Map<String, ScenarioStats> stats = new OpenModelDriver(context, config).run();
+
+            Map<String, Object> stubs = new LinkedHashMap<>();
+            stubs.put("dummyjson", Map.of("requests", dummyJson.getRequests(), "failures", dummyJson.getFailures()));
+            stubs.put("gemini", Map.of("requests", gemini.getRequests(), "failures", gemini.getFailures()));
+            Report.write(stats, config.getDuration("loadtest.duration"), config, stubs, results, objectMapper);
+        } finally {
+            Runtime.getRuntime().removeShutdownHook(cleanup);
+            cleanup.run();
+        }
+    }
+}
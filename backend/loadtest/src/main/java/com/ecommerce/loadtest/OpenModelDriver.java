@@ -0,0 +1,130 @@
+package com.ecommerce.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generates open-model load: each scenario gets its own Poisson arrival schedule, computed up
+ * front from its rate and never delayed by slow responses. A request is sent when its arrival is
+ * due and timed from that scheduled moment, so a saturated stack shows up as growing latency
+ * rather than as fewer requests.
+ */
+final class OpenModelDriver {
+
+    private final LoadContext context;
+    private final Duration warmup;
+    private final Duration duration;
+    private final Duration requestTimeout;
+    private final int maxOutstanding;
+    private final Map<String, Double> rates;
+
+    OpenModelDriver(LoadContext context, LoadTestConfig config) {
+        this.context = context;
+        this.warmup = config.getDuration("loadtest.warmup");
+        this.duration = config.getDuration("loadtest.duration");
+        this.requestTimeout = config.getDuration("loadtest.request-timeout");
+        this.maxOutstanding = config.getInt("loadtest.max-outstanding");
+        this.rates = config.rates();
+    }
+
+    /**
+     * Runs the warmup and the measured window, then waits for the last requests to finish.
+     *
+     * @return the measured results per scenario, by scenario name
+     */
+    Map<String, ScenarioStats> run() throws InterruptedException {
+        Map<String, Scenarios.Scenario> scenarios = Scenarios.all();
+        Map<String, ScenarioStats> results = new LinkedHashMap<>();
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        List<Thread> schedulers = new ArrayList<>();
+        List<AtomicInteger> outstanding = new ArrayList<>();
+        for (Map.Entry<String, Double> rate : rates.entrySet()) {
+            Scenarios.Scenario scenario = scenarios.get(rate.getKey());
+            if (scenario == null) {
+                throw new IllegalArgumentException("Unknown scenario " + rate.getKey() + ", expected one of "
+                        + scenarios.keySet());
+            }
+            if (rate.getValue() <= 0) {
+                continue;
+            }
+            ScenarioStats stats = new ScenarioStats(rate.getKey(), rate.getValue());
+            AtomicInteger inFlight = new AtomicInteger();
+            results.put(rate.getKey(), stats);
+            outstanding.add(inFlight);
+            Thread thread = new Thread(() -> schedule(scenario, stats, inFlight, start, measureFrom, end),
+                    "arrivals-" + rate.getKey());
+            thread.setDaemon(true);
+            schedulers.add(thread);
+        }
+
+        System.out.println("Warming up for " + warmup.toSeconds() + "s, then measuring for " + duration.toSeconds() + "s");
+        schedulers.forEach(Thread::start);
+        for (Thread thread : schedulers) {
+            thread.join();
+        }
+        long drainDeadline = System.nanoTime() + requestTimeout.toNanos() + TimeUnit.SECONDS.toNanos(5);
+        while (outstanding.stream().anyMatch(count -> count.get() > 0) && System.nanoTime() < drainDeadline) {
+            Thread.sleep(100);
+        }
+        return results;
+    }
+
+    private void schedule(Scenarios.Scenario scenario, ScenarioStats stats, AtomicInteger inFlight,
+                          long start, long measureFrom, long end) {
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / stats.targetRate;
+        long intended = start;
+        while (intended < end) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+                continue;
+            }
+            fire(scenario, stats, inFlight, intended, intended >= measureFrom);
+            // Exponential gaps make a Poisson process: bursts and lulls like independent users
+            intended += (long) (-Math.log(1.0 - ThreadLocalRandom.current().nextDouble()) * meanIntervalNanos);
+        }
+    }
+
+    private void fire(Scenarios.Scenario scenario, ScenarioStats stats, AtomicInteger inFlight, long intended,
+                      boolean measured) {
+        if (inFlight.incrementAndGet() > maxOutstanding) {
+            inFlight.decrementAndGet();
+            if (measured) {
+                stats.dropped.increment();
+            }
+            return;
+        }
+        long sent = System.nanoTime();
+        CompletableFuture<Integer> response;
+        try {
+            response = scenario.run(context);
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        response.whenComplete((status, error) -> {
+            long done = System.nanoTime();
+            inFlight.decrementAndGet();
+            if (measured) {
+                stats.record(intended, sent, done, error == null ? status : -1,
+                        error == null ? null : describe(error));
+            }
+        });
+    }
+
+    private static String describe(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause.getClass().getSimpleName();
+    }
+}
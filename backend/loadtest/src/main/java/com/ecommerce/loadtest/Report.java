@@ -0,0 +1,91 @@
+package com.ecommerce.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prints the per-scenario summary and writes the full results, with the settings of the run, to
+ * {@code <results>/loadtest-<timestamp>.json}.
+ */
+final class Report {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private Report() {
+    }
+
+    static Path write(Map<String, ScenarioStats> results, Duration measured, LoadTestConfig config,
+                      Map<String, Object> stubs, Path directory, ObjectMapper objectMapper) throws IOException {
+        double seconds = measured.toMillis() / 1000.0;
+        List<Map<String, Object>> scenarios = new ArrayList<>();
+
+        System.out.println();
+        System.out.printf("%-18s %8s %8s %8s %7s %7s %9s %9s %9s %9s %9s%n", "scenario", "target/s", "ok/s",
+                "requests", "errors", "dropped", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (ScenarioStats stats : results.values()) {
+            long requests = stats.succeeded.sum() + stats.failed.sum();
+            Map<String, Object> scenario = new LinkedHashMap<>();
+            scenario.put("name", stats.name);
+            scenario.put("targetRate", stats.targetRate);
+            scenario.put("throughput", stats.succeeded.sum() / seconds);
+            scenario.put("requests", requests);
+            scenario.put("succeeded", stats.succeeded.sum());
+            scenario.put("failed", stats.failed.sum());
+            scenario.put("dropped", stats.dropped.sum());
+            scenario.put("outcomes", stats.outcomes());
+            scenario.put("responseTimeMs", latencies(stats.responseTime));
+            scenario.put("serviceTimeMs", latencies(stats.serviceTime));
+            scenarios.add(scenario);
+
+            Histogram latency = stats.responseTime;
+            System.out.printf("%-18s %8.1f %8.1f %8d %7d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n", stats.name,
+                    stats.targetRate, stats.succeeded.sum() / seconds, requests, stats.failed.sum(), stats.dropped.sum(),
+                    millis(latency, 50), millis(latency, 90), millis(latency, 99), millis(latency, 99.9),
+                    latency.getTotalCount() == 0 ? 0 : latency.getMaxValue() / 1000.0);
+        }
+        System.out.println("Latencies are measured from each request's scheduled start (coordinated omission corrected).");
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("finishedAt", Instant.now().toString());
+        report.put("measuredSeconds", seconds);
+        report.put("scenarios", scenarios);
+        report.put("stubs", stubs);
+        report.put("settings", config.asMap());
+
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path file = directory.resolve("loadtest-" + timestamp + ".json");
+        objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+        System.out.println("Results written to " + file);
+        return file;
+    }
+
+    private static Map<String, Object> latencies(Histogram histogram) {
+        Map<String, Object> latencies = new LinkedHashMap<>();
+        if (histogram.getTotalCount() == 0) {
+            return latencies;
+        }
+        latencies.put("mean", histogram.getMean() / 1000.0);
+        for (double percentile : PERCENTILES) {
+            latencies.put("p" + (percentile == Math.rint(percentile) ? Integer.toString((int) percentile)
+                    : Double.toString(percentile)), millis(histogram, percentile));
+        }
+        latencies.put("max", histogram.getMaxValue() / 1000.0);
+        return latencies;
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getTotalCount() == 0 ? 0 : histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
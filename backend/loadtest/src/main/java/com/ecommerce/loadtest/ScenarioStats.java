@@ -0,0 +1,57 @@
+package com.ecommerce.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Results of one scenario during the measured window.
+ *
+ * {@link #responseTime} runs from the moment the open-model schedule meant to send a request, so
+ * time a request spent waiting behind a stalled client or connection pool is counted; this is
+ * the latency a user would have seen, free of coordinated omission. {@link #serviceTime} runs
+ * from the actual send and shows how much of that was the stack itself.
+ */
+final class ScenarioStats {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    final String name;
+    final double targetRate;
+    final Histogram responseTime = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+    final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+    final LongAdder succeeded = new LongAdder();
+    final LongAdder failed = new LongAdder();
+    final LongAdder dropped = new LongAdder();
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+    ScenarioStats(String name, double targetRate) {
+        this.name = name;
+        this.targetRate = targetRate;
+    }
+
+    /**
+     * @param status the HTTP status, or a negative value when no response arrived
+     */
+    void record(long intendedNanos, long sentNanos, long doneNanos, int status, String error) {
+        responseTime.recordValue(Math.min(HIGHEST_MICROS, TimeUnit.NANOSECONDS.toMicros(doneNanos - intendedNanos)));
+        serviceTime.recordValue(Math.min(HIGHEST_MICROS, TimeUnit.NANOSECONDS.toMicros(doneNanos - sentNanos)));
+        if (status >= 200 && status < 300) {
+            succeeded.increment();
+        } else {
+            failed.increment();
+        }
+        outcomes.computeIfAbsent(status >= 0 ? Integer.toString(status) : error, k -> new LongAdder()).increment();
+    }
+
+    Map<String, Long> outcomes() {
+        Map<String, Long> sorted = new TreeMap<>();
+        outcomes.forEach((outcome, count) -> sorted.put(outcome, count.sum()));
+        return sorted;
+    }
+}
@@ -0,0 +1,135 @@
+package com.ecommerce.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The traffic mix, one request per arrival, named as in the {@code loadtest.rate.*} keys. Each
+ * completes with the HTTP status of its response.
+ */
+final class Scenarios {
+
+    interface Scenario {
+        CompletableFuture<Integer> run(LoadContext context);
+    }
+
+    private Scenarios() {
+    }
+
+    static Map<String, Scenario> all() {
+        Map<String, Scenario> scenarios = new LinkedHashMap<>();
+        scenarios.put("browse", Scenarios::browse);
+        scenarios.put("search", Scenarios::search);
+        scenarios.put("register", Scenarios::register);
+        scenarios.put("login", Scenarios::login);
+        scenarios.put("place-order", Scenarios::placeOrder);
+        scenarios.put("poll-status", Scenarios::pollStatus);
+        scenarios.put("ai-recommendation", Scenarios::aiRecommendation);
+        return scenarios;
+    }
+
+    /**
+     * Half product pages, the rest category listings and the first page of the catalog.
+     */
+    static CompletableFuture<Integer> browse(LoadContext context) {
+        double pick = ThreadLocalRandom.current().nextDouble();
+        String path;
+        if (pick < 0.5) {
+            path = "/api/products/" + context.randomProductId();
+        } else if (pick < 0.8) {
+            String category = context.categories[ThreadLocalRandom.current().nextInt(context.categories.length)];
+            path = "/api/products?category=" + LoadContext.encode(category);
+        } else {
+            path = "/api/products?limit=20";
+        }
+        return status(context, context.request(path).GET());
+    }
+
+    static CompletableFuture<Integer> search(LoadContext context) {
+        String[] terms = context.searchTerms;
+        String query = terms[ThreadLocalRandom.current().nextInt(terms.length)];
+        if (ThreadLocalRandom.current().nextBoolean()) {
+            query += " " + terms[ThreadLocalRandom.current().nextInt(terms.length)];
+        }
+        return status(context, context.request("/api/products?search=" + LoadContext.encode(query)).GET());
+    }
+
+    static CompletableFuture<Integer> register(LoadContext context) {
+        long n = context.nextUser.getAndIncrement();
+        return status(context, context.request("/api/users/register")
+                .header("Content-Type", "application/json")
+                .POST(context.json(newUser(context.email(n), n))));
+    }
+
+    static CompletableFuture<Integer> login(LoadContext context) {
+        LoadContext.Session session = context.randomSession();
+        return status(context, context.request("/api/users/login")
+                .header("Content-Type", "application/json")
+                .POST(context.json(Map.of("email", session.email(), "password", session.password()))));
+    }
+
+    /**
+     * Places an order as a signed-in user; its id is kept for {@link #pollStatus}.
+     */
+    static CompletableFuture<Integer> placeOrder(LoadContext context) {
+        LoadContext.Session session = context.randomSession();
+        return context.httpClient.sendAsync(context.request("/api/orders")
+                        .header("Content-Type", "application/json")
+                        .header("Authorization", "Bearer " + session.accessToken())
+                        .POST(context.json(newOrder(context)))
+                        .build(), HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    if (response.statusCode() == 201) {
+                        try {
+                            JsonNode order = context.objectMapper.readTree(response.body());
+                            context.orderPlaced(order.path("id").asLong());
+                        } catch (IOException e) {
+                            return -1;
+                        }
+                    }
+                    return response.statusCode();
+                });
+    }
+
+    static CompletableFuture<Integer> pollStatus(LoadContext context) {
+        return status(context, context.request("/api/orders/" + context.randomRecentOrder()).GET());
+    }
+
+    static CompletableFuture<Integer> aiRecommendation(LoadContext context) {
+        return status(context, context.request("/api/products/" + context.randomProductId() + "/ai-recommendation").GET());
+    }
+
+    static Map<String, Object> newUser(String email, long n) {
+        Map<String, Object> user = new LinkedHashMap<>();
+        user.put("email", email);
+        user.put("password", LoadContext.PASSWORD);
+        user.put("firstName", "Load");
+        user.put("lastName", "Tester " + n);
+        user.put("phoneNumber", "555-0100");
+        user.put("address", n + " Load Test Lane");
+        return user;
+    }
+
+    static Map<String, Object> newOrder(LoadContext context) {
+        int lines = ThreadLocalRandom.current().nextInt(1, 4);
+        List<Map<String, Object>> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            items.add(Map.of("productId", context.randomProductId(), "quantity", ThreadLocalRandom.current().nextInt(1, 3)));
+        }
+        return Map.of("items", items, "shippingAddress", "1 Load Test Lane, Springfield");
+    }
+
+    private static CompletableFuture<Integer> status(LoadContext context, HttpRequest.Builder request) {
+        return context.httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.discarding())
+                .thenApply(HttpResponse::statusCode);
+    }
+}
@@ -0,0 +1,183 @@
+package com.ecommerce.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the gateway and the three services as child JVMs from their built jars, each in a fresh
+ * working directory so stores and snapshots from earlier runs are never picked up. External
+ * dependencies point at the stubs; the output of each JVM goes to {@code <results>/logs}.
+ */
+class ServiceLauncher {
+
+    private final LoadTestConfig config;
+    private final Path logDirectory;
+    private final Path workDirectory;
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+    private final Map<String, Process> processes = new LinkedHashMap<>();
+
+    ServiceLauncher(LoadTestConfig config, Path resultsDirectory) throws IOException {
+        this.config = config;
+        this.logDirectory = Files.createDirectories(resultsDirectory.resolve("logs"));
+        this.workDirectory = Files.createTempDirectory("loadtest-services");
+    }
+
+    /**
+     * Starts the services, then the gateway, and returns once all of them report healthy and the
+     * catalog has been loaded from the dummyjson stub.
+     */
+    void start(String dummyJsonUrl, String geminiUrl) throws IOException, InterruptedException {
+        String productUrl = local("product-port");
+        String orderUrl = local("order-port");
+        String userUrl = local("user-port");
+        String secret = config.get("loadtest.auth.secret");
+        if (secret.length() < 32) {
+            // TokenCodec rejects shorter secrets, which would only show up as four JVMs dying on startup
+            throw new IllegalStateException("loadtest.auth.secret must be at least 32 characters");
+        }
+        Duration timeout = config.getDuration("loadtest.services.startup-timeout");
+
+        launch("user-service", Map.of(
+                "PORT", port("user-port"),
+                "AUTH_TOKEN_SECRET", secret));
+        launch("product-service", Map.of(
+                "PORT", port("product-port"),
+                "CATALOG_SOURCE_URL", dummyJsonUrl,
+                "CATALOG_SNAPSHOT_PATH", workDirectory.resolve("catalog-snapshot.json").toString(),
+                "PRODUCT_STORE_DIR", workDirectory.resolve("product-store").toString(),
+                "GEMINI_API_KEY", "loadtest",
+                "GEMINI_API_URL", geminiUrl + GeminiStub.PATH,
+                "USER_SERVICE_URL", userUrl,
+                "AUTH_TOKEN_SECRET", secret));
+        launch("order-service", Map.of(
+                "PORT", port("order-port"),
+                "PRODUCT_SERVICE_URL", productUrl,
+                "USER_SERVICE_URL", userUrl,
+                "ORDER_STORE_DIR", workDirectory.resolve("order-store").toString(),
+                "AUTH_TOKEN_SECRET", secret));
+        awaitHealthy("user-service", userUrl, timeout);
+        awaitHealthy("product-service", productUrl, timeout);
+        awaitHealthy("order-service", orderUrl, timeout);
+
+        launch("api-gateway", Map.of(
+                "PORT", port("gateway-port"),
+                "PRODUCT_SERVICE_URL", productUrl,
+                "ORDER_SERVICE_URL", orderUrl,
+                "USER_SERVICE_URL", userUrl,
+                "AUTH_TOKEN_SECRET", secret),
+                // The harness stands in for the proxy in front of the gateway, adding one X-Forwarded-For hop
+                config.getBoolean("loadtest.services.rate-limit")
+                        ? "--gateway.rate-limit.trust-forwarded-for=true" : "--gateway.rate-limit.enabled=false");
+        awaitHealthy("api-gateway", local("gateway-port"), timeout);
+        awaitCatalog(productUrl, timeout);
+    }
+
+    void stop() {
+        for (Process process : processes.values()) {
+            process.destroy();
+        }
+        for (Process process : processes.values()) {
+            try {
+                if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+        processes.clear();
+    }
+
+    private void launch(String service, Map<String, String> environment, String... arguments) throws IOException {
+        Path jar = Path.of(config.get("loadtest.services.directory"), service, "target", service + "-1.0.0.jar")
+                .toAbsolutePath();
+        if (!Files.exists(jar)) {
+            throw new IllegalStateException(jar + " not found, build it with mvn package first");
+        }
+        Path directory = Files.createDirectories(workDirectory.resolve(service));
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        String jvmOptions = config.get("loadtest.services.jvm-options");
+        if (!jvmOptions.isEmpty()) {
+            command.addAll(Arrays.asList(jvmOptions.split("\\s+")));
+        }
+        command.add("-jar");
+        command.add(jar.toString());
+        for (String argument : arguments) {
+            if (!argument.isEmpty()) {
+                command.add(argument);
+            }
+        }
+
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .directory(directory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(logDirectory.resolve(service + ".log").toFile());
+        builder.environment().putAll(environment);
+        processes.put(service, builder.start());
+        System.out.println("Started " + service + ", logging to " + logDirectory.resolve(service + ".log"));
+    }
+
+    private void awaitHealthy(String service, String baseUrl, Duration timeout) throws InterruptedException {
+        awaitUntil(service + " to become healthy", timeout,
+                () -> get(baseUrl + "/actuator/health").contains("\"UP\""));
+    }
+
+    private void awaitCatalog(String productUrl, Duration timeout) throws InterruptedException {
+        awaitUntil("the catalog to load from the dummyjson stub", timeout,
+                () -> get(productUrl + "/api/products?limit=1").contains("\"id\""));
+    }
+
+    private interface Check {
+        boolean passes() throws Exception;
+    }
+
+    private void awaitUntil(String what, Duration timeout, Check check) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            for (Map.Entry<String, Process> entry : processes.entrySet()) {
+                if (!entry.getValue().isAlive()) {
+                    throw new IllegalStateException(entry.getKey() + " exited with code " + entry.getValue().exitValue()
+                            + " while waiting for " + what + ", see " + logDirectory.resolve(entry.getKey() + ".log"));
+                }
+            }
+            try {
+                if (check.passes()) {
+                    return;
+                }
+            } catch (Exception e) {
+                // Not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("Timed out waiting for " + what);
+    }
+
+    private String get(String url) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(2)).GET().build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        return response.statusCode() == 200 ? response.body() : "";
+    }
+
+    private String port(String key) {
+        return config.get("loadtest.services." + key);
+    }
+
+    private String local(String key) {
+        return "http://localhost:" + port(key);
+    }
+}
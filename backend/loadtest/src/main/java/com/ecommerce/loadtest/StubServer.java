@@ -0,0 +1,123 @@
+package com.ecommerce.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Base of the local stand-ins for third-party APIs. Every response is delayed by the configured
+ * latency plus up to {@code jitter} either way, and a share of {@code errorRate} of the requests
+ * is answered 503 instead, the way a struggling upstream behaves.
+ */
+abstract class StubServer {
+
+    private final String name;
+    private final int port;
+    private final Duration latency;
+    private final Duration jitter;
+    private final double errorRate;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    StubServer(String name, LoadTestConfig config) {
+        String prefix = "loadtest.stub." + name + ".";
+        this.name = name;
+        this.port = config.getInt(prefix + "port");
+        this.latency = config.getDuration(prefix + "latency");
+        this.jitter = config.getDuration(prefix + "jitter");
+        this.errorRate = config.getDouble(prefix + "error-rate");
+    }
+
+    /**
+     * Answers one request that was not chosen to fail, after the delay has passed.
+     */
+    protected abstract void respond(HttpExchange exchange) throws IOException;
+
+    void start() throws IOException {
+        AtomicInteger count = new AtomicInteger();
+        // Delays are slept on the handler threads, so there must be enough of them for the load
+        executor = Executors.newFixedThreadPool(256, runnable -> {
+            Thread thread = new Thread(runnable, name + "-stub-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+        System.out.println("Started " + name + " stub on " + url());
+    }
+
+    void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    String url() {
+        return "http://127.0.0.1:" + port;
+    }
+
+    long getRequests() {
+        return requests.sum();
+    }
+
+    long getFailures() {
+        return failures.sum();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.increment();
+        try {
+            try (InputStream body = exchange.getRequestBody()) {
+                body.transferTo(OutputStream.nullOutputStream());
+            }
+            sleep(delayNanos());
+            if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+                failures.increment();
+                send(exchange, 503, "{\"error\":{\"code\":503,\"message\":\"The model is overloaded\"}}");
+                return;
+            }
+            respond(exchange);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    protected static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private long delayNanos() {
+        long spread = jitter.toNanos();
+        long offset = spread > 0 ? ThreadLocalRandom.current().nextLong(-spread, spread + 1) : 0;
+        return Math.max(0, latency.toNanos() + offset);
+    }
+
+    private static void sleep(long nanos) {
+        try {
+            Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.ecommerce.order.client;
+
+import com.ecommerce.order.model.OrderItem;
+import com.ecommerce.order.service.InsufficientStockException;
+import com.ecommerce.order.service.InventoryUnavailableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Calls the inventory endpoints of product-service to reserve, commit and release stock.
+ */
+@Component
+public class InventoryClient {
+
+    private final RestTemplate restTemplate;
+    private final String baseUrl;
+
+    public InventoryClient(RestTemplateBuilder restTemplateBuilder,
+                           @Value("${services.product.url:http://localhost:8081}") String productServiceUrl,
+                           @Value("${services.product.timeout:3s}") Duration timeout) {
+        this.restTemplate = restTemplateBuilder
+                .setConnectTimeout(timeout)
+                .setReadTimeout(timeout)
+                .build();
+        this.baseUrl = productServiceUrl + "/api/inventory/reservations";
+    }
+
+    /**
+     * Reserves all items of an order at once and returns the reservation id.
+     *
+     * @throws InsufficientStockException    if product-service reports a shortfall
+     * @throws InventoryUnavailableException if product-service cannot be reached or rejects the call
+     */
+    public String reserve(List<OrderItem> items) {
+        try {
+            Map<?, ?> reservation = restTemplate.postForObject(baseUrl, Map.of("items", lines(items)), Map.class);
+            return (String) reservation.get("id");
+        } catch (HttpClientErrorException e) {
+            if (e.getStatusCode() == HttpStatus.CONFLICT) {
+                throw new InsufficientStockException(e.getResponseBodyAsString());
+            }
+            if (e.getStatusCode() == HttpStatus.BAD_REQUEST) {
+                throw new IllegalArgumentException(e.getResponseBodyAsString());
+            }
+            throw new InventoryUnavailableException("Inventory reservation failed", e);
+        } catch (RestClientException e) {
+            throw new InventoryUnavailableException("Inventory service is unavailable", e);
+        }
+    }
+
+    /**
+     * Outcome of one order in {@link #reserveAndCommitAll}: a committed reservation id, or why it failed.
+     */
+    public record ReservationOutcome(String reservationId, boolean outOfStock, String error) {
+    }
+
+    /**
+     * Reserves and commits the stock of many orders in one round-trip. Each order is
+     * all-or-nothing on its own and outcomes are returned in the order of {@code orders}.
+     *
+     * @throws InventoryUnavailableException if product-service cannot be reached or rejects the call
+     */
+    public List<ReservationOutcome> reserveAndCommitAll(List<List<OrderItem>> orders) {
+        List<Map<String, Object>> requests = new ArrayList<>(orders.size());
+        for (List<OrderItem> items : orders) {
+            requests.add(Map.of("items", lines(items)));
+        }
+        Map<?, ?> response;
+        try {
+            response = restTemplate.postForObject(baseUrl + "/batch", Map.of("requests", requests, "commit", true), Map.class);
+        } catch (RestClientException e) {
+            throw new InventoryUnavailableException("Inventory batch reservation failed", e);
+        }
+        List<?> results = response != null ? (List<?>) response.get("results") : null;
+        if (results == null || results.size() != orders.size()) {
+            throw new InventoryUnavailableException("Unexpected inventory batch response", null);
+        }
+        List<ReservationOutcome> outcomes = new ArrayList<>(results.size());
+        for (Object element : results) {
+            Map<?, ?> result = (Map<?, ?>) element;
+            Map<?, ?> reservation = (Map<?, ?>) result.get("reservation");
+            if (reservation != null) {
+                outcomes.add(new ReservationOutcome((String) reservation.get("id"), false, null));
+            } else {
+                Object status = result.get("status");
+                boolean outOfStock = status instanceof Number && ((Number) status).intValue() == HttpStatus.CONFLICT.value();
+                outcomes.add(new ReservationOutcome(null, outOfStock, String.valueOf(result.get("message"))));
+            }
+        }
+        return outcomes;
+    }
+
+    private static List<Map<String, Object>> lines(List<OrderItem> items) {
+        List<Map<String, Object>> lines = new ArrayList<>(items.size());
+        for (OrderItem item : items) {
+            lines.add(Map.of("productId", item.getProductId(), "quantity", item.getQuantity()));
+        }
+        return lines;
+    }
+
+    public void commit(String reservationId) {
+        try {
+            restTemplate.postForObject(baseUrl + "/{id}/commit", null, Map.class, reservationId);
+        } catch (RestClientException e) {
+            throw new InventoryUnavailableException("Inventory commit failed for reservation " + reservationId, e);
+        }
+    }
+
+    public void release(String reservationId) {
+        try {
+            restTemplate.postForObject(baseUrl + "/{id}/release", null, Map.class, reservationId);
+        } catch (RestClientException e) {
+            throw new InventoryUnavailableException("Inventory release failed for reservation " + reservationId, e);
+        }
+    }
+}
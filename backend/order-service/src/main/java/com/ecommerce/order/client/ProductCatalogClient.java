@@ -0,0 +1,158 @@
+package com.ecommerce.order.client;
+
+import com.ecommerce.order.service.CatalogUnavailableException;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves product names and prices from product-service through its batch endpoint.
+ *
+ * Results are kept in a near-cache that is never used without asking: every lookup sends the
+ * cached versions along with the batch and product-service answers NOT_MODIFIED, without the
+ * body, for those that did not change. An order is therefore always priced at the current price,
+ * and the cache only saves transferring and decoding unchanged products. A lookup costs one
+ * round-trip per {@code services.product.batch-size} products, which for any realistic order is
+ * a single call.
+ */
+@Component
+public class ProductCatalogClient {
+
+    /**
+     * @param version content version of the product; it changes with the name or price but not
+     *                with stock, so sales do not invalidate cached copies
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record CatalogProduct(Long id, String name, BigDecimal price, Long version) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record BatchRequest(List<Long> ids, Map<Long, Long> knownVersions) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record BatchResponse(List<BatchResult> results) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record BatchResult(Long id, String status, Long version, CatalogProduct product) {
+    }
+
+    private final RestTemplate restTemplate;
+    private final String batchUrl;
+    private final int maxEntries;
+    private final int batchSize;
+    private final Map<Long, CatalogProduct> cache = new ConcurrentHashMap<>();
+
+    public ProductCatalogClient(RestTemplateBuilder restTemplateBuilder,
+                                @Value("${services.product.url:http://localhost:8081}") String productServiceUrl,
+                                @Value("${services.product.timeout:3s}") Duration timeout,
+                                @Value("${pricing.cache.max-entries:10000}") int maxEntries,
+                                @Value("${services.product.batch-size:200}") int batchSize) {
+        this.restTemplate = restTemplateBuilder
+                .setConnectTimeout(timeout)
+                .setReadTimeout(timeout)
+                .build();
+        this.batchUrl = productServiceUrl + "/api/products/batch";
+        this.maxEntries = maxEntries;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Returns the current catalog entry of every id that exists; unknown ids are absent from the result.
+     *
+     * @throws CatalogUnavailableException if product-service cannot be reached
+     */
+    public Map<Long, CatalogProduct> getProducts(Collection<Long> ids) {
+        Map<Long, CatalogProduct> resolved = new HashMap<>();
+        List<Long> toFetch = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, Long> knownVersions = new HashMap<>();
+        for (Long id : toFetch) {
+            CatalogProduct cached = cache.get(id);
+            if (cached != null && cached.version() != null) {
+                knownVersions.put(id, cached.version());
+            }
+        }
+
+        for (int from = 0; from < toFetch.size(); from += batchSize) {
+            List<Long> chunk = toFetch.subList(from, Math.min(from + batchSize, toFetch.size()));
+            Map<Long, Long> chunkVersions = new HashMap<>();
+            for (Long id : chunk) {
+                if (knownVersions.containsKey(id)) {
+                    chunkVersions.put(id, knownVersions.get(id));
+                }
+            }
+            List<Long> evicted = new ArrayList<>();
+            for (BatchResult result : fetch(chunk, chunkVersions)) {
+                if (!apply(result, resolved)) {
+                    evicted.add(result.id());
+                }
+            }
+            // A concurrent trim dropped these while the request was out, so ask for the full products
+            if (!evicted.isEmpty()) {
+                for (BatchResult result : fetch(evicted, Map.of())) {
+                    apply(result, resolved);
+                }
+            }
+        }
+        trim();
+        return resolved;
+    }
+
+    private List<BatchResult> fetch(List<Long> ids, Map<Long, Long> knownVersions) {
+        BatchResponse response;
+        try {
+            response = restTemplate.postForObject(batchUrl, new BatchRequest(ids, knownVersions), BatchResponse.class);
+        } catch (RestClientException e) {
+            throw new CatalogUnavailableException("Product catalog is unavailable", e);
+        }
+        if (response == null || response.results() == null) {
+            throw new CatalogUnavailableException("Empty response from product catalog", null);
+        }
+        return response.results();
+    }
+
+    /**
+     * Returns false for a NOT_MODIFIED result whose cached entry is gone, which leaves the id unresolved.
+     */
+    private boolean apply(BatchResult result, Map<Long, CatalogProduct> resolved) {
+        switch (String.valueOf(result.status())) {
+            case "FOUND" -> {
+                resolved.put(result.id(), result.product());
+                cache.put(result.id(), result.product());
+            }
+            case "NOT_MODIFIED" -> {
+                CatalogProduct cached = cache.get(result.id());
+                if (cached == null) {
+                    return false;
+                }
+                resolved.put(result.id(), cached);
+            }
+            default -> cache.remove(result.id());
+        }
+        return true;
+    }
+
+    /**
+     * Keeps the cache bounded by dropping arbitrary entries; a dropped product is simply fetched
+     * in full next time.
+     */
+    private void trim() {
+        if (cache.size() <= maxEntries) {
+            return;
+        }
+        Iterator<Long> ids = cache.keySet().iterator();
+        while (cache.size() > maxEntries && ids.hasNext()) {
+            ids.next();
+            ids.remove();
+        }
+    }
+}
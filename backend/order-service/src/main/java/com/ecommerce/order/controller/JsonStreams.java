@@ -0,0 +1,36 @@
+package com.ecommerce.order.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Writes a JSON array element by element straight to the response stream, so large
+ * listings are never materialized as an intermediate list or a single serialized body.
+ */
+final class JsonStreams {
+
+    private static final int FLUSH_EVERY = 256;
+
+    private JsonStreams() {
+    }
+
+    static <T> ResponseEntity<StreamingResponseBody> array(ObjectMapper objectMapper, Iterable<T> items) {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                int written = 0;
+                for (T item : items) {
+                    generator.writeObject(item);
+                    if (++written % FLUSH_EVERY == 0) {
+                        generator.flush();
+                    }
+                }
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+}
@@ -0,0 +1,61 @@
+package com.ecommerce.order.controller;
+
+import com.ecommerce.order.model.OrderRollup;
+import com.ecommerce.order.service.OrderAnalytics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+/**
+ * Read-only reporting over the order rollups; every call answers from pre-aggregated buckets.
+ */
+@RestController
+@RequestMapping("/api/orders/analytics")
+public class OrderAnalyticsController {
+
+    private static final int MAX_DAYS = 366;
+
+    @Autowired
+    private OrderAnalytics orderAnalytics;
+
+    @GetMapping("/summary")
+    public ResponseEntity<Map<String, Object>> getSummary() {
+        return ResponseEntity.ok(orderAnalytics.getSummary());
+    }
+
+    @GetMapping("/daily")
+    public ResponseEntity<?> getDaily(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_DAYS) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", "A range may span at most " + MAX_DAYS + " days"));
+        }
+        try {
+            return ResponseEntity.ok(orderAnalytics.getDaily(start, end));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/users/{userId}")
+    public ResponseEntity<OrderRollup> getByUser(@PathVariable Long userId) {
+        return orderAnalytics.getByUser(userId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/products/{productId}")
+    public ResponseEntity<OrderRollup> getByProduct(@PathVariable Long productId) {
+        return orderAnalytics.getByProduct(productId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
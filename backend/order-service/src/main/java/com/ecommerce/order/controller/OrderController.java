@@ -1,12 +1,28 @@
 package com.ecommerce.order.controller;
 
+import com.ecommerce.order.model.BulkOrderResponse;
 import com.ecommerce.order.model.Order;
+import com.ecommerce.order.security.TokenAuthenticationFilter;
+import com.ecommerce.order.service.BulkOrderService;
+import com.ecommerce.order.service.BulkSubmissionInProgressException;
+import com.ecommerce.order.service.CatalogUnavailableException;
+import com.ecommerce.order.service.InsufficientStockException;
+import com.ecommerce.order.service.InvalidStatusTransitionException;
+import com.ecommerce.order.service.InventoryUnavailableException;
+import com.ecommerce.order.service.OrderEventBroadcaster;
 import com.ecommerce.order.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -14,20 +30,67 @@ import java.util.Map;
 @RequestMapping("/api/orders")
 public class OrderController {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private BulkOrderService bulkOrderService;
+
+    @Autowired
+    private OrderEventBroadcaster orderEventBroadcaster;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
-    public ResponseEntity<List<Order>> getAllOrders(@RequestParam(required = false) Long userId) {
+    public ResponseEntity<?> getAllOrders(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(defaultValue = "false") boolean stream) {
         List<Order> orders;
-        if (userId != null) {
+        if (userId != null && (limit != null || cursor != null || since != null)) {
+            return userPage(userId, cursor, since, limit);
+        } else if (userId != null) {
             orders = orderService.getOrdersByUserId(userId);
+        } else if (stream) {
+            return JsonStreams.array(objectMapper, orderService.iterateOrders());
+        } else if (limit != null || cursor != null) {
+            return page(cursor, limit);
         } else {
             orders = orderService.getAllOrders();
         }
         return ResponseEntity.ok(orders);
     }
 
+    /**
+     * Server-sent events for every change to the user's orders, instead of polling {@code /{id}}.
+     * With a bearer token only the token's own orders can be watched; anything else is refused
+     * with an empty 403, since an EventSource client never sees a response body.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamOrderEvents(@RequestParam Long userId,
+                                                        @RequestAttribute(value = TokenAuthenticationFilter.USER_ID, required = false) Long authenticatedUserId) {
+        if (authenticatedUserId != null && !authenticatedUserId.equals(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(orderEventBroadcaster.subscribe(userId));
+    }
+
+    @GetMapping("/stream/stats")
+    public ResponseEntity<Map<String, Object>> getStreamStats() {
+        return ResponseEntity.ok(orderEventBroadcaster.getStats());
+    }
+
+    @GetMapping("/storage/stats")
+    public ResponseEntity<Map<String, Object>> getStorageStats() {
+        return ResponseEntity.ok(orderService.getStorageStats());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Order> getOrderById(@PathVariable Long id) {
         return orderService.getOrderById(id)
@@ -35,24 +98,118 @@ public class OrderController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * With a bearer token the order belongs to the token's user: a missing userId is filled in
+     * and a different one is refused.
+     */
     @PostMapping
-    public ResponseEntity<Order> createOrder(@RequestBody Order order) {
-        Order created = orderService.createOrder(order);
-        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    public ResponseEntity<?> createOrder(@RequestBody Order order,
+                                         @RequestAttribute(value = TokenAuthenticationFilter.USER_ID, required = false) Long authenticatedUserId) {
+        if (authenticatedUserId != null) {
+            if (order.getUserId() == null) {
+                order = order.withUserId(authenticatedUserId);
+            } else if (!order.getUserId().equals(authenticatedUserId)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(Map.of("message", "Orders can only be placed for the signed-in user"));
+            }
+        }
+        try {
+            Order created = orderService.createOrder(order);
+            return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        } catch (InsufficientStockException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("message", "Some items are out of stock", "details", e.getMessage()));
+        } catch (InventoryUnavailableException e) {
+            System.err.println("Order rejected, inventory unavailable: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("message", "Unable to reserve stock right now, please retry"));
+        } catch (CatalogUnavailableException e) {
+            System.err.println("Order rejected, catalog unavailable: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("message", "Unable to price the order right now, please retry"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
     }
 
-    @PatchMapping("/{id}/status")
-    public ResponseEntity<Order> updateOrderStatus(@PathVariable Long id, @RequestBody Map<String, String> body) {
-        String status = body.get("status");
-        return orderService.updateOrderStatus(id, status)
+    /**
+     * Creates a JSON array of orders in one request, reading it as a stream. Each order gets its own
+     * result; retries that repeat the {@code Idempotency-Key} header get the first response back.
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> createOrders(@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                          HttpServletRequest request) throws IOException {
+        try {
+            BulkOrderResponse response = bulkOrderService.ingest(idempotencyKey, request.getInputStream());
+            return ResponseEntity.ok(response);
+        } catch (BulkSubmissionInProgressException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/bulk/{idempotencyKey}")
+    public ResponseEntity<BulkOrderResponse> getBulkResult(@PathVariable String idempotencyKey) {
+        return bulkOrderService.getBatch(idempotencyKey)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @PatchMapping("/{id}/status")
+    public ResponseEntity<?> updateOrderStatus(@PathVariable Long id, @RequestBody Map<String, String> body) {
+        try {
+            return orderService.updateOrderStatus(id, body.get("status"))
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (InvalidStatusTransitionException e) {
+            return conflict(e);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> cancelOrder(@PathVariable Long id) {
-        return orderService.cancelOrder(id)
-                ? ResponseEntity.noContent().build()
-                : ResponseEntity.badRequest().build();
+    public ResponseEntity<?> cancelOrder(@PathVariable Long id) {
+        try {
+            return orderService.cancelOrder(id).isPresent()
+                    ? ResponseEntity.noContent().build()
+                    : ResponseEntity.notFound().build();
+        } catch (InvalidStatusTransitionException e) {
+            return conflict(e);
+        }
+    }
+
+    private ResponseEntity<?> conflict(InvalidStatusTransitionException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                "message", e.getMessage(),
+                "currentStatus", e.getCurrent().name(),
+                "allowed", e.getCurrent().allowedNext()));
+    }
+
+    private ResponseEntity<?> page(String cursor, Integer limit) {
+        int size = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", "limit must be between 1 and " + MAX_PAGE_SIZE));
+        }
+        try {
+            return ResponseEntity.ok(orderService.getOrdersPage(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    private ResponseEntity<?> userPage(Long userId, String cursor, LocalDateTime since, Integer limit) {
+        int size = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", "limit must be between 1 and " + MAX_PAGE_SIZE));
+        }
+        try {
+            return ResponseEntity.ok(orderService.getOrdersByUserIdPage(userId, cursor, since, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
     }
 }
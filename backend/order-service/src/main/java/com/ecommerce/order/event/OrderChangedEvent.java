@@ -0,0 +1,19 @@
+package com.ecommerce.order.event;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderStatus;
+
+/**
+ * Published by OrderService after an order has been created or has changed status.
+ * {@code previousStatus} is the status a STATUS_CHANGED order moved away from, and null on CREATED.
+ */
+public record OrderChangedEvent(Order order, Type type, OrderStatus previousStatus) {
+
+    public enum Type {
+        CREATED, STATUS_CHANGED
+    }
+
+    public OrderChangedEvent(Order order, Type type) {
+        this(order, type, null);
+    }
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.order.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkOrderResponse {
+    private String idempotencyKey;
+    private int accepted;
+    private int rejected;
+    private List<BulkOrderResult> results;
+    // Set when the submitted body could not be read to the end; results cover the orders before it
+    private String error;
+    private Instant completedAt;
+}
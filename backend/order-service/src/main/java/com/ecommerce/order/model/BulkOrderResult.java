@@ -0,0 +1,34 @@
+package com.ecommerce.order.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Outcome of one order of a bulk submission, identified by its position in the submitted array.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkOrderResult {
+    public static final String CREATED = "CREATED";
+    public static final String REJECTED = "REJECTED";
+
+    private int index;
+    private String status;
+    private Long orderId;
+    private BigDecimal totalAmount;
+    private String error;
+
+    public static BulkOrderResult created(int index, Order order) {
+        return new BulkOrderResult(index, CREATED, order.getId(), order.getTotalAmount(), null);
+    }
+
+    public static BulkOrderResult rejected(int index, String error) {
+        return new BulkOrderResult(index, REJECTED, null, null, error);
+    }
+}
@@ -1,23 +1,47 @@
 package com.ecommerce.order.model;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.With;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
+/**
+ * Immutable snapshot of an order. A change builds a new snapshot, through the constructor or a
+ * {@code with} method, so an order handed to a reader never changes under it. Equality is
+ * identity, which is what the order maps compare when they swap one snapshot for the next.
+ */
+@Getter
+@With
+@ToString
 public class Order {
-    private Long id;
-    private Long userId;
-    private List<OrderItem> items;
-    private BigDecimal totalAmount;
-    private String status;
-    private String shippingAddress;
-    private LocalDateTime createdAt;
-    private LocalDateTime updatedAt;
+    private final Long id;
+    private final Long userId;
+    private final List<OrderItem> items;
+    private final BigDecimal totalAmount;
+    private final String status;
+    private final String shippingAddress;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    private final String reservationId;
+
+    @JsonCreator
+    public Order(Long id, Long userId, List<OrderItem> items, BigDecimal totalAmount, String status,
+                 String shippingAddress, LocalDateTime createdAt, LocalDateTime updatedAt, String reservationId) {
+        this.id = id;
+        this.userId = userId;
+        // Copied, so the caller's list cannot change the snapshot; may hold nulls until validated
+        this.items = items != null ? Collections.unmodifiableList(new ArrayList<>(items)) : null;
+        this.totalAmount = totalAmount;
+        this.status = status;
+        this.shippingAddress = shippingAddress;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.reservationId = reservationId;
+    }
 }
@@ -1,17 +1,26 @@
 package com.ecommerce.order.model;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
 
 import java.math.BigDecimal;
 
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
+@Getter
+@EqualsAndHashCode
+@ToString
 public class OrderItem {
-    private Long productId;
-    private String productName;
-    private Integer quantity;
-    private BigDecimal price;
+    private final Long productId;
+    private final String productName;
+    private final Integer quantity;
+    private final BigDecimal price;
+
+    @JsonCreator
+    public OrderItem(Long productId, String productName, Integer quantity, BigDecimal price) {
+        this.productId = productId;
+        this.productName = productName;
+        this.quantity = quantity;
+        this.price = price;
+    }
 }
@@ -0,0 +1,26 @@
+package com.ecommerce.order.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Totals of one analytics bucket. In day, user and product buckets {@code orders} and
+ * {@code revenue} cover orders that are not cancelled and {@code cancelled} counts the ones that
+ * were; in status buckets every order counts under its current status. {@code units} is only set
+ * for products.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderRollup {
+    private String key;
+    private long orders;
+    private long cancelled;
+    private Long units;
+    private BigDecimal revenue;
+}
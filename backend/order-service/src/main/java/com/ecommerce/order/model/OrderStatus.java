@@ -0,0 +1,43 @@
+package com.ecommerce.order.model;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Order lifecycle: PENDING -> PAID -> SHIPPED -> DELIVERED. An order can be cancelled until it ships.
+ */
+public enum OrderStatus {
+    PENDING, PAID, SHIPPED, DELIVERED, CANCELLED;
+
+    public Set<OrderStatus> allowedNext() {
+        return switch (this) {
+            case PENDING -> EnumSet.of(PAID, CANCELLED);
+            case PAID -> EnumSet.of(SHIPPED, CANCELLED);
+            case SHIPPED -> EnumSet.of(DELIVERED);
+            case DELIVERED, CANCELLED -> EnumSet.noneOf(OrderStatus.class);
+        };
+    }
+
+    public boolean canTransitionTo(OrderStatus next) {
+        return allowedNext().contains(next);
+    }
+
+    public boolean isTerminal() {
+        return allowedNext().isEmpty();
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code value} is not a known status
+     */
+    public static OrderStatus parse(String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("status is required");
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown order status: " + value);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.ecommerce.order.security;
+
+import com.ecommerce.auth.RevocationMirror;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Keeps a {@link RevocationMirror} of user-service's revoked token ids, refreshed by polling its
+ * revocation journal for changes since the last sequence seen. A token is only checked against
+ * this set, never against user-service, so a revocation takes effect here within one poll interval.
+ */
+@Component
+public class RevocationSet {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record RevocationsResponse(String epoch, long sequence, List<RevocationMirror.Revocation> revoked) {
+    }
+
+    private final RestTemplate restTemplate;
+    private final String revocationsUrl;
+    private final RevocationMirror mirror = new RevocationMirror();
+
+    public RevocationSet(RestTemplateBuilder restTemplateBuilder,
+                         @Value("${services.user.url:http://localhost:8083}") String userServiceUrl,
+                         @Value("${services.user.timeout:3s}") Duration timeout) {
+        this.restTemplate = restTemplateBuilder
+                .setConnectTimeout(timeout)
+                .setReadTimeout(timeout)
+                .build();
+        this.revocationsUrl = userServiceUrl + "/api/users/tokens/revocations?epoch={epoch}&after={after}";
+    }
+
+    public boolean isRevoked(long tokenId) {
+        return mirror.isRevoked(tokenId);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.revocation.poll-interval:PT5S}")
+    public synchronized void poll() {
+        RevocationsResponse response;
+        try {
+            response = restTemplate.getForObject(revocationsUrl, RevocationsResponse.class,
+                    mirror.epoch(), mirror.sequence());
+        } catch (RestClientException e) {
+            return;
+        }
+        if (response == null) {
+            return;
+        }
+        mirror.apply(response.epoch(), response.sequence(), response.revoked(), Instant.now());
+    }
+}
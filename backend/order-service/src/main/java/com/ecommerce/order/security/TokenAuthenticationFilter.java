@@ -0,0 +1,58 @@
+package com.ecommerce.order.security;
+
+import com.ecommerce.auth.SessionToken;
+import com.ecommerce.auth.TokenCodec;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Verifies the bearer token of a request locally, without calling user-service. A request with a
+ * valid token carries the user id in the {@link #USER_ID} attribute; a request with an invalid,
+ * expired or revoked token is answered 401. Requests without a token pass through unchanged.
+ */
+@Component
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String USER_ID = "authenticatedUserId";
+
+    private final TokenCodec tokenCodec;
+    private final RevocationSet revocationSet;
+
+    public TokenAuthenticationFilter(@Value("${auth.token.secret}") String secret, RevocationSet revocationSet) {
+        this.tokenCodec = new TokenCodec(secret);
+        this.revocationSet = revocationSet;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            chain.doFilter(request, response);
+            return;
+        }
+        Optional<SessionToken> claims = tokenCodec
+                .verify(authorization.substring(7).trim(), SessionToken.Type.ACCESS, Instant.now())
+                .filter(token -> !revocationSet.isRevoked(token.tokenId()));
+        if (claims.isEmpty()) {
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"message\":\"Invalid or expired token\"}");
+            return;
+        }
+        request.setAttribute(USER_ID, claims.get().userId());
+        chain.doFilter(request, response);
+    }
+}
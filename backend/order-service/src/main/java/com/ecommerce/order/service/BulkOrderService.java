@@ -0,0 +1,175 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.model.BulkOrderResponse;
+import com.ecommerce.order.model.BulkOrderResult;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.store.OrderStore;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ingests large arrays of orders submitted in one request.
+ *
+ * The body is parsed element by element and handed to {@link OrderService#createOrders} in chunks,
+ * so neither the whole submission nor its results per chunk are held twice. A batch submitted with
+ * an idempotency key is answered from its logged result when it is retried within
+ * {@code orders.bulk.idempotency-ttl}, instead of creating the orders again. Older results are
+ * forgotten and dropped from the log at its next compaction.
+ */
+@Service
+public class BulkOrderService {
+
+    private final Map<String, BulkOrderResponse> completed = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderStore orderStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${orders.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${orders.bulk.max-orders:100000}")
+    private int maxOrders;
+
+    @Value("${orders.bulk.idempotency-ttl:P1D}")
+    private Duration idempotencyTtl;
+
+    @PostConstruct
+    void recover() {
+        Map<String, BulkOrderResponse> recovered = orderStore.takeRecoveredBatches(
+                () -> () -> completed.values().stream().filter(this::isLive).iterator());
+        recovered.values().removeIf(response -> !isLive(response));
+        completed.putAll(recovered);
+    }
+
+    public Optional<BulkOrderResponse> getBatch(String idempotencyKey) {
+        return Optional.ofNullable(live(completed.get(idempotencyKey)));
+    }
+
+    @Scheduled(fixedDelayString = "${orders.bulk.eviction-interval:PT10M}")
+    public void evictExpired() {
+        completed.values().removeIf(response -> !isLive(response));
+    }
+
+    private boolean isLive(BulkOrderResponse response) {
+        return response.getCompletedAt() != null
+                && response.getCompletedAt().isAfter(Instant.now().minus(idempotencyTtl));
+    }
+
+    private BulkOrderResponse live(BulkOrderResponse response) {
+        return response != null && isLive(response) ? response : null;
+    }
+
+    /**
+     * Creates every order in the JSON array read from {@code body}. Orders are accepted or rejected
+     * one by one; a body that breaks off mid-array keeps the orders read before the break and
+     * reports it in {@link BulkOrderResponse#getError()}.
+     *
+     * @param idempotencyKey optional; a retry with the same key returns the first response unchanged
+     * @throws BulkSubmissionInProgressException if a batch with the same key is still being ingested
+     * @throws IllegalArgumentException          if the body is not a JSON array
+     */
+    public BulkOrderResponse ingest(String idempotencyKey, InputStream body) throws IOException {
+        if (idempotencyKey == null) {
+            return doIngest(null, body);
+        }
+        BulkOrderResponse previous = live(completed.get(idempotencyKey));
+        if (previous != null) {
+            return previous;
+        }
+        if (inFlight.putIfAbsent(idempotencyKey, Boolean.TRUE) != null) {
+            throw new BulkSubmissionInProgressException(idempotencyKey);
+        }
+        try {
+            // The key may have completed between the lookup and taking the in-flight slot
+            previous = live(completed.get(idempotencyKey));
+            if (previous != null) {
+                return previous;
+            }
+            BulkOrderResponse response = doIngest(idempotencyKey, body);
+            try {
+                orderStore.appendBatch(response).join();
+            } catch (CompletionException e) {
+                // The orders themselves are durable; only the replay of this key would be lost
+                System.err.println("Failed to log bulk result " + idempotencyKey + ": " + e.getCause());
+            }
+            completed.put(idempotencyKey, response);
+            return response;
+        } finally {
+            inFlight.remove(idempotencyKey);
+        }
+    }
+
+    private BulkOrderResponse doIngest(String idempotencyKey, InputStream body) throws IOException {
+        List<BulkOrderResult> results = new ArrayList<>();
+        String error = null;
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            JsonToken first;
+            try {
+                first = parser.nextToken();
+            } catch (IOException e) {
+                first = null;
+            }
+            if (first != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of orders");
+            }
+            List<Order> chunk = new ArrayList<>(chunkSize);
+            try {
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (token == null) {
+                        error = "The body ended before the array was closed";
+                        break;
+                    }
+                    if (results.size() + chunk.size() == maxOrders) {
+                        error = "Stopped after " + maxOrders + " orders, the most accepted per request";
+                        break;
+                    }
+                    chunk.add(parser.readValueAs(Order.class));
+                    if (chunk.size() == chunkSize) {
+                        results.addAll(orderService.createOrders(chunk, results.size()));
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+            } catch (IOException e) {
+                error = "Could not read the order at index " + (results.size() + chunk.size()) + ": "
+                        + e.getMessage();
+            }
+            if (!chunk.isEmpty()) {
+                results.addAll(orderService.createOrders(chunk, results.size()));
+            }
+        }
+
+        int accepted = 0;
+        for (BulkOrderResult result : results) {
+            if (BulkOrderResult.CREATED.equals(result.getStatus())) {
+                accepted++;
+            }
+        }
+        return new BulkOrderResponse(idempotencyKey, accepted, results.size() - accepted, results, error,
+                Instant.now());
+    }
+}
@@ -0,0 +1,12 @@
+package com.ecommerce.order.service;
+
+/**
+ * Thrown when a bulk submission is retried while the first attempt with the same idempotency
+ * key is still being ingested.
+ */
+public class BulkSubmissionInProgressException extends RuntimeException {
+
+    public BulkSubmissionInProgressException(String idempotencyKey) {
+        super("A batch with idempotency key " + idempotencyKey + " is still being processed");
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.order.service;
+
+/**
+ * Thrown when product prices cannot be looked up in product-service.
+ */
+public class CatalogUnavailableException extends RuntimeException {
+
+    public CatalogUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
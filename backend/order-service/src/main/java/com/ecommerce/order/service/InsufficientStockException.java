@@ -0,0 +1,11 @@
+package com.ecommerce.order.service;
+
+/**
+ * Thrown when product-service cannot reserve the requested quantity of an order item.
+ */
+public class InsufficientStockException extends RuntimeException {
+
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,26 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.model.OrderStatus;
+
+/**
+ * Thrown when an order cannot move from its current status to the requested one.
+ */
+public class InvalidStatusTransitionException extends RuntimeException {
+
+    private final OrderStatus current;
+    private final OrderStatus requested;
+
+    public InvalidStatusTransitionException(Long orderId, OrderStatus current, OrderStatus requested) {
+        super("Order " + orderId + " cannot move from " + current + " to " + requested);
+        this.current = current;
+        this.requested = requested;
+    }
+
+    public OrderStatus getCurrent() {
+        return current;
+    }
+
+    public OrderStatus getRequested() {
+        return requested;
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.order.service;
+
+/**
+ * Thrown when the inventory endpoints of product-service cannot be reached.
+ */
+public class InventoryUnavailableException extends RuntimeException {
+
+    public InventoryUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,204 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.event.OrderChangedEvent;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderItem;
+import com.ecommerce.order.model.OrderRollup;
+import com.ecommerce.order.model.OrderStatus;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Revenue and order-count rollups per day, status, user and product, kept current from
+ * {@link OrderChangedEvent}s so reports never scan the orders.
+ *
+ * Every update is an addition to striped counters, so concurrent writers do not contend and
+ * events applied in a different order than the changes happened still converge on the same totals.
+ * A cancellation takes the order's revenue back out of its day, user and product buckets.
+ */
+@Component
+public class OrderAnalytics {
+
+    /**
+     * Exact running sum of amounts. Amounts with at most two decimals, i.e. all catalog prices,
+     * go to a striped counter of cents; anything finer is added to a CAS-updated remainder.
+     */
+    static final class ExactSum {
+        private static final int SCALE = 2;
+
+        private final LongAdder cents = new LongAdder();
+        private final AtomicReference<BigDecimal> remainder = new AtomicReference<>(BigDecimal.ZERO);
+
+        void add(BigDecimal amount) {
+            if (amount.scale() <= SCALE) {
+                try {
+                    cents.add(amount.movePointRight(SCALE).longValueExact());
+                    return;
+                } catch (ArithmeticException e) {
+                    // Too large for a long; fall through to the remainder
+                }
+            }
+            remainder.accumulateAndGet(amount, BigDecimal::add);
+        }
+
+        BigDecimal sum() {
+            return BigDecimal.valueOf(cents.sum(), SCALE).add(remainder.get());
+        }
+    }
+
+    static final class Rollup {
+        final LongAdder orders = new LongAdder();
+        final LongAdder cancelled = new LongAdder();
+        final LongAdder units = new LongAdder();
+        final ExactSum revenue = new ExactSum();
+
+        OrderRollup snapshot(String key, boolean withUnits) {
+            return new OrderRollup(key, orders.sum(), cancelled.sum(), withUnits ? units.sum() : null, revenue.sum());
+        }
+    }
+
+    private final Rollup total = new Rollup();
+    private final Map<OrderStatus, Rollup> byStatus = new EnumMap<>(OrderStatus.class);
+    private final ConcurrentNavigableMap<LocalDate, Rollup> byDay = new ConcurrentSkipListMap<>();
+    private final Map<Long, Rollup> byUser = new ConcurrentHashMap<>();
+    private final Map<Long, Rollup> byProduct = new ConcurrentHashMap<>();
+
+    @Autowired
+    private OrderService orderService;
+
+    public OrderAnalytics() {
+        for (OrderStatus status : OrderStatus.values()) {
+            byStatus.put(status, new Rollup());
+        }
+    }
+
+    /**
+     * Seeds the rollups with the orders recovered from the order log, which are not announced by events.
+     */
+    @PostConstruct
+    void seed() {
+        for (Order order : orderService.iterateOrders()) {
+            created(order);
+            OrderStatus status = OrderStatus.parse(order.getStatus());
+            if (status != OrderStatus.PENDING) {
+                statusChanged(order, OrderStatus.PENDING, status);
+            }
+        }
+    }
+
+    @EventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (event.type() == OrderChangedEvent.Type.CREATED) {
+            created(event.order());
+        } else if (event.previousStatus() != null) {
+            statusChanged(event.order(), event.previousStatus(), OrderStatus.parse(event.order().getStatus()));
+        }
+    }
+
+    private void created(Order order) {
+        BigDecimal amount = amountOf(order);
+        add(total, amount, 1);
+        add(byStatus.get(OrderStatus.PENDING), amount, 1);
+        add(dayOf(order), amount, 1);
+        add(userOf(order), amount, 1);
+        for (OrderItem item : order.getItems()) {
+            Rollup product = byProduct.computeIfAbsent(item.getProductId(), id -> new Rollup());
+            add(product, lineAmount(item), 1);
+            product.units.add(quantityOf(item));
+        }
+    }
+
+    private void statusChanged(Order order, OrderStatus from, OrderStatus to) {
+        BigDecimal amount = amountOf(order);
+        add(byStatus.get(from), amount.negate(), -1);
+        add(byStatus.get(to), amount, 1);
+        if (to != OrderStatus.CANCELLED) {
+            return;
+        }
+        cancel(total, amount);
+        cancel(dayOf(order), amount);
+        cancel(userOf(order), amount);
+        for (OrderItem item : order.getItems()) {
+            Rollup product = byProduct.computeIfAbsent(item.getProductId(), id -> new Rollup());
+            cancel(product, lineAmount(item));
+            product.units.add(-quantityOf(item));
+        }
+    }
+
+    private Rollup dayOf(Order order) {
+        LocalDate day = order.getCreatedAt() != null ? order.getCreatedAt().toLocalDate() : LocalDate.now();
+        return byDay.computeIfAbsent(day, d -> new Rollup());
+    }
+
+    private Rollup userOf(Order order) {
+        // Orders placed without a user are grouped under user 0
+        return byUser.computeIfAbsent(order.getUserId() != null ? order.getUserId() : 0L, id -> new Rollup());
+    }
+
+    private static void add(Rollup rollup, BigDecimal amount, int orders) {
+        rollup.orders.add(orders);
+        rollup.revenue.add(amount);
+    }
+
+    private static void cancel(Rollup rollup, BigDecimal amount) {
+        add(rollup, amount.negate(), -1);
+        rollup.cancelled.increment();
+    }
+
+    private static BigDecimal amountOf(Order order) {
+        return order.getTotalAmount() != null ? order.getTotalAmount() : BigDecimal.ZERO;
+    }
+
+    private static BigDecimal lineAmount(OrderItem item) {
+        return item.getPrice() != null ? item.getPrice().multiply(BigDecimal.valueOf(quantityOf(item))) : BigDecimal.ZERO;
+    }
+
+    private static int quantityOf(OrderItem item) {
+        return item.getQuantity() != null ? item.getQuantity() : 0;
+    }
+
+    public Map<String, Object> getSummary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("total", total.snapshot("total", false));
+        List<OrderRollup> statuses = new ArrayList<>(byStatus.size());
+        byStatus.forEach((status, rollup) -> statuses.add(rollup.snapshot(status.name(), false)));
+        summary.put("byStatus", statuses);
+        summary.put("days", byDay.size());
+        summary.put("users", byUser.size());
+        summary.put("products", byProduct.size());
+        return summary;
+    }
+
+    /**
+     * Returns the buckets of the days from {@code from} to {@code to}, both inclusive, that have orders.
+     */
+    public List<OrderRollup> getDaily(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+        List<OrderRollup> days = new ArrayList<>();
+        byDay.subMap(from, true, to, true).forEach((day, rollup) -> days.add(rollup.snapshot(day.toString(), false)));
+        return days;
+    }
+
+    public Optional<OrderRollup> getByUser(Long userId) {
+        Rollup rollup = byUser.get(userId);
+        return rollup != null ? Optional.of(rollup.snapshot(String.valueOf(userId), false)) : Optional.empty();
+    }
+
+    public Optional<OrderRollup> getByProduct(Long productId) {
+        Rollup rollup = byProduct.get(productId);
+        return rollup != null ? Optional.of(rollup.snapshot(String.valueOf(productId), true)) : Optional.empty();
+    }
+}
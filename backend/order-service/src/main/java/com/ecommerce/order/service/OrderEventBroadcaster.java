@@ -0,0 +1,193 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.event.OrderChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pushes order changes to subscribed clients over server-sent events.
+ *
+ * Publishing never blocks: an event is offered to each subscriber's bounded queue and a small
+ * dispatcher pool drains the queues onto the connections. A subscriber whose queue is full
+ * has fallen too far behind and is disconnected; its client reconnects and re-reads the order.
+ * An idle subscriber holds no thread, only its emitter and an empty queue.
+ *
+ * A send to a client that has stopped reading blocks its dispatcher thread once the socket
+ * buffer is full. Tomcat ends such a write after {@code server.tomcat.connection-timeout}, so
+ * the send fails and the subscriber is dropped like one that fell behind.
+ */
+@Component
+public class OrderEventBroadcaster {
+
+    private final class Subscriber {
+        final Long userId;
+        final SseEmitter emitter;
+        final Queue<SseEmitter.SseEventBuilder> queue;
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        volatile boolean closing;
+
+        Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (!queue.offer(event)) {
+                // The emitter is completed by the drain: completing it here would wait for a send
+                // that may be stuck on the socket, and the publisher must never wait
+                if (remove(this)) {
+                    dropped.increment();
+                }
+                closing = true;
+                queue.clear();
+            }
+            if (scheduled.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closing && (event = queue.poll()) != null) {
+                    emitter.send(event);
+                    sent.increment();
+                }
+                if (closing) {
+                    emitter.complete();
+                    return;
+                }
+            } catch (IOException | IllegalStateException e) {
+                boolean timedOut = e instanceof SocketTimeoutException || e.getCause() instanceof SocketTimeoutException;
+                if (remove(this) && timedOut) {
+                    dropped.increment();
+                }
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                scheduled.set(false);
+            }
+            // An event may have been queued after the last poll but before the flag was cleared
+            if (!queue.isEmpty() && scheduled.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+    }
+
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService dispatcher;
+    private final ScheduledExecutorService heartbeat;
+
+    private final LongAdder subscriberCount = new LongAdder();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public OrderEventBroadcaster(@Value("${orders.stream.buffer-size:64}") int bufferSize,
+                                 @Value("${orders.stream.timeout:30m}") Duration timeout,
+                                 @Value("${orders.stream.heartbeat-interval:25s}") Duration heartbeatInterval,
+                                 @Value("${orders.stream.dispatch-threads:4}") int dispatchThreads) {
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        this.dispatcher = Executors.newFixedThreadPool(dispatchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "order-stream-dispatch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-stream-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = heartbeatInterval.toMillis();
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a stream of changes to the orders of {@code userId}. The stream ends after
+     * {@code orders.stream.timeout}; clients are expected to reconnect.
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        subscribers.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        subscriberCount.increment();
+        subscriber.offer(SseEmitter.event().comment("subscribed"));
+        return emitter;
+    }
+
+    @EventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        Set<Subscriber> watchers = subscribers.get(event.order().getUserId());
+        if (watchers == null || watchers.isEmpty()) {
+            return;
+        }
+        published.increment();
+        for (Subscriber subscriber : watchers) {
+            subscriber.offer(SseEmitter.event()
+                    .name("order")
+                    .id(event.order().getId() + "-" + event.order().getStatus())
+                    .data(Map.of("type", event.type().name(), "order", event.order())));
+        }
+    }
+
+    private void sendHeartbeats() {
+        for (Set<Subscriber> watchers : subscribers.values()) {
+            for (Subscriber subscriber : watchers) {
+                subscriber.offer(SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+
+    /**
+     * @return false if the subscriber had already been removed
+     */
+    private boolean remove(Subscriber subscriber) {
+        AtomicBoolean removed = new AtomicBoolean();
+        subscribers.computeIfPresent(subscriber.userId, (id, watchers) -> {
+            if (watchers.remove(subscriber)) {
+                subscriberCount.decrement();
+                removed.set(true);
+            }
+            return watchers.isEmpty() ? null : watchers;
+        });
+        return removed.get();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("subscribers", subscriberCount.sum());
+        stats.put("watchedUsers", subscribers.size());
+        stats.put("eventsPublished", published.sum());
+        stats.put("eventsSent", sent.sum());
+        stats.put("slowSubscribersDropped", dropped.sum());
+        return stats;
+    }
+
+    @PreDestroy
+    public void close() {
+        heartbeat.shutdownNow();
+        dispatcher.shutdownNow();
+        subscribers.values().forEach(watchers -> watchers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+}
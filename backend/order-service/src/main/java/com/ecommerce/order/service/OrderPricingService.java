@@ -0,0 +1,99 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.client.ProductCatalogClient;
+import com.ecommerce.order.client.ProductCatalogClient.CatalogProduct;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderItem;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Prices orders from the catalog instead of trusting the prices and total sent by the client.
+ */
+@Service
+public class OrderPricingService {
+
+    private final ProductCatalogClient catalogClient;
+
+    public OrderPricingService(ProductCatalogClient catalogClient) {
+        this.catalogClient = catalogClient;
+    }
+
+    /**
+     * Returns a copy of the order whose items carry the catalog name and unit price and whose
+     * total is the exact sum of price times quantity. All products are resolved in one lookup.
+     *
+     * @throws IllegalArgumentException    if an item has no product id, a non-positive quantity or an unknown product
+     * @throws CatalogUnavailableException if product-service cannot be reached
+     */
+    public Order price(Order order) {
+        validate(order);
+        return price(order, catalogClient.getProducts(productIds(order)));
+    }
+
+    /**
+     * Prices many orders with a single catalog lookup covering all of their products, replacing
+     * each order that could be priced with its priced copy in {@code orders}.
+     *
+     * @return one entry per order: null if it was priced, otherwise why it was rejected
+     * @throws CatalogUnavailableException if product-service cannot be reached
+     */
+    public List<String> priceAll(List<Order> orders) {
+        List<String> errors = new ArrayList<>(Collections.nCopies(orders.size(), null));
+        Set<Long> productIds = new HashSet<>();
+        for (int i = 0; i < orders.size(); i++) {
+            try {
+                validate(orders.get(i));
+                productIds.addAll(productIds(orders.get(i)));
+            } catch (IllegalArgumentException e) {
+                errors.set(i, e.getMessage());
+            }
+        }
+        Map<Long, CatalogProduct> catalog = catalogClient.getProducts(productIds);
+        for (int i = 0; i < orders.size(); i++) {
+            if (errors.get(i) == null) {
+                try {
+                    orders.set(i, price(orders.get(i), catalog));
+                } catch (IllegalArgumentException e) {
+                    errors.set(i, e.getMessage());
+                }
+            }
+        }
+        return errors;
+    }
+
+    private static void validate(Order order) {
+        if (order.getItems() == null || order.getItems().isEmpty()) {
+            throw new IllegalArgumentException("An order needs at least one item");
+        }
+        for (OrderItem item : order.getItems()) {
+            if (item == null || item.getProductId() == null || item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Each item needs a productId and a positive quantity");
+            }
+        }
+    }
+
+    private static List<Long> productIds(Order order) {
+        List<Long> productIds = new ArrayList<>(order.getItems().size());
+        for (OrderItem item : order.getItems()) {
+            productIds.add(item.getProductId());
+        }
+        return productIds;
+    }
+
+    private static Order price(Order order, Map<Long, CatalogProduct> catalog) {
+        List<OrderItem> items = new ArrayList<>(order.getItems().size());
+        BigDecimal total = BigDecimal.ZERO;
+        for (OrderItem item : order.getItems()) {
+            CatalogProduct product = catalog.get(item.getProductId());
+            if (product == null || product.price() == null) {
+                throw new IllegalArgumentException("Unknown product " + item.getProductId());
+            }
+            items.add(new OrderItem(item.getProductId(), product.name(), item.getQuantity(), product.price()));
+            total = total.add(product.price().multiply(BigDecimal.valueOf(item.getQuantity())));
+        }
+        return order.withItems(items).withTotalAmount(total);
+    }
+}
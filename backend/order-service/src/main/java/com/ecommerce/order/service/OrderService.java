@@ -1,61 +1,514 @@
 package com.ecommerce.order.service;
 
+import com.ecommerce.order.client.InventoryClient;
+import com.ecommerce.order.event.OrderChangedEvent;
+import com.ecommerce.order.model.BulkOrderResult;
 import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderItem;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.model.PageResponse;
+import com.ecommerce.order.store.ColdOrderStore;
+import com.ecommerce.order.store.OrderStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
-public class OrderService {
-    private final Map<Long, Order> orders = new ConcurrentHashMap<>();
+public class OrderService implements MeterBinder {
+    private final ConcurrentNavigableMap<Long, Order> orders = new ConcurrentSkipListMap<>();
+    // New orders queued for the log but not yet durable, and so not yet visible to readers.
+    // Compaction carries them over: the rewritten log must cover every record queued before it
+    private final Map<Long, Order> unpublished = new ConcurrentHashMap<>();
+    private final UserOrderIndex userOrderIndex = new UserOrderIndex();
     private final AtomicLong idCounter = new AtomicLong(1);
 
+    @Autowired
+    private InventoryClient inventoryClient;
+
+    @Autowired
+    private OrderPricingService pricingService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private OrderStore orderStore;
+
+    @Autowired
+    private ColdOrderStore coldOrders;
+
+    @Value("${inventory.enabled:true}")
+    private boolean inventoryEnabled;
+
+    @Value("${pricing.enabled:true}")
+    private boolean pricingEnabled;
+
+    @Value("${orders.tiering.enabled:true}")
+    private boolean tieringEnabled;
+
+    @Value("${orders.tiering.min-age:P7D}")
+    private Duration tieringMinAge;
+
+    @Value("${orders.tiering.batch-size:10000}")
+    private int tieringBatchSize;
+
+    /**
+     * Rebuilds the orders and the per-user index from the write-ahead log and the cold tier. A
+     * transition only ever moves an order forward in {@link OrderStatus} declaration order, so
+     * when records of one order were logged out of order the one with the later status wins.
+     * Records of orders already in the cold tier are skipped: those orders are terminal, and the
+     * log only still has them until its next compaction, which carries over the hot map alone.
+     */
+    @PostConstruct
+    void recover() throws IOException {
+        orderStore.open(order -> {
+            if (coldOrders.contains(order.getId())) {
+                return;
+            }
+            orders.merge(order.getId(), order, (current, replayed) ->
+                    OrderStatus.parse(replayed.getStatus()).ordinal() >= OrderStatus.parse(current.getStatus()).ordinal()
+                            ? replayed : current);
+        }, () -> () -> Stream.concat(orders.values().stream(), unpublished.values().stream()).iterator());
+        for (Order order : orders.values()) {
+            userOrderIndex.add(order);
+        }
+        coldOrders.iterator(Long.MIN_VALUE).forEachRemaining(userOrderIndex::add);
+        long lastId = Math.max(orders.isEmpty() ? 0 : orders.lastKey(), coldOrders.lastId());
+        if (lastId > 0) {
+            idCounter.set(lastId + 1);
+            System.out.println("Recovered " + orders.size() + " orders from the order log, "
+                    + coldOrders.size() + " from the cold tier");
+        }
+    }
+
     public List<Order> getAllOrders() {
-        return new ArrayList<>(orders.values());
+        List<Order> all = new ArrayList<>(orders.size() + coldOrders.size());
+        iterateOrders().forEach(all::add);
+        return all;
+    }
+
+    /**
+     * Returns up to {@code limit} orders in id order, starting after the position encoded in {@code cursor}.
+     */
+    public PageResponse<Order> getOrdersPage(String cursor, int limit) {
+        long afterId = cursor != null && !cursor.isEmpty() ? PageResponse.decodeCursor(cursor) : Long.MIN_VALUE;
+        Iterator<Order> tail = ordersAfter(afterId);
+        List<Order> items = new ArrayList<>(limit);
+        Long lastId = null;
+        boolean hasMore = false;
+        while (tail.hasNext()) {
+            Order order = tail.next();
+            if (items.size() == limit) {
+                hasMore = true;
+                break;
+            }
+            items.add(order);
+            lastId = order.getId();
+        }
+        return new PageResponse<>(items, hasMore ? PageResponse.encodeCursor(lastId) : null);
+    }
+
+    /**
+     * Live, weakly consistent view of all orders of both tiers in id order, for streaming without copying.
+     */
+    public Iterable<Order> iterateOrders() {
+        return () -> ordersAfter(Long.MIN_VALUE);
+    }
+
+    /**
+     * Merges the hot map and the cold tier in id order. An order caught mid-move can briefly be in
+     * both; the hot copy is returned and the cold one skipped.
+     */
+    private Iterator<Order> ordersAfter(long afterId) {
+        Iterator<Order> hot = orders.tailMap(afterId, false).values().iterator();
+        Iterator<Order> cold = coldOrders.iterator(afterId);
+        return new Iterator<>() {
+            private Order nextHot = hot.hasNext() ? hot.next() : null;
+            private Order nextCold = cold.hasNext() ? cold.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return nextHot != null || nextCold != null;
+            }
+
+            @Override
+            public Order next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if (nextCold == null || (nextHot != null && nextHot.getId() <= nextCold.getId())) {
+                    Order order = nextHot;
+                    if (nextCold != null && nextCold.getId().equals(order.getId())) {
+                        nextCold = cold.hasNext() ? cold.next() : null;
+                    }
+                    nextHot = hot.hasNext() ? hot.next() : null;
+                    return order;
+                }
+                Order order = nextCold;
+                nextCold = cold.hasNext() ? cold.next() : null;
+                return order;
+            }
+        };
     }
 
     public Optional<Order> getOrderById(Long id) {
-        return Optional.ofNullable(orders.get(id));
+        Order order = orders.get(id);
+        return order != null ? Optional.of(order) : coldOrders.get(id);
     }
 
     public List<Order> getOrdersByUserId(Long userId) {
-        return orders.values().stream()
-                .filter(o -> o.getUserId().equals(userId))
-                .sorted(Comparator.comparing(Order::getCreatedAt).reversed())
-                .collect(Collectors.toList());
+        return resolve(userOrderIndex.page(userId, null, null, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Returns up to {@code limit} of the user's orders, newest first, starting after the position
+     * encoded in {@code cursor} and stopping at orders created before {@code since}.
+     */
+    public PageResponse<Order> getOrdersByUserIdPage(Long userId, String cursor, LocalDateTime since, int limit) {
+        UserOrderIndex.Entry after = cursor != null && !cursor.isEmpty() ? UserOrderIndex.decodeCursor(cursor) : null;
+        List<UserOrderIndex.Entry> entries = userOrderIndex.page(userId, after, since, limit + 1);
+        boolean hasMore = entries.size() > limit;
+        if (hasMore) {
+            entries = entries.subList(0, limit);
+        }
+        String nextCursor = hasMore ? UserOrderIndex.encodeCursor(entries.get(entries.size() - 1)) : null;
+        return new PageResponse<>(resolve(entries), nextCursor);
+    }
+
+    private List<Order> resolve(List<UserOrderIndex.Entry> entries) {
+        List<Order> resolved = new ArrayList<>(entries.size());
+        for (UserOrderIndex.Entry entry : entries) {
+            getOrderById(entry.orderId()).ifPresent(resolved::add);
+        }
+        return resolved;
     }
 
+    /**
+     * Prices the order from the catalog, then reserves and commits the stock of every item in
+     * product-service before the order is stored. The order becomes visible only once it is
+     * durable; if it cannot be stored, its stock is released again.
+     *
+     * @throws InsufficientStockException    if any item is out of stock; nothing is reserved then
+     * @throws CatalogUnavailableException   if prices cannot be looked up
+     * @throws InventoryUnavailableException if product-service cannot be reached
+     */
     public Order createOrder(Order order) {
-        Long id = idCounter.getAndIncrement();
-        order.setId(id);
-        order.setStatus("PENDING");
-        order.setCreatedAt(LocalDateTime.now());
-        order.setUpdatedAt(LocalDateTime.now());
-        orders.put(id, order);
+        if (order.getItems() == null || order.getItems().isEmpty()) {
+            throw new IllegalArgumentException("An order needs at least one item");
+        }
+        if (pricingEnabled) {
+            order = pricingService.price(order);
+        }
+        if (inventoryEnabled) {
+            String reservationId = inventoryClient.reserve(order.getItems());
+            try {
+                inventoryClient.commit(reservationId);
+            } catch (RuntimeException e) {
+                releaseQuietly(reservationId);
+                throw e;
+            }
+            order = order.withReservationId(reservationId);
+        }
+
+        order = initialize(order, idCounter.getAndIncrement(), LocalDateTime.now());
+        unpublished.put(order.getId(), order);
+        try {
+            awaitDurable(orderStore.append(order));
+        } catch (RuntimeException e) {
+            unpublished.remove(order.getId());
+            if (order.getReservationId() != null) {
+                releaseQuietly(order.getReservationId());
+            }
+            throw e;
+        }
+        publish(order);
         return order;
     }
 
+    /**
+     * Creates many orders at once, amortizing the per-order costs: all of them are priced with one
+     * catalog lookup and reserved with one inventory call, get ids from one block and one
+     * timestamp, and are made durable by one group commit. Each order succeeds or fails on its own,
+     * except that if the group commit fails every order of the batch is rejected and released.
+     *
+     * @param firstIndex position of {@code batch.get(0)} in the caller's submission, used in the results
+     */
+    public List<BulkOrderResult> createOrders(List<Order> submitted, int firstIndex) {
+        // Each order is replaced by its next snapshot as it is priced, reserved and initialized
+        List<Order> batch = new ArrayList<>(submitted);
+        String[] errors = new String[batch.size()];
+        if (pricingEnabled) {
+            List<String> pricingErrors;
+            try {
+                pricingErrors = pricingService.priceAll(batch);
+            } catch (CatalogUnavailableException e) {
+                pricingErrors = Collections.nCopies(batch.size(), "Unable to price the order right now, please retry");
+            }
+            pricingErrors.toArray(errors);
+        } else {
+            for (int i = 0; i < batch.size(); i++) {
+                if (batch.get(i).getItems() == null || batch.get(i).getItems().isEmpty()) {
+                    errors[i] = "An order needs at least one item";
+                }
+            }
+        }
+
+        List<Integer> pending = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            if (errors[i] == null) {
+                pending.add(i);
+            }
+        }
+        if (inventoryEnabled && !pending.isEmpty()) {
+            reserveAll(batch, pending, errors);
+        }
+
+        List<Integer> acceptedIndexes = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            if (errors[i] == null) {
+                acceptedIndexes.add(i);
+            }
+        }
+        List<Order> accepted = new ArrayList<>(acceptedIndexes.size());
+        long nextId = idCounter.getAndAdd(acceptedIndexes.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i : acceptedIndexes) {
+            Order order = initialize(batch.get(i), nextId++, now);
+            batch.set(i, order);
+            accepted.add(order);
+            unpublished.put(order.getId(), order);
+        }
+        try {
+            awaitDurable(orderStore.appendAll(accepted));
+            accepted.forEach(this::publish);
+        } catch (IllegalStateException e) {
+            System.err.println("Bulk orders not stored: " + e.getMessage());
+            for (int i = 0; i < batch.size(); i++) {
+                Order order = batch.get(i);
+                if (errors[i] == null) {
+                    unpublished.remove(order.getId());
+                    if (order.getReservationId() != null) {
+                        releaseQuietly(order.getReservationId());
+                    }
+                    errors[i] = "Unable to save the order right now, please retry";
+                }
+            }
+        }
+
+        List<BulkOrderResult> results = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            results.add(errors[i] == null
+                    ? BulkOrderResult.created(firstIndex + i, batch.get(i))
+                    : BulkOrderResult.rejected(firstIndex + i, errors[i]));
+        }
+        return results;
+    }
+
+    private void reserveAll(List<Order> batch, List<Integer> pending, String[] errors) {
+        List<List<OrderItem>> items = new ArrayList<>(pending.size());
+        for (int i : pending) {
+            items.add(batch.get(i).getItems());
+        }
+        List<InventoryClient.ReservationOutcome> outcomes;
+        try {
+            outcomes = inventoryClient.reserveAndCommitAll(items);
+        } catch (InventoryUnavailableException e) {
+            System.err.println("Bulk reservation failed: " + e.getMessage());
+            pending.forEach(i -> errors[i] = "Unable to reserve stock right now, please retry");
+            return;
+        }
+        for (int k = 0; k < pending.size(); k++) {
+            InventoryClient.ReservationOutcome outcome = outcomes.get(k);
+            if (outcome.reservationId() != null) {
+                int i = pending.get(k);
+                batch.set(i, batch.get(i).withReservationId(outcome.reservationId()));
+            } else {
+                errors[pending.get(k)] = outcome.outOfStock()
+                        ? "Some items are out of stock: " + outcome.error()
+                        : outcome.error();
+            }
+        }
+    }
+
+    /**
+     * Makes a durable new order visible to readers. It is in the map before it leaves
+     * {@link #unpublished}, so a compaction in between still sees it.
+     */
+    private void publish(Order order) {
+        orders.put(order.getId(), order);
+        userOrderIndex.add(order);
+        unpublished.remove(order.getId());
+        eventPublisher.publishEvent(new OrderChangedEvent(order, OrderChangedEvent.Type.CREATED));
+    }
+
+    private static Order initialize(Order order, long id, LocalDateTime now) {
+        return new Order(id, order.getUserId(), order.getItems(), order.getTotalAmount(), OrderStatus.PENDING.name(),
+                order.getShippingAddress(), now, now, order.getReservationId());
+    }
+
+    private static void awaitDurable(CompletableFuture<Void> write) {
+        try {
+            write.join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Failed to persist order change", e.getCause());
+        }
+    }
+
+    /**
+     * Moves an order to {@code status} if the state machine allows it. Requesting the status the
+     * order already has is a no-op.
+     *
+     * @throws IllegalArgumentException         if {@code status} is not a known status
+     * @throws InvalidStatusTransitionException if the order's current status does not allow the move
+     */
     public Optional<Order> updateOrderStatus(Long id, String status) {
-        Order order = orders.get(id);
-        if (order != null) {
-            order.setStatus(status);
-            order.setUpdatedAt(LocalDateTime.now());
-            return Optional.of(order);
+        return transition(id, OrderStatus.parse(status));
+    }
+
+    /**
+     * Cancels an order that has not shipped yet and returns its reserved stock.
+     *
+     * @throws InvalidStatusTransitionException if the order has already shipped, been delivered or cancelled
+     */
+    public Optional<Order> cancelOrder(Long id) {
+        return transition(id, OrderStatus.CANCELLED);
+    }
+
+    /**
+     * Orders are immutable snapshots; a transition builds a new one and swaps it in with a
+     * compare-and-set on the snapshot's identity, retrying if another transition got there first.
+     * Readers therefore always see a complete order and never wait on a writer.
+     */
+    private Optional<Order> transition(Long id, OrderStatus target) {
+        while (true) {
+            Order current = orders.get(id);
+            if (current == null) {
+                // Only terminal orders are tiered, so a cold order can never move again
+                Optional<Order> cold = coldOrders.get(id);
+                if (cold.isEmpty() || OrderStatus.parse(cold.get().getStatus()) == target) {
+                    return cold;
+                }
+                throw new InvalidStatusTransitionException(id, OrderStatus.parse(cold.get().getStatus()), target);
+            }
+            OrderStatus from = OrderStatus.parse(current.getStatus());
+            if (from == target) {
+                return Optional.of(current);
+            }
+            if (!from.canTransitionTo(target)) {
+                throw new InvalidStatusTransitionException(id, from, target);
+            }
+            Order next = new Order(id, current.getUserId(), current.getItems(), current.getTotalAmount(), target.name(),
+                    current.getShippingAddress(), current.getCreatedAt(), LocalDateTime.now(), current.getReservationId());
+            if (orders.replace(id, current, next)) {
+                awaitDurable(orderStore.append(next));
+                if (target == OrderStatus.CANCELLED && next.getReservationId() != null) {
+                    releaseQuietly(next.getReservationId());
+                }
+                eventPublisher.publishEvent(new OrderChangedEvent(next, OrderChangedEvent.Type.STATUS_CHANGED, from));
+                return Optional.of(next);
+            }
         }
-        return Optional.empty();
     }
 
-    public boolean cancelOrder(Long id) {
-        Order order = orders.get(id);
-        if (order != null && "PENDING".equals(order.getStatus())) {
-            order.setStatus("CANCELLED");
-            order.setUpdatedAt(LocalDateTime.now());
-            return true;
+    /**
+     * Moves orders that have been DELIVERED or CANCELLED for longer than {@code orders.tiering.min-age}
+     * from the heap to the cold tier. An order is written to the tier before it leaves the map, so
+     * lookups always find it in one or the other.
+     */
+    @Scheduled(initialDelayString = "${orders.tiering.interval:PT1M}",
+            fixedDelayString = "${orders.tiering.interval:PT1M}")
+    public void tierColdOrders() {
+        if (!tieringEnabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(tieringMinAge);
+        List<Order> batch = new ArrayList<>(Math.min(tieringBatchSize, 1024));
+        int moved = 0;
+        try {
+            for (Order order : orders.values()) {
+                if (OrderStatus.parse(order.getStatus()).isTerminal()
+                        && order.getUpdatedAt() != null && order.getUpdatedAt().isBefore(cutoff)) {
+                    batch.add(order);
+                    if (batch.size() == tieringBatchSize) {
+                        moved += moveToColdTier(batch);
+                        batch.clear();
+                    }
+                }
+            }
+            moved += moveToColdTier(batch);
+        } catch (IOException e) {
+            System.err.println("Moving orders to the cold tier failed: " + e.getMessage());
+        }
+        if (moved > 0) {
+            System.out.println("Moved " + moved + " orders to the cold tier, " + coldOrders.size() + " cold in total");
+        }
+    }
+
+    private int moveToColdTier(List<Order> batch) throws IOException {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Set<Long> stored = coldOrders.putAll(batch);
+        int moved = 0;
+        for (Order order : batch) {
+            if (stored.contains(order.getId()) && orders.remove(order.getId(), order)) {
+                moved++;
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Order counts of each tier and the cold tier's bytes per order, taken from its segments. The
+     * heap cost of a hot order cannot be read off a live heap; the benchmarks module measures it.
+     */
+    public Map<String, Object> getStorageStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hotOrders", orders.size());
+        stats.put("coldOrders", coldOrders.size());
+        stats.put("coldBytesPerOrder", Math.round(coldOrders.bytesPerOrder()));
+        stats.put("coldMappedBytes", coldOrders.mappedBytes());
+        return stats;
+    }
+
+    /**
+     * Registers the store sizes of both tiers; the scrape, not the request path, pays for counting.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("orders.store.size", orders, Map::size)
+                .description("Orders held in memory or in the cold tier")
+                .tag("tier", "hot")
+                .register(registry);
+        Gauge.builder("orders.store.size", coldOrders, ColdOrderStore::size)
+                .description("Orders held in memory or in the cold tier")
+                .tag("tier", "cold")
+                .register(registry);
+    }
+
+    private void releaseQuietly(String reservationId) {
+        try {
+            inventoryClient.release(reservationId);
+        } catch (RuntimeException e) {
+            System.err.println("Failed to release inventory reservation " + reservationId + ": " + e.getMessage());
         }
-        return false;
     }
 }
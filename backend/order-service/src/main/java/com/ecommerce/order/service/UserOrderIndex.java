@@ -0,0 +1,77 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.model.Order;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Secondary index from user id to that user's order ids, kept newest first.
+ *
+ * Entries are ordered by (createdAt desc, id desc) so a page of a user's history is a walk
+ * of {@code limit} entries from a starting point, independent of how many orders exist overall.
+ * Orders are never deleted, and those moved to the cold tier stay indexed and are resolved from
+ * there, so entries are only ever added.
+ */
+class UserOrderIndex {
+
+    record Entry(LocalDateTime createdAt, long orderId) {
+    }
+
+    private static final Comparator<Entry> NEWEST_FIRST = Comparator
+            .comparing(Entry::createdAt, Comparator.reverseOrder())
+            .thenComparing(Entry::orderId, Comparator.reverseOrder());
+
+    private final Map<Long, ConcurrentSkipListSet<Entry>> byUser = new ConcurrentHashMap<>();
+
+    void add(Order order) {
+        if (order.getUserId() == null) {
+            return;
+        }
+        byUser.computeIfAbsent(order.getUserId(), id -> new ConcurrentSkipListSet<>(NEWEST_FIRST))
+                .add(new Entry(order.getCreatedAt(), order.getId()));
+    }
+
+    /**
+     * Returns up to {@code limit} entries of the user's history, newest first.
+     *
+     * @param after start strictly after this entry (the previous page's last entry), or null
+     * @param since only include orders created at or after this time, or null
+     */
+    List<Entry> page(Long userId, Entry after, LocalDateTime since, int limit) {
+        ConcurrentSkipListSet<Entry> entries = byUser.get(userId);
+        if (entries == null) {
+            return Collections.emptyList();
+        }
+        NavigableSet<Entry> view = after != null ? entries.tailSet(after, false) : entries;
+        List<Entry> page = new ArrayList<>(Math.min(limit, 64));
+        for (Entry entry : view) {
+            if (page.size() == limit || (since != null && entry.createdAt().isBefore(since))) {
+                break;
+            }
+            page.add(entry);
+        }
+        return page;
+    }
+
+    static String encodeCursor(Entry entry) {
+        String raw = "t:" + entry.createdAt() + "|" + entry.orderId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Entry decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (!raw.startsWith("t:") || separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new Entry(LocalDateTime.parse(raw.substring(2, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.ecommerce.order.store;
+
+import com.ecommerce.order.model.Order;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Cold tier for orders that can no longer change, kept as {@link OrderCodec} records in a
+ * memory-mapped file instead of as object graphs on the heap.
+ *
+ * The file is a sequence of fixed-size mapped segments of {@code [int length][int crc32][record]}
+ * entries; a record never spans two segments. The only heap cost per order is one slot in two
+ * primitive arrays, sorted by id, mapping it to its position. Writers are serialized; readers take
+ * the current index without locking and only ever see fully written records.
+ *
+ * Once an order is here it is no longer carried over when the write-ahead log is compacted, so
+ * every batch is forced to disk before {@link #putAll} returns and the file is reopened, not
+ * rebuilt, on start.
+ */
+@Component
+public class ColdOrderStore {
+
+    private record Index(long[] ids, long[] positions, int size) {
+    }
+
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+    private final Path path;
+    private final int segmentBytes;
+
+    private FileChannel channel;
+    private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+    private volatile Index index = new Index(new long[0], new long[0], 0);
+    // Written under the writer lock, read without it by bytesPerOrder
+    private volatile long writePosition;
+
+    public ColdOrderStore(@Value("${orders.store.directory:data/orders}") String directory,
+                          @Value("${orders.cold.segment-bytes:67108864}") int segmentBytes) {
+        this.path = Paths.get(directory).resolve("cold-orders.dat");
+        this.segmentBytes = segmentBytes;
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long start = System.nanoTime();
+        recover();
+        if (index.size() > 0) {
+            System.out.println("Reopened cold tier with " + index.size() + " orders in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        }
+    }
+
+    /**
+     * Rebuilds the index from the records already in the file. The scan stops at the first record
+     * whose checksum does not match, which can only be a batch cut short by a crash: its orders
+     * had not left the heap yet, so the write-ahead log still has them.
+     */
+    private void recover() throws IOException {
+        int segmentCount = (int) (channel.size() / segmentBytes);
+        if (segmentCount == 0) {
+            return;
+        }
+        segment(segmentCount - 1);
+        long[] ids = new long[1024];
+        long[] positions = new long[1024];
+        int count = 0;
+        CRC32 crc = new CRC32();
+        long position = 0;
+        while (position / segmentBytes < segmentCount) {
+            MappedByteBuffer segment = segments[(int) (position / segmentBytes)];
+            int offset = (int) (position % segmentBytes);
+            int length = offset + HEADER_BYTES <= segmentBytes ? segment.getInt(offset) : 0;
+            if (length == 0) {
+                if (offset == 0) {
+                    break;
+                }
+                // The rest of the segment was skipped because the next record did not fit
+                position += segmentBytes - offset;
+                continue;
+            }
+            if (length < Long.BYTES || offset + HEADER_BYTES + length > segmentBytes) {
+                break;
+            }
+            crc.reset();
+            crc.update(segment.slice(offset + HEADER_BYTES, length));
+            if ((int) crc.getValue() != segment.getInt(offset + Integer.BYTES)) {
+                break;
+            }
+            // Every record starts with the order id
+            long id = segment.getLong(offset + HEADER_BYTES);
+            if (count > 0 && id <= ids[count - 1]) {
+                // Batches are sorted by id and usually follow each other in id order too
+                index = merge(index, ids, positions, count);
+                count = 0;
+            }
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+                positions = Arrays.copyOf(positions, count * 2);
+            }
+            ids[count] = id;
+            positions[count++] = position;
+            position += HEADER_BYTES + length;
+        }
+        index = merge(index, ids, positions, count);
+        writePosition = position;
+    }
+
+    /**
+     * Encodes the orders into the tier and forces them to disk. An order is readable through
+     * {@link #get} once this returns.
+     *
+     * @return the ids that were stored; an order whose record would not fit in a segment is skipped
+     */
+    public synchronized Set<Long> putAll(Collection<Order> orders) throws IOException {
+        List<Order> sorted = new ArrayList<>(orders);
+        sorted.sort(Comparator.comparing(Order::getId));
+        long[] ids = new long[sorted.size()];
+        long[] positions = new long[sorted.size()];
+        int count = 0;
+        int firstSegment = (int) (writePosition / segmentBytes);
+        CRC32 crc = new CRC32();
+        for (Order order : sorted) {
+            byte[] record = OrderCodec.encode(order);
+            int length = HEADER_BYTES + record.length;
+            if (length > segmentBytes) {
+                System.err.println("Order " + order.getId() + " is too large for the cold tier, keeping it on heap");
+                continue;
+            }
+            int offset = (int) (writePosition % segmentBytes);
+            if (offset + length > segmentBytes) {
+                if (offset + Integer.BYTES <= segmentBytes) {
+                    // Marks the skipped tail, which may still hold a torn record from before a crash
+                    segment((int) (writePosition / segmentBytes)).putInt(offset, 0);
+                }
+                writePosition += segmentBytes - offset;
+                offset = 0;
+            }
+            MappedByteBuffer segment = segment((int) (writePosition / segmentBytes));
+            crc.reset();
+            crc.update(record);
+            segment.putInt(offset, record.length);
+            segment.putInt(offset + Integer.BYTES, (int) crc.getValue());
+            segment.put(offset + HEADER_BYTES, record);
+            ids[count] = order.getId();
+            positions[count] = writePosition;
+            count++;
+            writePosition += length;
+        }
+        MappedByteBuffer[] written = segments;
+        for (int i = firstSegment; i < written.length; i++) {
+            written[i].force();
+        }
+        index = merge(index, ids, positions, count);
+
+        Set<Long> stored = new HashSet<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            stored.add(ids[i]);
+        }
+        return stored;
+    }
+
+    private MappedByteBuffer segment(int number) throws IOException {
+        MappedByteBuffer[] current = segments;
+        if (number < current.length) {
+            return current[number];
+        }
+        MappedByteBuffer[] grown = Arrays.copyOf(current, number + 1);
+        for (int i = current.length; i <= number; i++) {
+            grown[i] = channel.map(FileChannel.MapMode.READ_WRITE, (long) i * segmentBytes, segmentBytes);
+        }
+        segments = grown;
+        return grown[number];
+    }
+
+    /**
+     * Adds the sorted entries to the index. New ids above every indexed one, the usual case since
+     * orders age in roughly id order, are appended in place past the size readers can see;
+     * otherwise the arrays are merged into new ones.
+     */
+    private static Index merge(Index current, long[] ids, long[] positions, int count) {
+        if (count == 0) {
+            return current;
+        }
+        int size = current.size();
+        if (size == 0 || ids[0] > current.ids()[size - 1]) {
+            long[] targetIds = current.ids();
+            long[] targetPositions = current.positions();
+            if (size + count > targetIds.length) {
+                int capacity = Math.max(size + count, targetIds.length + (targetIds.length >> 1));
+                targetIds = Arrays.copyOf(targetIds, capacity);
+                targetPositions = Arrays.copyOf(targetPositions, capacity);
+            }
+            System.arraycopy(ids, 0, targetIds, size, count);
+            System.arraycopy(positions, 0, targetPositions, size, count);
+            return new Index(targetIds, targetPositions, size + count);
+        }
+
+        int capacity = Math.max(size + count, current.ids().length);
+        long[] mergedIds = new long[capacity];
+        long[] mergedPositions = new long[capacity];
+        int i = 0, j = 0, k = 0;
+        while (i < size || j < count) {
+            if (j == count || (i < size && current.ids()[i] < ids[j])) {
+                mergedIds[k] = current.ids()[i];
+                mergedPositions[k++] = current.positions()[i++];
+            } else if (i < size && current.ids()[i] == ids[j]) {
+                // Re-tiered order: the newer record replaces the old one
+                mergedIds[k] = ids[j];
+                mergedPositions[k++] = positions[j++];
+                i++;
+            } else {
+                mergedIds[k] = ids[j];
+                mergedPositions[k++] = positions[j++];
+            }
+        }
+        return new Index(mergedIds, mergedPositions, k);
+    }
+
+    public Optional<Order> get(long id) {
+        Index current = index;
+        int slot = Arrays.binarySearch(current.ids(), 0, current.size(), id);
+        return slot >= 0 ? Optional.of(read(current.positions()[slot])) : Optional.empty();
+    }
+
+    public boolean contains(long id) {
+        Index current = index;
+        return Arrays.binarySearch(current.ids(), 0, current.size(), id) >= 0;
+    }
+
+    /**
+     * Iterates the stored orders with ids above {@code afterId} in id order, decoding lazily.
+     */
+    public Iterator<Order> iterator(long afterId) {
+        Index current = index;
+        int start = Arrays.binarySearch(current.ids(), 0, current.size(), afterId);
+        int from = start >= 0 ? start + 1 : -start - 1;
+        return new Iterator<>() {
+            private int next = from;
+
+            @Override
+            public boolean hasNext() {
+                return next < current.size();
+            }
+
+            @Override
+            public Order next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return read(current.positions()[next++]);
+            }
+        };
+    }
+
+    private Order read(long position) {
+        ByteBuffer segment = segments[(int) (position / segmentBytes)];
+        int offset = (int) (position % segmentBytes);
+        int length = segment.getInt(offset);
+        return OrderCodec.decode(segment.slice(offset + HEADER_BYTES, length));
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public long lastId() {
+        Index current = index;
+        return current.size() == 0 ? 0 : current.ids()[current.size() - 1];
+    }
+
+    /**
+     * Bytes used per order, taken from the segments rather than the records alone: the written part
+     * of the mapped file, including record headers, skipped segment tails and records superseded by
+     * a re-tiered order, plus the index arrays on the heap at their full capacity.
+     */
+    public double bytesPerOrder() {
+        Index current = index;
+        return current.size() == 0 ? 0
+                : (double) (writePosition + 2L * Long.BYTES * current.ids().length) / current.size();
+    }
+
+    public long mappedBytes() {
+        return (long) segments.length * segmentBytes;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
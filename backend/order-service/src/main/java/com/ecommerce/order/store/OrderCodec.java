@@ -0,0 +1,197 @@
+package com.ecommerce.order.store;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderItem;
+import com.ecommerce.order.model.OrderStatus;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary encoding of an {@link Order} for the cold tier.
+ *
+ * Layout: id (long), a presence bitmap for the nullable fields, then each present field in
+ * declaration order. The status is its ordinal, timestamps are epoch seconds plus nanos, strings
+ * are a length-prefixed UTF-8 run and amounts are scale plus unscaled two's-complement bytes, so
+ * BigDecimal values round-trip exactly. Each item has its own bitmap in the same style.
+ */
+final class OrderCodec {
+
+    private static final int USER_ID = 1;
+    private static final int ITEMS = 1 << 1;
+    private static final int TOTAL_AMOUNT = 1 << 2;
+    private static final int STATUS = 1 << 3;
+    private static final int SHIPPING_ADDRESS = 1 << 4;
+    private static final int CREATED_AT = 1 << 5;
+    private static final int UPDATED_AT = 1 << 6;
+    private static final int RESERVATION_ID = 1 << 7;
+
+    private static final int PRODUCT_ID = 1;
+    private static final int PRODUCT_NAME = 1 << 1;
+    private static final int QUANTITY = 1 << 2;
+    private static final int PRICE = 1 << 3;
+
+    private OrderCodec() {
+    }
+
+    static byte[] encode(Order order) {
+        byte[] shippingAddress = utf8(order.getShippingAddress());
+        byte[] reservationId = utf8(order.getReservationId());
+        byte[] total = unscaled(order.getTotalAmount());
+        List<byte[]> names = new ArrayList<>();
+        List<byte[]> prices = new ArrayList<>();
+
+        int flags = 0;
+        int size = Long.BYTES + Byte.BYTES;
+        if (order.getUserId() != null) { flags |= USER_ID; size += Long.BYTES; }
+        if (order.getItems() != null) {
+            flags |= ITEMS;
+            size += Integer.BYTES;
+            for (OrderItem item : order.getItems()) {
+                byte[] name = utf8(item.getProductName());
+                byte[] price = unscaled(item.getPrice());
+                names.add(name);
+                prices.add(price);
+                size += Byte.BYTES;
+                if (item.getProductId() != null) size += Long.BYTES;
+                if (name != null) size += Integer.BYTES + name.length;
+                if (item.getQuantity() != null) size += Integer.BYTES;
+                if (price != null) size += Integer.BYTES + Short.BYTES + price.length;
+            }
+        }
+        if (total != null) { flags |= TOTAL_AMOUNT; size += Integer.BYTES + Short.BYTES + total.length; }
+        if (order.getStatus() != null) { flags |= STATUS; size += Byte.BYTES; }
+        if (shippingAddress != null) { flags |= SHIPPING_ADDRESS; size += Integer.BYTES + shippingAddress.length; }
+        if (order.getCreatedAt() != null) { flags |= CREATED_AT; size += Long.BYTES + Integer.BYTES; }
+        if (order.getUpdatedAt() != null) { flags |= UPDATED_AT; size += Long.BYTES + Integer.BYTES; }
+        if (reservationId != null) { flags |= RESERVATION_ID; size += Integer.BYTES + reservationId.length; }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putLong(order.getId());
+        buffer.put((byte) flags);
+        if (order.getUserId() != null) {
+            buffer.putLong(order.getUserId());
+        }
+        if (order.getItems() != null) {
+            buffer.putInt(order.getItems().size());
+            for (int i = 0; i < order.getItems().size(); i++) {
+                OrderItem item = order.getItems().get(i);
+                int itemFlags = (item.getProductId() != null ? PRODUCT_ID : 0)
+                        | (names.get(i) != null ? PRODUCT_NAME : 0)
+                        | (item.getQuantity() != null ? QUANTITY : 0)
+                        | (prices.get(i) != null ? PRICE : 0);
+                buffer.put((byte) itemFlags);
+                if (item.getProductId() != null) {
+                    buffer.putLong(item.getProductId());
+                }
+                putBytes(buffer, names.get(i));
+                if (item.getQuantity() != null) {
+                    buffer.putInt(item.getQuantity());
+                }
+                putDecimal(buffer, item.getPrice(), prices.get(i));
+            }
+        }
+        putDecimal(buffer, order.getTotalAmount(), total);
+        if (order.getStatus() != null) {
+            buffer.put((byte) OrderStatus.parse(order.getStatus()).ordinal());
+        }
+        putBytes(buffer, shippingAddress);
+        putTime(buffer, order.getCreatedAt());
+        putTime(buffer, order.getUpdatedAt());
+        putBytes(buffer, reservationId);
+        return buffer.array();
+    }
+
+    /**
+     * Decodes one order starting at the buffer's position and advances past it.
+     */
+    static Order decode(ByteBuffer buffer) {
+        try {
+            long id = buffer.getLong();
+            int flags = buffer.get() & 0xFF;
+            Long userId = (flags & USER_ID) != 0 ? buffer.getLong() : null;
+            List<OrderItem> items = null;
+            if ((flags & ITEMS) != 0) {
+                int count = buffer.getInt();
+                items = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    int itemFlags = buffer.get() & 0xFF;
+                    Long productId = (itemFlags & PRODUCT_ID) != 0 ? buffer.getLong() : null;
+                    String productName = (itemFlags & PRODUCT_NAME) != 0 ? getString(buffer) : null;
+                    Integer quantity = (itemFlags & QUANTITY) != 0 ? buffer.getInt() : null;
+                    BigDecimal price = (itemFlags & PRICE) != 0 ? getDecimal(buffer) : null;
+                    items.add(new OrderItem(productId, productName, quantity, price));
+                }
+            }
+            BigDecimal totalAmount = (flags & TOTAL_AMOUNT) != 0 ? getDecimal(buffer) : null;
+            String status = (flags & STATUS) != 0 ? OrderStatus.values()[buffer.get()].name() : null;
+            String shippingAddress = (flags & SHIPPING_ADDRESS) != 0 ? getString(buffer) : null;
+            LocalDateTime createdAt = (flags & CREATED_AT) != 0 ? getTime(buffer) : null;
+            LocalDateTime updatedAt = (flags & UPDATED_AT) != 0 ? getTime(buffer) : null;
+            String reservationId = (flags & RESERVATION_ID) != 0 ? getString(buffer) : null;
+            return new Order(id, userId, items, totalAmount, status, shippingAddress, createdAt, updatedAt,
+                    reservationId);
+        } catch (BufferUnderflowException | NegativeArraySizeException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalStateException("Corrupt order record", e);
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static byte[] unscaled(BigDecimal value) {
+        return value != null ? value.unscaledValue().toByteArray() : null;
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] value) {
+        if (value != null) {
+            buffer.putInt(value.length);
+            buffer.put(value);
+        }
+    }
+
+    private static void putDecimal(ByteBuffer buffer, BigDecimal value, byte[] unscaled) {
+        if (value != null) {
+            buffer.putInt(value.scale());
+            buffer.putShort((short) unscaled.length);
+            buffer.put(unscaled);
+        }
+    }
+
+    private static void putTime(ByteBuffer buffer, LocalDateTime value) {
+        if (value != null) {
+            buffer.putLong(value.toEpochSecond(ZoneOffset.UTC));
+            buffer.putInt(value.getNano());
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalStateException("Corrupt order record");
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static BigDecimal getDecimal(ByteBuffer buffer) {
+        int scale = buffer.getInt();
+        byte[] unscaled = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private static LocalDateTime getTime(ByteBuffer buffer) {
+        long seconds = buffer.getLong();
+        return LocalDateTime.ofEpochSecond(seconds, buffer.getInt(), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,151 @@
+package com.ecommerce.order.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, checksummed write-ahead log of order records.
+ *
+ * Each frame is {@code [int payloadLength][int crc32(payload)][payload]} where the payload is a
+ * record type byte followed by the record as JSON. Replay stops at the first short or mismatching
+ * frame and truncates it, which discards a write torn by a crash.
+ */
+final class OrderLog implements Closeable {
+
+    static final byte ORDER = 1;
+    static final byte BATCH = 2;
+
+    private static final int FRAME_HEADER = Integer.BYTES * 2;
+    private static final int REWRITE_BATCH = 1024;
+
+    interface RecordHandler {
+        void accept(byte type, byte[] json) throws IOException;
+    }
+
+    private final Path path;
+    private FileChannel channel;
+
+    OrderLog(Path path) {
+        this.path = path;
+    }
+
+    static byte[] frame(byte type, byte[] json) {
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(json);
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER + 1 + json.length);
+        frame.putInt(1 + json.length).putInt((int) crc.getValue()).put(type).put(json);
+        return frame.array();
+    }
+
+    /**
+     * Replays every intact record through the handler, truncates any torn tail and opens the
+     * log for appending. Returns the number of records replayed.
+     */
+    long open(RecordHandler handler) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        long size = channel.size();
+        long validEnd = 0;
+        long records = 0;
+        if (size > 0) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            CRC32 crc = new CRC32();
+            while (buffer.remaining() >= FRAME_HEADER) {
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining()) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                buffer.get(payload);
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                byte[] json = new byte[length - 1];
+                System.arraycopy(payload, 1, json, 0, json.length);
+                handler.accept(payload[0], json);
+                validEnd = buffer.position();
+                records++;
+            }
+        }
+
+        if (validEnd < size) {
+            System.err.println("Truncating " + (size - validEnd) + " bytes of torn order log tail");
+            channel.truncate(validEnd);
+            channel.force(true);
+        }
+        channel.position(validEnd);
+        return records;
+    }
+
+    /**
+     * Writes the frames with a single gathering write followed by one fsync.
+     */
+    void appendAndSync(List<byte[]> frames) throws IOException {
+        write(channel, frames);
+        channel.force(false);
+    }
+
+    /**
+     * Replaces the log with one containing only {@code frames}: they are streamed and synced to a
+     * side file that is then atomically moved over the log, so a crash leaves either log intact.
+     */
+    void rewrite(Iterable<byte[]> frames) throws IOException {
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            List<byte[]> pending = new ArrayList<>(REWRITE_BATCH);
+            for (byte[] frame : frames) {
+                pending.add(frame);
+                if (pending.size() == REWRITE_BATCH) {
+                    write(out, pending);
+                    pending.clear();
+                }
+            }
+            write(out, pending);
+            out.force(true);
+        }
+        channel.close();
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+    }
+
+    private static void write(FileChannel target, List<byte[]> frames) throws IOException {
+        ByteBuffer[] buffers = new ByteBuffer[frames.size()];
+        long total = 0;
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = ByteBuffer.wrap(frames.get(i));
+            total += buffers[i].remaining();
+        }
+        long written = 0;
+        while (written < total) {
+            written += target.write(buffers);
+        }
+    }
+
+    long size() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.ecommerce.order.store;
+
+import com.ecommerce.order.model.BulkOrderResponse;
+import com.ecommerce.order.model.Order;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Durable write-ahead log for orders and for the results of idempotent bulk submissions.
+ *
+ * Every order write carries the full order. A single writer thread drains all pending writes
+ * into one batch and acknowledges the whole batch after a single fsync (group commit), so
+ * concurrent and bulk writers share the cost of the sync. When the log grows past
+ * {@code orders.store.compact-threshold-bytes} it is rewritten with only the current records.
+ */
+@Component
+public class OrderStore {
+
+    private record PendingWrite(List<byte[]> frames, CompletableFuture<Void> done) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final OrderLog log;
+    private final long compactThresholdBytes;
+    private final int maxBatch;
+    private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+    private final Map<String, BulkOrderResponse> recoveredBatches = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private volatile Supplier<Iterable<Order>> orderSource = Collections::emptyList;
+    private volatile Supplier<Iterable<BulkOrderResponse>> batchSource = Collections::emptyList;
+    private long compactedSize;
+    private Thread writer;
+
+    public OrderStore(ObjectMapper objectMapper,
+                      @Value("${orders.store.enabled:true}") boolean enabled,
+                      @Value("${orders.store.directory:data/orders}") String directory,
+                      @Value("${orders.store.compact-threshold-bytes:67108864}") long compactThresholdBytes,
+                      @Value("${orders.store.group-commit.max-batch:4096}") int maxBatch) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.log = new OrderLog(Paths.get(directory).resolve("orders.log"));
+        this.compactThresholdBytes = compactThresholdBytes;
+        this.maxBatch = maxBatch;
+    }
+
+    /**
+     * Replays the log, handing every order record to {@code onOrder} in log order, then starts
+     * accepting writes. Bulk submission results are kept until {@link #takeRecoveredBatches()}.
+     *
+     * @param orderSource supplies the live orders when the log is compacted
+     */
+    public synchronized void open(Consumer<Order> onOrder, Supplier<Iterable<Order>> orderSource) throws IOException {
+        if (!enabled || running) {
+            return;
+        }
+        this.orderSource = orderSource;
+
+        long start = System.nanoTime();
+        long replayed = log.open((type, json) -> {
+            if (type == OrderLog.ORDER) {
+                onOrder.accept(objectMapper.readValue(json, Order.class));
+            } else if (type == OrderLog.BATCH) {
+                BulkOrderResponse batch = objectMapper.readValue(json, BulkOrderResponse.class);
+                recoveredBatches.put(batch.getIdempotencyKey(), batch);
+            }
+        });
+        if (replayed > 0) {
+            System.out.println("Replayed " + replayed + " order log records in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        }
+        compactedSize = log.size();
+
+        running = true;
+        writer = new Thread(this::writeLoop, "order-store-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Returns the bulk submission results found during replay and registers the source of live
+     * ones to carry over when the log is compacted.
+     */
+    public Map<String, BulkOrderResponse> takeRecoveredBatches(Supplier<Iterable<BulkOrderResponse>> batchSource) {
+        this.batchSource = batchSource;
+        Map<String, BulkOrderResponse> recovered = new HashMap<>(recoveredBatches);
+        recoveredBatches.clear();
+        return recovered;
+    }
+
+    public CompletableFuture<Void> append(Order order) {
+        return enqueue(List.of(OrderLog.frame(OrderLog.ORDER, toJson(order))));
+    }
+
+    public CompletableFuture<Void> appendAll(Collection<Order> orders) {
+        List<byte[]> frames = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            frames.add(OrderLog.frame(OrderLog.ORDER, toJson(order)));
+        }
+        return enqueue(frames);
+    }
+
+    public CompletableFuture<Void> appendBatch(BulkOrderResponse batch) {
+        return enqueue(List.of(OrderLog.frame(OrderLog.BATCH, toJson(batch))));
+    }
+
+    private byte[] toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    private CompletableFuture<Void> enqueue(List<byte[]> frames) {
+        if (!enabled || frames.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (!running) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Order store is not open"));
+        }
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        queue.add(new PendingWrite(frames, done));
+        return done;
+    }
+
+    private void writeLoop() {
+        List<PendingWrite> batch = new ArrayList<>();
+        List<byte[]> frames = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                for (PendingWrite write : batch) {
+                    frames.addAll(write.frames());
+                }
+
+                try {
+                    log.appendAndSync(frames);
+                    batch.forEach(write -> write.done().complete(null));
+                } catch (IOException e) {
+                    batch.forEach(write -> write.done().completeExceptionally(e));
+                }
+
+                if (log.size() - compactedSize >= compactThresholdBytes) {
+                    compact();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                System.err.println("Order store writer error: " + e.getMessage());
+            } finally {
+                batch.clear();
+                frames.clear();
+            }
+        }
+    }
+
+    /**
+     * Runs on the writer thread. Every record already in the log was in the order source before it
+     * was queued, so the rewritten log covers it; records still queued are appended afterwards.
+     */
+    private void compact() {
+        try {
+            long start = System.nanoTime();
+            long before = log.size();
+            log.rewrite(() -> new Iterator<>() {
+                private final Iterator<Order> orders = orderSource.get().iterator();
+                private final Iterator<BulkOrderResponse> batches = batchSource.get().iterator();
+
+                @Override
+                public boolean hasNext() {
+                    return orders.hasNext() || batches.hasNext();
+                }
+
+                @Override
+                public byte[] next() {
+                    return orders.hasNext()
+                            ? OrderLog.frame(OrderLog.ORDER, toJson(orders.next()))
+                            : OrderLog.frame(OrderLog.BATCH, toJson(batches.next()));
+                }
+            });
+            compactedSize = log.size();
+            System.out.println("Compacted order log from " + before + " to " + compactedSize + " bytes in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Order log compaction failed: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        log.close();
+    }
+}
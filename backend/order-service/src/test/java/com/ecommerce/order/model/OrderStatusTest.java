@@ -0,0 +1,48 @@
+package com.ecommerce.order.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderStatusTest {
+
+    @Test
+    void followsTheLifecycle() {
+        assertEquals(EnumSet.of(OrderStatus.PAID, OrderStatus.CANCELLED), OrderStatus.PENDING.allowedNext());
+        assertEquals(EnumSet.of(OrderStatus.SHIPPED, OrderStatus.CANCELLED), OrderStatus.PAID.allowedNext());
+        assertEquals(EnumSet.of(OrderStatus.DELIVERED), OrderStatus.SHIPPED.allowedNext());
+        assertEquals(Set.of(), OrderStatus.DELIVERED.allowedNext());
+        assertEquals(Set.of(), OrderStatus.CANCELLED.allowedNext());
+    }
+
+    @Test
+    void neverMovesBackwardsOrToItself() {
+        for (OrderStatus from : OrderStatus.values()) {
+            assertFalse(from.canTransitionTo(from));
+            assertFalse(from.canTransitionTo(OrderStatus.PENDING));
+        }
+        assertFalse(OrderStatus.SHIPPED.canTransitionTo(OrderStatus.CANCELLED));
+        assertFalse(OrderStatus.DELIVERED.canTransitionTo(OrderStatus.CANCELLED));
+    }
+
+    @Test
+    void onlyDeliveredAndCancelledAreTerminal() {
+        assertEquals(EnumSet.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED),
+                EnumSet.copyOf(Arrays.stream(OrderStatus.values()).filter(OrderStatus::isTerminal).toList()));
+    }
+
+    @Test
+    void parsesCaseInsensitively() {
+        assertEquals(OrderStatus.SHIPPED, OrderStatus.parse(" shipped "));
+        assertThrows(IllegalArgumentException.class, () -> OrderStatus.parse("LOST"));
+        assertThrows(IllegalArgumentException.class, () -> OrderStatus.parse(""));
+        assertTrue(OrderStatus.parse("Cancelled").isTerminal());
+    }
+}
@@ -0,0 +1,87 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderItem;
+import com.ecommerce.order.store.ColdOrderStore;
+import com.ecommerce.order.store.OrderStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OrderServiceRecoveryTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void tieredOrdersStayColdAcrossRestarts() throws Exception {
+        LocalDateTime monthAgo = LocalDateTime.now().minusDays(30);
+        List<Order> placed = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            placed.add(order(id, "DELIVERED", monthAgo));
+        }
+        placed.add(order(11L, "PENDING", monthAgo));
+        placed.add(order(12L, "PAID", LocalDateTime.now()));
+        OrderStore seed = new OrderStore(OBJECT_MAPPER, true, directory.toString(), 1 << 20, 64);
+        seed.open(order -> { }, List::of);
+        seed.appendAll(placed).join();
+        seed.close();
+
+        Started first = start();
+        assertEquals(12, first.service.getStorageStats().get("hotOrders"));
+        first.service.tierColdOrders();
+        assertEquals(2, first.service.getStorageStats().get("hotOrders"));
+        first.stop();
+
+        for (int restart = 0; restart < 2; restart++) {
+            Started next = start();
+            Map<String, Object> stats = next.service.getStorageStats();
+            assertEquals(2, stats.get("hotOrders"));
+            assertEquals(10, stats.get("coldOrders"));
+            assertEquals("DELIVERED", next.service.getOrderById(7L).orElseThrow().getStatus());
+            assertEquals(12, next.service.getOrdersByUserId(42L).size());
+            assertEquals(12, next.service.getAllOrders().size());
+            next.stop();
+        }
+    }
+
+    private Started start() throws Exception {
+        ColdOrderStore cold = new ColdOrderStore(directory.toString(), 1 << 16);
+        ReflectionTestUtils.invokeMethod(cold, "open");
+        OrderStore store = new OrderStore(OBJECT_MAPPER, true, directory.toString(), 1 << 20, 64);
+        OrderService service = new OrderService();
+        ReflectionTestUtils.setField(service, "orderStore", store);
+        ReflectionTestUtils.setField(service, "coldOrders", cold);
+        ReflectionTestUtils.setField(service, "tieringEnabled", true);
+        ReflectionTestUtils.setField(service, "tieringMinAge", Duration.ofDays(7));
+        ReflectionTestUtils.setField(service, "tieringBatchSize", 4);
+        service.recover();
+        return new Started(service, store, cold);
+    }
+
+    private static Order order(long id, String status, LocalDateTime updatedAt) {
+        List<OrderItem> items = List.of(new OrderItem(id, "Product " + id, 1, new BigDecimal("9.99")));
+        return new Order(id, 42L, items, new BigDecimal("9.99"), status, "1 Main St",
+                updatedAt.minusDays(1), updatedAt, null);
+    }
+
+    private record Started(OrderService service, OrderStore store, ColdOrderStore cold) {
+        void stop() throws Exception {
+            store.close();
+            cold.close();
+        }
+    }
+}
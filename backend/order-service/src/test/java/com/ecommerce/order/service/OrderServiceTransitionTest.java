@@ -0,0 +1,163 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.event.OrderChangedEvent;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderItem;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.store.ColdOrderStore;
+import com.ecommerce.order.store.OrderStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderServiceTransitionTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    Path directory;
+
+    private final Queue<OrderChangedEvent> events = new ConcurrentLinkedQueue<>();
+    private OrderStore store;
+    private ColdOrderStore cold;
+    private OrderService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        cold = new ColdOrderStore(directory.toString(), 1 << 16);
+        ReflectionTestUtils.invokeMethod(cold, "open");
+        store = new OrderStore(OBJECT_MAPPER, true, directory.toString(), 1 << 20, 64);
+        service = new OrderService();
+        ReflectionTestUtils.setField(service, "orderStore", store);
+        ReflectionTestUtils.setField(service, "coldOrders", cold);
+        ReflectionTestUtils.setField(service, "eventPublisher", (ApplicationEventPublisher) event -> {
+            if (event instanceof OrderChangedEvent changed) {
+                events.add(changed);
+            }
+        });
+        service.recover();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        store.close();
+        cold.close();
+    }
+
+    @Test
+    void aTransitionPublishesANewSnapshot() {
+        Order pending = service.createOrder(order());
+
+        Order paid = service.updateOrderStatus(pending.getId(), "paid").orElseThrow();
+
+        assertEquals("PENDING", pending.getStatus());
+        assertEquals("PAID", paid.getStatus());
+        assertTrue(paid == service.getOrderById(pending.getId()).orElseThrow());
+        assertEquals(pending.getCreatedAt(), paid.getCreatedAt());
+        assertFalse(paid.getUpdatedAt().isBefore(pending.getUpdatedAt()));
+        assertEquals(OrderStatus.PENDING, statusChanges(pending.getId()).get(0).previousStatus());
+    }
+
+    @Test
+    void requestingTheCurrentStatusIsANoOp() {
+        Order paid = service.updateOrderStatus(service.createOrder(order()).getId(), "PAID").orElseThrow();
+
+        assertTrue(paid == service.updateOrderStatus(paid.getId(), "PAID").orElseThrow());
+        assertEquals(1, statusChanges(paid.getId()).size());
+    }
+
+    @Test
+    void refusesMovesTheStateMachineDoesNotAllow() {
+        Order order = service.createOrder(order());
+        service.updateOrderStatus(order.getId(), "PAID");
+        service.updateOrderStatus(order.getId(), "SHIPPED");
+
+        InvalidStatusTransitionException e = assertThrows(InvalidStatusTransitionException.class,
+                () -> service.cancelOrder(order.getId()));
+        assertEquals(OrderStatus.SHIPPED, e.getCurrent());
+        assertEquals("SHIPPED", service.getOrderById(order.getId()).orElseThrow().getStatus());
+        assertThrows(IllegalArgumentException.class, () -> service.updateOrderStatus(order.getId(), "LOST"));
+        assertTrue(service.updateOrderStatus(Long.MAX_VALUE, "PAID").isEmpty());
+    }
+
+    @Test
+    void racingShipAndCancelHaveExactlyOneWinner() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Order order = service.createOrder(order());
+            service.updateOrderStatus(order.getId(), "PAID");
+            ids.add(order.getId());
+        }
+        events.clear();
+
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger refused = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String target = t % 2 == 0 ? "SHIPPED" : "CANCELLED";
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (Long id : ids) {
+                    try {
+                        service.updateOrderStatus(id, target);
+                    } catch (InvalidStatusTransitionException e) {
+                        refused.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        for (Long id : ids) {
+            List<OrderChangedEvent> changes = statusChanges(id);
+            assertEquals(1, changes.size());
+            assertEquals(OrderStatus.PAID, changes.get(0).previousStatus());
+            assertTrue(changes.get(0).order() == service.getOrderById(id).orElseThrow());
+        }
+        // Every thread that asked for the losing status was refused, for every order
+        assertEquals(ids.size() * threads / 2, refused.get());
+    }
+
+    private List<OrderChangedEvent> statusChanges(Long id) {
+        List<OrderChangedEvent> changes = new ArrayList<>();
+        for (OrderChangedEvent event : events) {
+            if (event.type() == OrderChangedEvent.Type.STATUS_CHANGED && event.order().getId().equals(id)) {
+                changes.add(event);
+            }
+        }
+        return changes;
+    }
+
+    private static Order order() {
+        return new Order(null, 42L, List.of(new OrderItem(1L, "Product 1", 1, new BigDecimal("9.99"))),
+                new BigDecimal("9.99"), null, "1 Main St", null, null, null);
+    }
+}
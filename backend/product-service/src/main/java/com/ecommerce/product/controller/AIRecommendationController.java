@@ -3,11 +3,19 @@ package com.ecommerce.product.controller;
 import com.ecommerce.product.model.Product;
 import com.ecommerce.product.service.AIRecommendationService;
 import com.ecommerce.product.service.ProductService;
+import com.ecommerce.product.service.RecommendationBatchService;
+import com.ecommerce.product.service.RecommendationCache;
+import com.ecommerce.product.service.RecommendationRejectedException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.http.HttpTimeoutException;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/products")
@@ -19,6 +27,12 @@ public class AIRecommendationController {
     @Autowired
     private AIRecommendationService aiRecommendationService;
 
+    @Autowired
+    private RecommendationCache recommendationCache;
+
+    @Autowired
+    private RecommendationBatchService recommendationBatchService;
+
     @GetMapping("/ai/health")
     public ResponseEntity<?> checkAIHealth() {
         boolean configured = aiRecommendationService.isConfigured();
@@ -35,24 +49,69 @@ public class AIRecommendationController {
         ));
     }
 
+    @GetMapping("/ai/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(recommendationCache.getStats());
+    }
+
+    @GetMapping("/ai/execution/stats")
+    public ResponseEntity<Map<String, Object>> getExecutionStats() {
+        return ResponseEntity.ok(aiRecommendationService.getExecutionStats());
+    }
+
+    @PostMapping("/ai/batch/start")
+    public ResponseEntity<Map<String, Object>> startBatch(@RequestParam(defaultValue = "true") boolean resume) {
+        if (!aiRecommendationService.isConfigured()) {
+            return ResponseEntity.status(503)
+                    .body(Map.of("error", "AI recommendation service is currently unavailable"));
+        }
+        if (!recommendationBatchService.start(resume)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "A batch run is already in progress"));
+        }
+        return ResponseEntity.accepted().body(recommendationBatchService.getStatus());
+    }
+
+    @PostMapping("/ai/batch/stop")
+    public ResponseEntity<Map<String, Object>> stopBatch() {
+        recommendationBatchService.stop();
+        return ResponseEntity.accepted().body(recommendationBatchService.getStatus());
+    }
+
+    @GetMapping("/ai/batch/status")
+    public ResponseEntity<Map<String, Object>> getBatchStatus() {
+        return ResponseEntity.ok(recommendationBatchService.getStatus());
+    }
+
     @GetMapping("/{id}/ai-recommendation")
-    public ResponseEntity<?> getAIRecommendation(@PathVariable Long id) {
+    public CompletableFuture<ResponseEntity<?>> getAIRecommendation(@PathVariable Long id) {
         return productService.getProductById(id)
-                .map(product -> {
-                    try {
-                        Map<String, Object> recommendation = aiRecommendationService.analyzeProduct(product);
-                        return ResponseEntity.ok(recommendation);
-                    } catch (IllegalStateException e) {
-                        System.err.println("AI service configuration error for product " + id + ": " + e.getMessage());
-                        return ResponseEntity.status(503)
-                                .body(Map.of("error", "AI recommendation service is currently unavailable"));
-                    } catch (Exception e) {
-                        System.err.println("AI recommendation error for product " + id + ": " + e.getMessage());
-                        e.printStackTrace();
-                        return ResponseEntity.status(500)
-                                .body(Map.of("error", "Unable to generate AI recommendation at this time"));
-                    }
-                })
-                .orElse(ResponseEntity.notFound().build());
+                .map(product -> aiRecommendationService.analyzeProductAsync(product)
+                        .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                        .exceptionally(error -> toErrorResponse(id, error)))
+                .orElseGet(() -> CompletableFuture.completedFuture(ResponseEntity.notFound().build()));
+    }
+
+    private ResponseEntity<?> toErrorResponse(Long id, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof RecommendationRejectedException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("error", cause.getMessage()));
+        }
+        if (cause instanceof IllegalStateException) {
+            System.err.println("AI service configuration error for product " + id + ": " + cause.getMessage());
+            return ResponseEntity.status(503)
+                    .body(Map.of("error", "AI recommendation service is currently unavailable"));
+        }
+        if (cause instanceof HttpTimeoutException) {
+            System.err.println("AI recommendation timed out for product " + id);
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                    .body(Map.of("error", "AI recommendation took too long, please try again"));
+        }
+        System.err.println("AI recommendation error for product " + id + ": " + cause.getMessage());
+        cause.printStackTrace();
+        return ResponseEntity.status(500)
+                .body(Map.of("error", "Unable to generate AI recommendation at this time"));
     }
 }
@@ -0,0 +1,103 @@
+package com.ecommerce.product.controller;
+
+import com.ecommerce.product.model.Reservation;
+import com.ecommerce.product.model.ReservationBatchRequest;
+import com.ecommerce.product.model.ReservationBatchResult;
+import com.ecommerce.product.model.ReservationRequest;
+import com.ecommerce.product.service.InsufficientStockException;
+import com.ecommerce.product.service.InventoryService;
+import com.ecommerce.product.service.ReservationStateException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+@RestController
+@RequestMapping("/api/inventory")
+public class InventoryController {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @GetMapping("/{productId}")
+    public ResponseEntity<?> getAvailable(@PathVariable Long productId) {
+        return inventoryService.getAvailable(productId)
+                .<ResponseEntity<?>>map(available -> ResponseEntity.ok(Map.of("productId", productId, "available", available)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/reservations")
+    public ResponseEntity<?> reserve(@RequestBody ReservationRequest request) {
+        try {
+            Reservation reservation = inventoryService.reserve(request.getItems(), request.getTtlSeconds());
+            return ResponseEntity.status(HttpStatus.CREATED).body(reservation);
+        } catch (InsufficientStockException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                    "message", e.getMessage(),
+                    "productId", e.getProductId(),
+                    "requested", e.getRequested(),
+                    "available", e.getAvailable()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Takes many independent reservations in one call. Each request is all-or-nothing on its
+     * own; a shortfall in one does not affect the others.
+     */
+    @PostMapping("/reservations/batch")
+    public ResponseEntity<?> reserveBatch(@RequestBody ReservationBatchRequest request) {
+        if (request.getRequests() == null) {
+            return ResponseEntity.badRequest().body(Map.of("message", "requests is required"));
+        }
+        List<ReservationBatchResult> results = new ArrayList<>(request.getRequests().size());
+        for (ReservationRequest single : request.getRequests()) {
+            try {
+                Reservation reservation = inventoryService.reserve(single.getItems(), single.getTtlSeconds());
+                if (request.isCommit()) {
+                    reservation = inventoryService.commit(reservation.getId()).orElse(reservation);
+                }
+                results.add(new ReservationBatchResult(reservation, HttpStatus.CREATED.value(), null));
+            } catch (InsufficientStockException e) {
+                results.add(new ReservationBatchResult(null, HttpStatus.CONFLICT.value(), e.getMessage()));
+            } catch (IllegalArgumentException | ReservationStateException e) {
+                results.add(new ReservationBatchResult(null, HttpStatus.BAD_REQUEST.value(), e.getMessage()));
+            }
+        }
+        return ResponseEntity.ok(Map.of("results", results));
+    }
+
+    @GetMapping("/reservations/{id}")
+    public ResponseEntity<Reservation> getReservation(@PathVariable String id) {
+        return inventoryService.getReservation(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/reservations/{id}/commit")
+    public ResponseEntity<?> commit(@PathVariable String id) {
+        return transition(() -> inventoryService.commit(id));
+    }
+
+    @PostMapping("/reservations/{id}/release")
+    public ResponseEntity<?> release(@PathVariable String id) {
+        return transition(() -> inventoryService.release(id));
+    }
+
+    private ResponseEntity<?> transition(Supplier<Optional<Reservation>> action) {
+        try {
+            return action.get()
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (ReservationStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        }
+    }
+}
@@ -1,33 +1,73 @@
 package com.ecommerce.product.controller;
 
 import com.ecommerce.product.model.Product;
+import com.ecommerce.product.model.ProductBatchRequest;
+import com.ecommerce.product.model.ProductQuery;
 import com.ecommerce.product.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${product.batch.max-ids:200}")
+    private int maxBatchIds;
+
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts(
+    public ResponseEntity<?> getAllProducts(
             @RequestParam(required = false) String category,
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean stream) {
+        ProductQuery query = new ProductQuery(search, category, brand, minPrice, maxPrice, minRating, sort);
         List<Product> products;
-        
-        if (category != null && !category.isEmpty()) {
-            products = productService.getProductsByCategory(category);
-        } else if (search != null && !search.isEmpty()) {
-            products = productService.searchProducts(search);
-        } else {
+
+        if (query.isEmpty()) {
+            if (stream) {
+                return JsonStreams.array(objectMapper, productService.iterateProducts());
+            }
+            if (limit != null || cursor != null) {
+                return page(cursor, limit);
+            }
             products = productService.getAllProducts();
+        } else {
+            // Cursors follow id order, which a sorted filter result does not
+            if (limit != null || cursor != null) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("message", "limit and cursor cannot be combined with filters or sort"));
+            }
+            try {
+                products = productService.findProducts(query);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+            }
+            if (stream) {
+                return JsonStreams.array(objectMapper, products);
+            }
         }
         
         return ResponseEntity.ok(products);
@@ -40,6 +80,35 @@ public class ProductController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Resolves many products in one call: {@code GET /api/products/batch?ids=1,2,3}. Returns one
+     * result per requested id in request order, with status MISSING for ids that do not exist.
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<?> getProductsBatch(@RequestParam List<Long> ids) {
+        return batch(ids, null);
+    }
+
+    /**
+     * Same as the GET variant for id sets too large for a query string. The body may also carry
+     * {@code knownVersions} so products the caller already holds come back as NOT_MODIFIED.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> postProductsBatch(@RequestBody ProductBatchRequest request) {
+        return batch(request.getIds(), request.getKnownVersions());
+    }
+
+    private ResponseEntity<?> batch(List<Long> ids, Map<Long, Long> knownVersions) {
+        if (ids == null || ids.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("message", "ids is required"));
+        }
+        if (ids.size() > maxBatchIds) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", "At most " + maxBatchIds + " ids per batch", "maxIds", maxBatchIds));
+        }
+        return ResponseEntity.ok(Map.of("results", productService.getProductsBatch(ids, knownVersions)));
+    }
+
     @PostMapping
     public ResponseEntity<Product> createProduct(@RequestBody Product product) {
         Product created = productService.createProduct(product);
@@ -59,4 +128,17 @@ public class ProductController {
                 ? ResponseEntity.noContent().build()
                 : ResponseEntity.notFound().build();
     }
+
+    private ResponseEntity<?> page(String cursor, Integer limit) {
+        int size = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", "limit must be between 1 and " + MAX_PAGE_SIZE));
+        }
+        try {
+            return ResponseEntity.ok(productService.getProductsPage(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
 }
@@ -0,0 +1,18 @@
+package com.ecommerce.product.event;
+
+/**
+ * Published by ProductService after a product has been created, updated or deleted.
+ *
+ * An update carries the version it produced and by how much it changed the product's stock,
+ * which is zero unless the stock value itself was edited.
+ */
+public record ProductChangedEvent(Long productId, Type type, Long version, int stockDelta) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    public ProductChangedEvent(Long productId, Type type) {
+        this(productId, type, null, 0);
+    }
+}
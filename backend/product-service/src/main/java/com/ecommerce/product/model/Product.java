@@ -21,4 +21,7 @@ public class Product {
     private String brand;
     private Double rating;
     private List<String> images;
+    // Content version: incremented when the product is created or updated, but not when only its
+    // stock changes, so clients revalidating cached names and prices are not invalidated by sales
+    private Long version;
 }
@@ -0,0 +1,17 @@
+package com.ecommerce.product.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBatchRequest {
+    private List<Long> ids;
+    // Optional product id -> version the caller already holds
+    private Map<Long, Long> knownVersions;
+}
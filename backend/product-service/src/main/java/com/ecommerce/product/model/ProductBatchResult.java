@@ -0,0 +1,37 @@
+package com.ecommerce.product.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one id in a batch lookup: FOUND with the product, NOT_MODIFIED when the caller
+ * already holds the current version, or MISSING when no product has that id.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductBatchResult {
+    public static final String FOUND = "FOUND";
+    public static final String NOT_MODIFIED = "NOT_MODIFIED";
+    public static final String MISSING = "MISSING";
+
+    private Long id;
+    private String status;
+    private Long version;
+    private Product product;
+
+    public static ProductBatchResult found(Product product) {
+        return new ProductBatchResult(product.getId(), FOUND, product.getVersion(), product);
+    }
+
+    public static ProductBatchResult notModified(Long id, Long version) {
+        return new ProductBatchResult(id, NOT_MODIFIED, version, null);
+    }
+
+    public static ProductBatchResult missing(Long id) {
+        return new ProductBatchResult(id, MISSING, null, null);
+    }
+}
@@ -0,0 +1,30 @@
+package com.ecommerce.product.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductQuery {
+    private String search;
+    private String category;
+    private String brand;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Double minRating;
+    private String sort;
+
+    public boolean isEmpty() {
+        return (search == null || search.isEmpty())
+                && (category == null || category.isEmpty())
+                && (brand == null || brand.isEmpty())
+                && minPrice == null
+                && maxPrice == null
+                && minRating == null
+                && (sort == null || sort.isEmpty());
+    }
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.product.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Reservation {
+    private String id;
+    private List<ReservationItem> items;
+    private String state;
+    private Instant expiresAt;
+}
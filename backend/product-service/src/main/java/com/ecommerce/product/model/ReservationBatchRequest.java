@@ -0,0 +1,16 @@
+package com.ecommerce.product.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationBatchRequest {
+    private List<ReservationRequest> requests;
+    // Commit each reservation as soon as it is taken, saving the caller a second round-trip
+    private boolean commit;
+}
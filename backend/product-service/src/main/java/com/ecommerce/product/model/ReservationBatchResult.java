@@ -0,0 +1,20 @@
+package com.ecommerce.product.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one request in a reservation batch: the reservation, or the HTTP status and
+ * message the single-reservation endpoint would have answered with.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReservationBatchResult {
+    private Reservation reservation;
+    private Integer status;
+    private String message;
+}
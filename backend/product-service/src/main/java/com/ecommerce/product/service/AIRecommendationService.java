@@ -2,23 +2,64 @@ package com.ecommerce.product.service;
 
 import com.ecommerce.product.model.Product;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 @Service
 public class AIRecommendationService {
     
-    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final String apiKey;
+    private final String apiUrl;
+    private final Duration requestTimeout;
+    private final int maxInFlight;
+    private final Semaphore inFlightPermits;
+    private final Map<Long, CompletableFuture<Map<String, Object>>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder upstreamCalls = new LongAdder();
+    private final LongAdder coalescedRequests = new LongAdder();
+    private final LongAdder rejectedRequests = new LongAdder();
+    private final Timer upstreamSuccess;
+    private final Timer upstreamFailure;
+
+    @Autowired
+    private RecommendationCache recommendationCache;
     
-    public AIRecommendationService() {
+    public AIRecommendationService(@Value("${ai.recommendation.max-in-flight:32}") int maxInFlight,
+                                   @Value("${ai.recommendation.timeout:20s}") Duration requestTimeout,
+                                   @Value("${ai.recommendation.api-url:https://generativelanguage.googleapis.com/v1beta/models/gemini-2.5-flash:generateContent}") String apiUrl,
+                                   MeterRegistry meterRegistry) {
+        this.apiUrl = apiUrl;
+        this.maxInFlight = maxInFlight;
+        this.inFlightPermits = new Semaphore(maxInFlight);
+        this.requestTimeout = requestTimeout;
+        this.upstreamSuccess = upstreamTimer(meterRegistry, "success");
+        this.upstreamFailure = upstreamTimer(meterRegistry, "error");
+        Gauge.builder("products.ai.upstream.in.flight", inFlightPermits, permits -> maxInFlight - permits.availablePermits())
+                .description("Gemini requests currently running on the request path")
+                .register(meterRegistry);
+
         // Check for GOOGLE_API_KEY first (standard), then fall back to GEMINI_API_KEY
         String key = System.getenv("GOOGLE_API_KEY");
         if (key == null || key.isEmpty()) {
@@ -41,11 +82,115 @@ public class AIRecommendationService {
     }
 
     public Map<String, Object> analyzeProduct(Product product) throws Exception {
+        Optional<Map<String, Object>> cached = recommendationCache.get(product);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        checkConfigured();
+        upstreamCalls.increment();
+        HttpRequest request = buildRequest(product);
+        long start = System.nanoTime();
+        Map<String, Object> recommendation;
+        try {
+            recommendation = parseResponse(httpClient.send(request, HttpResponse.BodyHandlers.ofString()));
+        } catch (Exception e) {
+            upstreamFailure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        upstreamSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        recommendationCache.put(product, recommendation);
+        return recommendation;
+    }
+
+    /**
+     * Non-blocking variant of {@link #analyzeProduct} for the request path. Concurrent calls for the
+     * same product share a single upstream request, and at most {@code ai.recommendation.max-in-flight}
+     * upstream requests run at once; beyond that the returned future fails immediately with
+     * {@link RecommendationRejectedException} instead of queueing.
+     */
+    public CompletableFuture<Map<String, Object>> analyzeProductAsync(Product product) {
+        Optional<Map<String, Object>> cached = recommendationCache.get(product);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached.get());
+        }
+
+        CompletableFuture<Map<String, Object>> existing = inFlight.get(product.getId());
+        if (existing != null) {
+            coalescedRequests.increment();
+            return existing.copy();
+        }
+
+        HttpRequest request;
+        try {
+            checkConfigured();
+            request = buildRequest(product);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        if (!inFlightPermits.tryAcquire()) {
+            rejectedRequests.increment();
+            return CompletableFuture.failedFuture(new RecommendationRejectedException(
+                    "Too many AI recommendations in progress, please retry shortly"));
+        }
+
+        CompletableFuture<Map<String, Object>> promise = new CompletableFuture<>();
+        existing = inFlight.putIfAbsent(product.getId(), promise);
+        if (existing != null) {
+            inFlightPermits.release();
+            coalescedRequests.increment();
+            return existing.copy();
+        }
+
+        upstreamCalls.increment();
+        long start = System.nanoTime();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(this::parseResponse)
+                .whenComplete((recommendation, error) -> {
+                    (error != null ? upstreamFailure : upstreamSuccess)
+                            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    // Cache before leaving the in-flight map, so a request arriving in between finds one or the other
+                    if (error == null) {
+                        recommendationCache.put(product, recommendation);
+                    }
+                    inFlight.remove(product.getId(), promise);
+                    inFlightPermits.release();
+                    if (error != null) {
+                        promise.completeExceptionally(error);
+                    } else {
+                        promise.complete(recommendation);
+                    }
+                });
+        return promise.copy();
+    }
+
+    public Map<String, Object> getExecutionStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxInFlight", maxInFlight);
+        stats.put("inFlight", maxInFlight - inFlightPermits.availablePermits());
+        stats.put("timeoutSeconds", requestTimeout.toSeconds());
+        stats.put("upstreamCalls", upstreamCalls.sum());
+        stats.put("coalescedRequests", coalescedRequests.sum());
+        stats.put("rejectedRequests", rejectedRequests.sum());
+        return stats;
+    }
+
+    private static Timer upstreamTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("products.ai.upstream")
+                .description("Gemini generateContent calls, including response parsing")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private void checkConfigured() {
         if (apiKey == null || apiKey.isEmpty()) {
             System.err.println("ERROR: GOOGLE_API_KEY or GEMINI_API_KEY environment variable is not set");
             throw new IllegalStateException("AI recommendation service is not configured. Please set GOOGLE_API_KEY or GEMINI_API_KEY environment variable.");
         }
+    }
 
+    private HttpRequest buildRequest(Product product) throws Exception {
         String prompt = String.format(
             "Analyze the following product and provide a detailed recommendation with pros and cons.\n\n" +
             "Product Name: %s\n" +
@@ -53,8 +198,7 @@ public class AIRecommendationService {
             "Category: %s\n" +
             "Price: $%s\n" +
             "Description: %s\n" +
-            "Rating: %s/5\n" +
-            "Stock: %d\n\n" +
+            "Rating: %s/5\n\n" +
             "Please provide:\n" +
             "1. A brief summary (2-3 sentences)\n" +
             "2. Pros (3-5 positive points)\n" +
@@ -72,8 +216,7 @@ public class AIRecommendationService {
             product.getCategory(),
             product.getPrice(),
             product.getDescription(),
-            product.getRating() != null ? product.getRating() : "N/A",
-            product.getStock()
+            product.getRating() != null ? product.getRating() : "N/A"
         );
 
         String requestBody = objectMapper.writeValueAsString(Map.of(
@@ -101,23 +244,24 @@ public class AIRecommendationService {
             )
         ));
 
-        String url = "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.5-flash:generateContent?key=" + apiKey;
+        String url = apiUrl + "?key=" + apiKey;
 
-        HttpRequest request = HttpRequest.newBuilder()
+        return HttpRequest.newBuilder()
                 .uri(URI.create(url))
+                .timeout(requestTimeout)
                 .header("Content-Type", "application/json")
                 .POST(HttpRequest.BodyPublishers.ofString(requestBody))
                 .build();
+    }
 
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
+    private Map<String, Object> parseResponse(HttpResponse<String> response) {
         if (response.statusCode() != 200) {
             System.err.println("ERROR: Gemini API request failed with status: " + response.statusCode());
             System.err.println("Response body: " + response.body());
             throw new RuntimeException("AI recommendation service is temporarily unavailable");
         }
 
-        Map<String, Object> responseData = objectMapper.readValue(response.body(), Map.class);
+        Map<String, Object> responseData = readJson(response.body());
         
         List<Map<String, Object>> candidates = (List<Map<String, Object>>) responseData.get("candidates");
         if (candidates == null || candidates.isEmpty()) {
@@ -136,6 +280,14 @@ public class AIRecommendationService {
         }
 
         String jsonText = (String) parts.get(0).get("text");
-        return objectMapper.readValue(jsonText, Map.class);
+        return readJson(jsonText);
+    }
+
+    private Map<String, Object> readJson(String json) {
+        try {
+            return objectMapper.readValue(json, Map.class);
+        } catch (Exception e) {
+            throw new RuntimeException("AI recommendation service returned an invalid response", e);
+        }
     }
 }
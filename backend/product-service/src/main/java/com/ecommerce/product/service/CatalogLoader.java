@@ -0,0 +1,217 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.model.Product;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Loads the product catalog from the local on-disk snapshot and from the upstream catalog API.
+ *
+ * The snapshot is a JSON array of products written after every successful upstream load, so
+ * a restart can serve the catalog immediately without waiting on the network. Upstream pages
+ * are fetched in parallel and parsed token by token instead of building a tree of the body.
+ */
+@Component
+public class CatalogLoader {
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient;
+    private final Path snapshotPath;
+    private final String sourceUrl;
+    private final int pageSize;
+    private final int parallelism;
+    private final Duration timeout;
+
+    public CatalogLoader(@Value("${catalog.snapshot.path:data/catalog-snapshot.json}") String snapshotPath,
+                         @Value("${catalog.source.url:https://dummyjson.com}") String sourceUrl,
+                         @Value("${catalog.source.page-size:100}") int pageSize,
+                         @Value("${catalog.source.parallelism:4}") int parallelism,
+                         @Value("${catalog.source.timeout:10s}") Duration timeout) {
+        this.snapshotPath = Paths.get(snapshotPath);
+        this.sourceUrl = sourceUrl.endsWith("/") ? sourceUrl.substring(0, sourceUrl.length() - 1) : sourceUrl;
+        this.pageSize = pageSize;
+        this.parallelism = parallelism;
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    /**
+     * Reads the local snapshot, or returns an empty list if there is none or it is unreadable.
+     */
+    public List<Product> loadSnapshot() {
+        List<Product> loaded = new ArrayList<>();
+        if (!Files.isRegularFile(snapshotPath)) {
+            return loaded;
+        }
+        try (InputStream in = Files.newInputStream(snapshotPath);
+             MappingIterator<Product> iterator = objectMapper.readerFor(Product.class).readValues(in)) {
+            while (iterator.hasNext()) {
+                loaded.add(iterator.next());
+            }
+            return loaded;
+        } catch (Exception e) {
+            System.err.println("Failed to read catalog snapshot " + snapshotPath + ": " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Writes the snapshot to a temporary file and atomically moves it into place, so a crash
+     * mid-write never leaves a truncated snapshot behind.
+     */
+    public void writeSnapshot(Iterable<Product> products) throws IOException {
+        Path directory = snapshotPath.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, "catalog-", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp);
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                for (Product product : products) {
+                    generator.writeObject(product);
+                }
+                generator.writeEndArray();
+            }
+            Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Fetches the whole upstream catalog. The first page reports the total, the remaining
+     * pages are then requested concurrently on at most {@code catalog.source.parallelism} threads.
+     */
+    public List<Product> fetchUpstream() throws Exception {
+        Page first = fetchPage(0);
+        List<Product> all = new ArrayList<>(Math.max(first.total(), first.products().size()));
+        all.addAll(first.products());
+
+        int pageCount = (first.total() + pageSize - 1) / pageSize;
+        if (pageCount <= 1) {
+            return all;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, pageCount - 1), runnable -> {
+            Thread thread = new Thread(runnable, "catalog-fetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Page>> pages = new ArrayList<>(pageCount - 1);
+            for (int page = 1; page < pageCount; page++) {
+                int skip = page * pageSize;
+                pages.add(executor.submit(() -> fetchPage(skip)));
+            }
+            for (Future<Page> page : pages) {
+                all.addAll(page.get().products());
+            }
+            return all;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private record Page(int total, List<Product> products) {
+    }
+
+    private Page fetchPage(int skip) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(sourceUrl + "/products?limit=" + pageSize + "&skip=" + skip))
+                .timeout(timeout)
+                .GET()
+                .build();
+        HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            if (response.statusCode() != 200) {
+                throw new IOException("Catalog source returned status " + response.statusCode());
+            }
+            return parsePage(body);
+        }
+    }
+
+    private Page parsePage(InputStream body) throws IOException {
+        int total = 0;
+        List<Product> products = new ArrayList<>(pageSize);
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Unexpected catalog response");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("total".equals(field)) {
+                    total = parser.getIntValue();
+                } else if ("products".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        products.add(parseProduct(parser));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return new Page(total, products);
+    }
+
+    private Product parseProduct(JsonParser parser) throws IOException {
+        Product product = new Product();
+        List<String> images = new ArrayList<>();
+        product.setBrand("Generic");
+        product.setRating(0.0);
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            switch (field) {
+                case "id" -> product.setId(parser.getLongValue());
+                case "title" -> product.setName(parser.getText());
+                case "description" -> product.setDescription(parser.getText());
+                case "price" -> product.setPrice(parser.getDecimalValue());
+                case "category" -> product.setCategory(parser.getText());
+                case "stock" -> product.setStock(parser.getIntValue());
+                case "brand" -> product.setBrand(parser.getText());
+                case "rating" -> product.setRating(parser.getDoubleValue());
+                case "images" -> {
+                    if (value == JsonToken.START_ARRAY) {
+                        while (parser.nextToken() != JsonToken.END_ARRAY) {
+                            images.add(parser.getText());
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+
+        product.setImages(images);
+        product.setImageUrl(images.isEmpty() ? null : images.get(0));
+        return product;
+    }
+}
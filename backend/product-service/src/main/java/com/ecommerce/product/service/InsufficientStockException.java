@@ -0,0 +1,30 @@
+package com.ecommerce.product.service;
+
+/**
+ * Thrown when a reservation asks for more units of a product than are currently available.
+ */
+public class InsufficientStockException extends RuntimeException {
+
+    private final Long productId;
+    private final int requested;
+    private final int available;
+
+    public InsufficientStockException(Long productId, int requested, int available) {
+        super("Insufficient stock for product " + productId + ": requested " + requested + ", available " + available);
+        this.productId = productId;
+        this.requested = requested;
+        this.available = available;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public int getRequested() {
+        return requested;
+    }
+
+    public int getAvailable() {
+        return available;
+    }
+}
@@ -0,0 +1,431 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.event.ProductChangedEvent;
+import com.ecommerce.product.model.Product;
+import com.ecommerce.product.model.Reservation;
+import com.ecommerce.product.model.ReservationItem;
+import com.ecommerce.product.store.InventoryRecord;
+import com.ecommerce.product.store.InventoryStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stock reservation engine.
+ *
+ * Available units of each product live in an {@link AtomicInteger}, which is the only state a
+ * reservation touches per product. It takes units with a single fetch-and-add and gives them
+ * back if that drove the counter below zero, so a hot SKU never oversells and never serializes
+ * on a lock; under contention at the very last units a request may fail conservatively while
+ * another one is rolling back.
+ *
+ * Reservations move HELD -> COMMITTED -> RELEASED, or HELD -> RELEASED/EXPIRED. Each transition
+ * is checked and journaled under the reservation's own monitor, so commit, release and expiry can
+ * race without double-counting stock and the journal sees them in the order they happened.
+ *
+ * Durability comes from the {@link InventoryStore} journal, which records the units on hand per
+ * product and the state of every reservation; available units are derived from the two on
+ * recovery. Commit and release return once their record is synced, sharing the sync with
+ * whatever else is in flight; a reservation that is only held is not waited for, since losing
+ * one in a crash just returns its units. The catalog's {@link Product#getStock()} shows the
+ * available count and is brought up to date in batches every {@code inventory.stock.sync-interval}.
+ */
+@Service
+public class InventoryService {
+
+    public enum State {
+        HELD, COMMITTED, RELEASED, EXPIRED
+    }
+
+    private static final class Held {
+        final String id;
+        final List<ReservationItem> items;
+        final Instant expiresAt;
+        volatile State state;
+        volatile Instant closedAt;
+
+        Held(String id, List<ReservationItem> items, Instant expiresAt, State state, Instant closedAt) {
+            this.id = id;
+            this.items = items;
+            this.expiresAt = expiresAt;
+            this.state = state;
+            this.closedAt = closedAt;
+        }
+
+        Reservation toReservation() {
+            return new Reservation(id, items, state.name(), expiresAt);
+        }
+
+        synchronized InventoryRecord.Reservation toRecord() {
+            return new InventoryRecord.Reservation(id, state.name(), items, expiresAt, closedAt);
+        }
+    }
+
+    private final ProductService productService;
+    private final InventoryStore inventoryStore;
+    private final Duration defaultTtl;
+    private final Duration maxTtl;
+    private final Duration retention;
+    private final Map<Long, AtomicInteger> available = new ConcurrentHashMap<>();
+    private final Map<String, Held> reservations = new ConcurrentHashMap<>();
+    // Units that are available or held by a reservation on record; guards every change to them,
+    // so their journal records are queued in the order they were made
+    private final Map<Long, Integer> onHand = new HashMap<>();
+    // Version of the product each counter was seeded from, so an edit it already includes is not applied twice
+    private final Map<Long, Long> seededVersion = new HashMap<>();
+    // Products whose catalog stock is behind their counter
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    public InventoryService(ProductService productService,
+                            InventoryStore inventoryStore,
+                            @Value("${inventory.reservation.ttl:15m}") Duration defaultTtl,
+                            @Value("${inventory.reservation.max-ttl:2h}") Duration maxTtl,
+                            @Value("${inventory.reservation.retention:30d}") Duration retention) {
+        this.productService = productService;
+        this.inventoryStore = inventoryStore;
+        this.defaultTtl = defaultTtl;
+        this.maxTtl = maxTtl;
+        this.retention = retention;
+        recover();
+    }
+
+    /**
+     * Replays the journal and derives each available count as the units on hand minus those
+     * that held or committed reservations still account for.
+     */
+    private void recover() {
+        long replayed;
+        try {
+            replayed = inventoryStore.open(this::replay, this::snapshot);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to recover inventory store", e);
+        }
+        Map<Long, Integer> counts = new HashMap<>();
+        onHand.forEach((productId, units) -> {
+            if (productService.getProductById(productId).isPresent()) {
+                counts.put(productId, units);
+            }
+        });
+        for (Held held : reservations.values()) {
+            if (held.state == State.HELD || held.state == State.COMMITTED) {
+                for (ReservationItem item : held.items) {
+                    counts.computeIfPresent(item.getProductId(), (id, units) -> units - item.getQuantity());
+                }
+            }
+        }
+        // Deleted products are left out of the next compaction
+        onHand.keySet().retainAll(counts.keySet());
+        counts.forEach((productId, units) -> available.put(productId, new AtomicInteger(units)));
+        dirty.addAll(counts.keySet());
+        syncProductStock();
+        if (replayed > 0) {
+            System.out.println("Recovered inventory of " + counts.size() + " products and "
+                    + reservations.size() + " reservations from " + replayed + " journal records");
+        }
+    }
+
+    private void replay(InventoryRecord record) {
+        if (record instanceof InventoryRecord.OnHand units) {
+            onHand.put(units.productId(), units.units());
+        } else if (record instanceof InventoryRecord.Reservation reservation) {
+            reservations.put(reservation.id(), new Held(reservation.id(), List.copyOf(reservation.items()),
+                    reservation.expiresAt(), State.valueOf(reservation.state()), reservation.closedAt()));
+        } else if (record instanceof InventoryRecord.Forget forget) {
+            reservations.remove(forget.id());
+            forget.onHand().forEach(units -> onHand.put(units.productId(), units.units()));
+        } else if (record instanceof InventoryRecord.Drop drop) {
+            onHand.remove(drop.productId());
+        }
+    }
+
+    /**
+     * Current state for log compaction. Runs on the journal's writer thread.
+     */
+    private List<InventoryRecord> snapshot() {
+        synchronized (onHand) {
+            List<InventoryRecord> records = new ArrayList<>(onHand.size() + reservations.size());
+            onHand.forEach((productId, units) -> records.add(new InventoryRecord.OnHand(productId, units)));
+            for (Held held : reservations.values()) {
+                records.add(held.toRecord());
+            }
+            return records;
+        }
+    }
+
+    public Optional<Integer> getAvailable(Long productId) {
+        AtomicInteger counter = counterFor(productId);
+        return counter != null ? Optional.of(counter.get()) : Optional.empty();
+    }
+
+    /**
+     * Reserves every item or none of them. Items are taken in product id order and rolled back
+     * in reverse if any of them is short.
+     *
+     * @throws InsufficientStockException if a product does not have enough units available
+     * @throws IllegalArgumentException   for empty requests, unknown products or non-positive quantities
+     */
+    public Reservation reserve(List<ReservationItem> items, Long ttlSeconds) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("A reservation needs at least one item");
+        }
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (ReservationItem item : items) {
+            if (item.getProductId() == null || item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Each item needs a productId and a positive quantity");
+            }
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+
+        List<Map.Entry<Long, Integer>> taken = new ArrayList<>(quantities.size());
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            AtomicInteger counter = counterFor(entry.getKey());
+            if (counter == null) {
+                rollback(taken);
+                throw new IllegalArgumentException("Unknown product " + entry.getKey());
+            }
+            int before = counter.getAndAdd(-entry.getValue());
+            if (before < entry.getValue()) {
+                counter.addAndGet(entry.getValue());
+                rollback(taken);
+                throw new InsufficientStockException(entry.getKey(), entry.getValue(), Math.max(before, 0));
+            }
+            taken.add(entry);
+        }
+
+        Duration ttl = ttlSeconds != null && ttlSeconds > 0 ? Duration.ofSeconds(ttlSeconds) : defaultTtl;
+        if (ttl.compareTo(maxTtl) > 0) {
+            ttl = maxTtl;
+        }
+        List<ReservationItem> reserved = new ArrayList<>(quantities.size());
+        quantities.forEach((productId, quantity) -> reserved.add(new ReservationItem(productId, quantity)));
+        Held held = new Held(UUID.randomUUID().toString(), Collections.unmodifiableList(reserved),
+                Instant.now().plus(ttl), State.HELD, null);
+        reservations.put(held.id, held);
+        inventoryStore.append(held.toRecord());
+        dirty.addAll(quantities.keySet());
+        return held.toReservation();
+    }
+
+    public Optional<Reservation> getReservation(String reservationId) {
+        return Optional.ofNullable(reservations.get(reservationId)).map(Held::toReservation);
+    }
+
+    /**
+     * Makes a held reservation permanent: the units stay taken and can no longer expire.
+     * Returns once the commit is durable.
+     */
+    public Optional<Reservation> commit(String reservationId) {
+        Held held = reservations.get(reservationId);
+        if (held == null) {
+            return Optional.empty();
+        }
+        if (held.state == State.HELD && held.expiresAt.isBefore(Instant.now())) {
+            expire(held);
+        }
+        CompletableFuture<Void> write = transition(held, State.HELD, State.COMMITTED);
+        if (write == null) {
+            if (held.state == State.COMMITTED) {
+                return Optional.of(held.toReservation());
+            }
+            throw new ReservationStateException("Reservation " + reservationId + " is " + held.state);
+        }
+        awaitDurable(write);
+        return Optional.of(held.toReservation());
+    }
+
+    /**
+     * Returns the units of a held or committed reservation to stock (checkout abandoned or order
+     * cancelled). Returns once the release is durable.
+     */
+    public Optional<Reservation> release(String reservationId) {
+        Held held = reservations.get(reservationId);
+        if (held == null) {
+            return Optional.empty();
+        }
+        while (true) {
+            State current = held.state;
+            if (current == State.RELEASED || current == State.EXPIRED) {
+                return Optional.of(held.toReservation());
+            }
+            CompletableFuture<Void> write = transition(held, current, State.RELEASED);
+            if (write != null) {
+                restock(held);
+                awaitDurable(write);
+                return Optional.of(held.toReservation());
+            }
+        }
+    }
+
+    /**
+     * Returns the stock of abandoned reservations and forgets closed ones after the retention period.
+     */
+    @Scheduled(fixedDelayString = "${inventory.reservation.sweep-interval:PT5S}")
+    public void sweepReservations() {
+        Instant now = Instant.now();
+        Instant forgetBefore = now.minus(retention);
+        for (Held held : reservations.values()) {
+            State state = held.state;
+            if (state == State.HELD && held.expiresAt.isBefore(now)) {
+                expire(held);
+            } else if (state != State.HELD && held.closedAt != null && held.closedAt.isBefore(forgetBefore)) {
+                forget(held);
+            }
+        }
+    }
+
+    /**
+     * Brings the catalog's stock of every product whose counter moved up to date. Reservations
+     * only mark products here, so a hot SKU is written to the catalog once per interval at most.
+     */
+    @Scheduled(fixedDelayString = "${inventory.stock.sync-interval:PT1S}")
+    public void syncProductStock() {
+        for (Iterator<Long> ids = dirty.iterator(); ids.hasNext(); ) {
+            Long productId = ids.next();
+            ids.remove();
+            AtomicInteger counter = available.get(productId);
+            if (counter != null) {
+                productService.updateStock(productId, () -> Math.max(counter.get(), 0));
+            }
+        }
+    }
+
+    /**
+     * Moves the reservation from one state to another and queues the new state for the
+     * journal. Returns null if the reservation was not in {@code from}.
+     */
+    private CompletableFuture<Void> transition(Held held, State from, State to) {
+        synchronized (held) {
+            if (held.state != from) {
+                return null;
+            }
+            held.state = to;
+            held.closedAt = Instant.now();
+            return inventoryStore.append(held.toRecord());
+        }
+    }
+
+    private void expire(Held held) {
+        if (transition(held, State.HELD, State.EXPIRED) != null) {
+            restock(held);
+        }
+    }
+
+    private void restock(Held held) {
+        for (ReservationItem item : held.items) {
+            AtomicInteger counter = available.get(item.getProductId());
+            if (counter != null) {
+                counter.addAndGet(item.getQuantity());
+                dirty.add(item.getProductId());
+            }
+        }
+    }
+
+    /**
+     * Drops a closed reservation. The units of a committed one left for good, so they come out
+     * of the on-hand count in the same journal record.
+     */
+    private void forget(Held held) {
+        synchronized (onHand) {
+            synchronized (held) {
+                if (held.state == State.HELD || !reservations.remove(held.id, held)) {
+                    return;
+                }
+                List<InventoryRecord.OnHand> remaining = new ArrayList<>();
+                if (held.state == State.COMMITTED) {
+                    for (ReservationItem item : held.items) {
+                        Integer units = onHand.computeIfPresent(item.getProductId(), (id, u) -> u - item.getQuantity());
+                        if (units != null) {
+                            remaining.add(new InventoryRecord.OnHand(item.getProductId(), units));
+                        }
+                    }
+                }
+                inventoryStore.append(new InventoryRecord.Forget(held.id, remaining));
+            }
+        }
+    }
+
+    private void rollback(List<Map.Entry<Long, Integer>> taken) {
+        for (int i = taken.size() - 1; i >= 0; i--) {
+            AtomicInteger counter = available.get(taken.get(i).getKey());
+            if (counter != null) {
+                counter.addAndGet(taken.get(i).getValue());
+            }
+        }
+    }
+
+    /**
+     * Returns the product's counter, seeding it from the catalog stock the first time.
+     */
+    private AtomicInteger counterFor(Long productId) {
+        AtomicInteger counter = available.get(productId);
+        if (counter != null) {
+            return counter;
+        }
+        synchronized (onHand) {
+            counter = available.get(productId);
+            if (counter != null) {
+                return counter;
+            }
+            Optional<Product> product = productService.getProductById(productId);
+            if (product.isEmpty()) {
+                return null;
+            }
+            int stock = product.get().getStock() != null ? product.get().getStock() : 0;
+            onHand.put(productId, stock);
+            seededVersion.put(productId, product.get().getVersion());
+            inventoryStore.append(new InventoryRecord.OnHand(productId, stock));
+            counter = new AtomicInteger(stock);
+            available.put(productId, counter);
+            return counter;
+        }
+    }
+
+    private static void awaitDurable(CompletableFuture<Void> write) {
+        try {
+            write.join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Failed to persist reservation change", e.getCause());
+        }
+    }
+
+    /**
+     * An edit of a product's stock adds or removes that many units: it is applied to the
+     * available count as a delta, so concurrent reservations are neither lost nor counted twice.
+     * Updates that leave the stock alone do not touch the counter. Deleting a product drops it.
+     */
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ProductChangedEvent.Type.DELETED) {
+            synchronized (onHand) {
+                available.remove(event.productId());
+                seededVersion.remove(event.productId());
+                if (onHand.remove(event.productId()) != null) {
+                    inventoryStore.append(new InventoryRecord.Drop(event.productId()));
+                }
+            }
+        } else if (event.stockDelta() != 0) {
+            synchronized (onHand) {
+                AtomicInteger counter = available.get(event.productId());
+                Long seeded = seededVersion.get(event.productId());
+                if (counter == null || (seeded != null && event.version() != null && seeded >= event.version())) {
+                    // Not tracked yet, or seeded from a copy that already has this edit
+                    return;
+                }
+                counter.addAndGet(event.stockDelta());
+                int units = onHand.merge(event.productId(), event.stockDelta(), Integer::sum);
+                inventoryStore.append(new InventoryRecord.OnHand(event.productId(), units));
+            }
+            dirty.add(event.productId());
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.model.Product;
+import com.ecommerce.product.model.ProductQuery;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Secondary indexes for product filtering: hash indexes on normalized category and brand,
+ * and sorted indexes on price and rating.
+ *
+ * A query is driven from the most selective index available and the remaining predicates
+ * are checked against the indexed attributes of each candidate, so only matching entries
+ * (or the entries of the chosen range) are visited.
+ */
+class ProductFilterIndex {
+
+    private record Attributes(String category, String brand, BigDecimal price, Double rating) {
+    }
+
+    private final Map<String, Set<Long>> byCategory = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> byBrand = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<BigDecimal, Set<Long>> byPrice = new ConcurrentSkipListMap<>();
+    private final ConcurrentNavigableMap<Double, Set<Long>> byRating = new ConcurrentSkipListMap<>();
+    private final Map<Long, Attributes> attributes = new ConcurrentHashMap<>();
+
+    synchronized void index(Product product) {
+        remove(product.getId());
+
+        Long id = product.getId();
+        Attributes entry = new Attributes(normalize(product.getCategory()), normalize(product.getBrand()),
+                product.getPrice(), product.getRating());
+        if (entry.category() != null) {
+            add(byCategory, entry.category(), id);
+        }
+        if (entry.brand() != null) {
+            add(byBrand, entry.brand(), id);
+        }
+        if (entry.price() != null) {
+            add(byPrice, entry.price(), id);
+        }
+        if (entry.rating() != null) {
+            add(byRating, entry.rating(), id);
+        }
+        attributes.put(id, entry);
+    }
+
+    synchronized void remove(Long productId) {
+        Attributes entry = attributes.remove(productId);
+        if (entry == null) {
+            return;
+        }
+        if (entry.category() != null) {
+            discard(byCategory, entry.category(), productId);
+        }
+        if (entry.brand() != null) {
+            discard(byBrand, entry.brand(), productId);
+        }
+        if (entry.price() != null) {
+            discard(byPrice, entry.price(), productId);
+        }
+        if (entry.rating() != null) {
+            discard(byRating, entry.rating(), productId);
+        }
+    }
+
+    synchronized void clear() {
+        byCategory.clear();
+        byBrand.clear();
+        byPrice.clear();
+        byRating.clear();
+        attributes.clear();
+    }
+
+    List<Long> idsForCategory(String category) {
+        Set<Long> ids = byCategory.get(normalize(category));
+        return ids != null ? new ArrayList<>(ids) : Collections.emptyList();
+    }
+
+    /**
+     * Selects the ids matching the filters of the query, ordered by its sort key.
+     *
+     * @param candidates ids already narrowed down by another index (e.g. full-text hits, in
+     *                   relevance order), or {@code null} to pick a driving index here
+     */
+    List<Long> select(ProductQuery query, List<Long> candidates) {
+        String category = normalize(query.getCategory());
+        String brand = normalize(query.getBrand());
+        SortOrder sort = SortOrder.parse(query.getSort());
+
+        Collection<Long> driver = candidates;
+        boolean sortedByDriver = false;
+        if (driver == null) {
+            Set<Long> categoryIds = category != null ? byCategory.getOrDefault(category, Set.of()) : null;
+            Set<Long> brandIds = brand != null ? byBrand.getOrDefault(brand, Set.of()) : null;
+
+            if (categoryIds != null || brandIds != null) {
+                driver = categoryIds == null || (brandIds != null && brandIds.size() < categoryIds.size())
+                        ? brandIds : categoryIds;
+            } else if (query.getMinPrice() != null || query.getMaxPrice() != null || sort.isPrice()) {
+                driver = flatten(priceRange(query.getMinPrice(), query.getMaxPrice(), sort == SortOrder.PRICE_DESC));
+                sortedByDriver = sort.isPrice();
+            } else if (query.getMinRating() != null || sort.isRating()) {
+                ConcurrentNavigableMap<Double, Set<Long>> range = query.getMinRating() != null
+                        ? byRating.tailMap(query.getMinRating(), true) : byRating;
+                driver = flatten(sort == SortOrder.RATING_ASC ? range.values() : range.descendingMap().values());
+                sortedByDriver = sort.isRating();
+            } else {
+                driver = attributes.keySet();
+            }
+        }
+
+        Map<Long, Attributes> matched = new LinkedHashMap<>();
+        for (Long id : driver) {
+            Attributes entry = attributes.get(id);
+            if (entry != null && matches(entry, category, brand, query)) {
+                matched.put(id, entry);
+            }
+        }
+
+        List<Long> ids = new ArrayList<>(matched.keySet());
+        if (!sortedByDriver && sort != SortOrder.NONE) {
+            ids.sort(sort.comparator(matched));
+        }
+        return ids;
+    }
+
+    private Collection<Set<Long>> priceRange(BigDecimal min, BigDecimal max, boolean descending) {
+        ConcurrentNavigableMap<BigDecimal, Set<Long>> range = byPrice;
+        if (min != null && max != null) {
+            if (min.compareTo(max) > 0) {
+                return Collections.emptyList();
+            }
+            range = byPrice.subMap(min, true, max, true);
+        } else if (min != null) {
+            range = byPrice.tailMap(min, true);
+        } else if (max != null) {
+            range = byPrice.headMap(max, true);
+        }
+        return descending ? range.descendingMap().values() : range.values();
+    }
+
+    private static boolean matches(Attributes entry, String category, String brand, ProductQuery query) {
+        if (category != null && !category.equals(entry.category())) {
+            return false;
+        }
+        if (brand != null && !brand.equals(entry.brand())) {
+            return false;
+        }
+        if (query.getMinPrice() != null && (entry.price() == null || entry.price().compareTo(query.getMinPrice()) < 0)) {
+            return false;
+        }
+        if (query.getMaxPrice() != null && (entry.price() == null || entry.price().compareTo(query.getMaxPrice()) > 0)) {
+            return false;
+        }
+        return query.getMinRating() == null || (entry.rating() != null && entry.rating() >= query.getMinRating());
+    }
+
+    private static List<Long> flatten(Collection<Set<Long>> buckets) {
+        List<Long> ids = new ArrayList<>();
+        for (Set<Long> bucket : buckets) {
+            ids.addAll(bucket);
+        }
+        return ids;
+    }
+
+    private static <K> void add(Map<K, Set<Long>> index, K key, Long id) {
+        index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(id);
+    }
+
+    private static <K> void discard(Map<K, Set<Long>> index, K key, Long id) {
+        index.computeIfPresent(key, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    private enum SortOrder {
+        NONE, PRICE_ASC, PRICE_DESC, RATING_ASC, RATING_DESC;
+
+        static SortOrder parse(String sort) {
+            if (sort == null || sort.isBlank()) {
+                return NONE;
+            }
+            switch (sort.trim().toLowerCase(Locale.ROOT)) {
+                case "price":
+                case "price_asc":
+                    return PRICE_ASC;
+                case "-price":
+                case "price_desc":
+                    return PRICE_DESC;
+                case "rating":
+                case "rating_asc":
+                    return RATING_ASC;
+                case "-rating":
+                case "rating_desc":
+                    return RATING_DESC;
+                default:
+                    throw new IllegalArgumentException("Unsupported sort: " + sort);
+            }
+        }
+
+        boolean isPrice() {
+            return this == PRICE_ASC || this == PRICE_DESC;
+        }
+
+        boolean isRating() {
+            return this == RATING_ASC || this == RATING_DESC;
+        }
+
+        Comparator<Long> comparator(Map<Long, Attributes> attributes) {
+            boolean descending = this == PRICE_DESC || this == RATING_DESC;
+            if (isPrice()) {
+                Comparator<BigDecimal> order = descending ? Comparator.reverseOrder() : Comparator.naturalOrder();
+                return Comparator.comparing(id -> attributes.get(id).price(), Comparator.nullsLast(order));
+            }
+            Comparator<Double> order = descending ? Comparator.reverseOrder() : Comparator.naturalOrder();
+            return Comparator.comparing(id -> attributes.get(id).rating(), Comparator.nullsLast(order));
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.model.Product;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over product name, brand and description.
+ *
+ * Each normalized term maps to a posting list of product id -> weighted term frequency,
+ * so a query only touches the postings of its own terms instead of the whole catalog.
+ * Terms are kept in a sorted map, which lets the last query term match as a prefix
+ * ("lap" finds "laptop") the same way the old substring search did.
+ */
+class ProductSearchIndex {
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int BRAND_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private final ConcurrentNavigableMap<String, Map<Long, Integer>> postings = new ConcurrentSkipListMap<>();
+    private final Map<Long, Map<String, Integer>> documentTerms = new ConcurrentHashMap<>();
+
+    /**
+     * Adds the product to the index, replacing whatever was indexed for the same id before.
+     */
+    synchronized void index(Product product) {
+        remove(product.getId());
+
+        Map<String, Integer> terms = new HashMap<>();
+        addTerms(terms, product.getName(), NAME_WEIGHT);
+        addTerms(terms, product.getBrand(), BRAND_WEIGHT);
+        addTerms(terms, product.getDescription(), DESCRIPTION_WEIGHT);
+
+        for (Map.Entry<String, Integer> term : terms.entrySet()) {
+            postings.computeIfAbsent(term.getKey(), k -> new ConcurrentHashMap<>())
+                    .put(product.getId(), term.getValue());
+        }
+        documentTerms.put(product.getId(), terms);
+    }
+
+    synchronized void remove(Long productId) {
+        Map<String, Integer> terms = documentTerms.remove(productId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms.keySet()) {
+            postings.computeIfPresent(term, (k, posting) -> {
+                posting.remove(productId);
+                return posting.isEmpty() ? null : posting;
+            });
+        }
+    }
+
+    synchronized void clear() {
+        postings.clear();
+        documentTerms.clear();
+    }
+
+    /**
+     * Returns the ids of products containing every query term (AND semantics),
+     * ordered by descending relevance. The last term also matches as a prefix.
+     */
+    List<Long> search(String query) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Map<Long, Integer>> termPostings = new ArrayList<>(terms.size());
+        for (int i = 0; i < terms.size(); i++) {
+            boolean last = i == terms.size() - 1;
+            Map<Long, Integer> posting = last ? prefixPosting(terms.get(i)) : postings.get(terms.get(i));
+            if (posting == null || posting.isEmpty()) {
+                return Collections.emptyList();
+            }
+            termPostings.add(posting);
+        }
+
+        // Drive the intersection from the rarest term so the work is bounded by the smallest posting list
+        termPostings.sort(Comparator.comparingInt(Map::size));
+        int documentCount = Math.max(documentTerms.size(), 1);
+
+        Map<Long, Double> scores = new HashMap<>();
+        Map<Long, Integer> driver = termPostings.get(0);
+        for (Map.Entry<Long, Integer> entry : driver.entrySet()) {
+            Long id = entry.getKey();
+            double score = 0;
+            boolean matchesAll = true;
+            for (Map<Long, Integer> posting : termPostings) {
+                Integer frequency = posting.get(id);
+                if (frequency == null) {
+                    matchesAll = false;
+                    break;
+                }
+                score += frequency * Math.log(1.0 + (double) documentCount / posting.size());
+            }
+            if (matchesAll) {
+                scores.put(id, score);
+            }
+        }
+
+        List<Long> ids = new ArrayList<>(scores.keySet());
+        ids.sort((a, b) -> {
+            int byScore = Double.compare(scores.get(b), scores.get(a));
+            return byScore != 0 ? byScore : Long.compare(a, b);
+        });
+        return ids;
+    }
+
+    private Map<Long, Integer> prefixPosting(String prefix) {
+        Map<Long, Integer> exact = postings.get(prefix);
+        ConcurrentNavigableMap<String, Map<Long, Integer>> range =
+                postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        if (range.isEmpty()) {
+            return null;
+        }
+        if (exact == null && range.size() == 1) {
+            return range.firstEntry().getValue();
+        }
+
+        Map<Long, Integer> merged = new HashMap<>();
+        for (Map<Long, Integer> posting : range.values()) {
+            posting.forEach((id, frequency) -> merged.merge(id, frequency, Math::max));
+        }
+        // Exact matches outrank prefix-only matches of the same field
+        if (exact != null) {
+            exact.forEach((id, frequency) -> merged.merge(id, frequency, Integer::sum));
+        }
+        return merged;
+    }
+
+    private static void addTerms(Map<String, Integer> terms, String text, int weight) {
+        for (String term : tokenize(text)) {
+            terms.merge(term, weight, Integer::sum);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean letterOrDigit = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (letterOrDigit && start < 0) {
+                start = i;
+            } else if (!letterOrDigit && start >= 0) {
+                tokens.add(normalized.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
@@ -1,112 +1,344 @@
 package com.ecommerce.product.service;
 
+import com.ecommerce.product.event.ProductChangedEvent;
+import com.ecommerce.product.model.PageResponse;
 import com.ecommerce.product.model.Product;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ecommerce.product.model.ProductBatchResult;
+import com.ecommerce.product.model.ProductQuery;
+import com.ecommerce.product.store.ProductStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
+import java.util.function.IntSupplier;
 
 @Service
 public class ProductService {
-    private final Map<Long, Product> products = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<Long, Product> products = new ConcurrentSkipListMap<>();
     private final AtomicLong idCounter = new AtomicLong(1);
-    private final RestTemplate restTemplate = new RestTemplate();
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ProductSearchIndex searchIndex = new ProductSearchIndex();
+    private final ProductFilterIndex filterIndex = new ProductFilterIndex();
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogLoader catalogLoader;
+    private final ProductStore productStore;
+    private final Timer searchTimer;
+    private final boolean upstreamWins;
+    // Serializes the map update and the log append of writes to the same product, so the log
+    // order per product always matches the order the changes were applied in memory
+    private final Object[] writeLocks = new Object[64];
 
-    public ProductService() {
-        initializeProductsFromAPI();
+    public ProductService(ApplicationEventPublisher eventPublisher, CatalogLoader catalogLoader,
+                          ProductStore productStore, MeterRegistry meterRegistry,
+                          @Value("${catalog.source.overwrite-local:false}") boolean upstreamWins) {
+        this.eventPublisher = eventPublisher;
+        this.catalogLoader = catalogLoader;
+        this.productStore = productStore;
+        this.upstreamWins = upstreamWins;
+        this.searchTimer = Timer.builder("products.search")
+                .description("Filtered and full-text product queries, excluding serialization")
+                .register(meterRegistry);
+        // Counting the skip list walks it, which is fine once per scrape but not per request
+        Gauge.builder("products.store.size", products, Map::size)
+                .description("Products held in memory")
+                .register(meterRegistry);
+        for (int i = 0; i < writeLocks.length; i++) {
+            writeLocks[i] = new Object();
+        }
+        initializeFromStore();
     }
 
-    private void initializeProductsFromAPI() {
+    /**
+     * Recovers the catalog from the durable store, or from the last catalog snapshot written to
+     * disk when the store is empty, so startup never waits on the upstream API.
+     */
+    private void initializeFromStore() {
+        Collection<Product> recovered;
         try {
-            String apiUrl = "https://dummyjson.com/products?limit=30";
-            String response = restTemplate.getForObject(apiUrl, String.class);
-            JsonNode root = objectMapper.readTree(response);
-            JsonNode productsNode = root.get("products");
-
-            if (productsNode != null && productsNode.isArray()) {
-                for (JsonNode productNode : productsNode) {
-                    Product product = new Product();
-                    product.setId(productNode.get("id").asLong());
-                    product.setName(productNode.get("title").asText());
-                    product.setDescription(productNode.get("description").asText());
-                    product.setPrice(new BigDecimal(productNode.get("price").asText()));
-                    product.setCategory(productNode.get("category").asText());
-                    product.setStock(productNode.get("stock").asInt());
-                    product.setBrand(productNode.get("brand") != null ? productNode.get("brand").asText() : "Generic");
-                    product.setRating(productNode.get("rating") != null ? productNode.get("rating").asDouble() : 0.0);
-                    
-                    List<String> images = new ArrayList<>();
-                    JsonNode imagesNode = productNode.get("images");
-                    if (imagesNode != null && imagesNode.isArray()) {
-                        imagesNode.forEach(img -> images.add(img.asText()));
-                    }
-                    product.setImages(images);
-                    product.setImageUrl(images.isEmpty() ? null : images.get(0));
+            recovered = productStore.open(this::iterateProducts);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to recover product store", e);
+        }
+        if (!recovered.isEmpty()) {
+            recovered.forEach(this::apply);
+            return;
+        }
+
+        List<Product> snapshot = catalogLoader.loadSnapshot();
+        snapshot.removeIf(product -> product.getId() == null);
+        snapshot.forEach(this::apply);
+        awaitDurable(productStore.putAll(snapshot));
+        if (!snapshot.isEmpty()) {
+            System.out.println("Loaded " + snapshot.size() + " products from catalog snapshot");
+        }
+    }
 
-                    products.put(product.getId(), product);
-                    if (product.getId() >= idCounter.get()) {
-                        idCounter.set(product.getId() + 1);
+    /**
+     * Refreshes the catalog from the upstream API once the application is up, off the startup path.
+     * With the store enabled, only products it has never seen are added: local edits and deletes
+     * win over upstream unless {@code catalog.source.overwrite-local} is set.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshCatalogInBackground() {
+        Thread refresher = new Thread(this::refreshCatalog, "catalog-refresh");
+        refresher.setDaemon(true);
+        refresher.start();
+    }
+
+    public void refreshCatalog() {
+        try {
+            long start = System.nanoTime();
+            List<Product> fetched = catalogLoader.fetchUpstream();
+            List<CompletableFuture<Void>> writes = new ArrayList<>();
+            List<ProductChangedEvent> changed = new ArrayList<>();
+            for (Product product : fetched) {
+                if (product.getId() == null) {
+                    continue;
+                }
+                synchronized (lockFor(product.getId())) {
+                    Product previous = products.get(product.getId());
+                    // Without a store the local copy is only a cache of upstream, so upstream always wins
+                    if (productStore.isEnabled() && !upstreamWins
+                            && (previous != null || productStore.isDeleted(product.getId()))) {
+                        continue;
+                    }
+                    product.setVersion(previous != null ? previous.getVersion() : null);
+                    if (product.equals(previous)) {
+                        continue;
+                    }
+                    product.setVersion(nextVersion(previous));
+                    apply(product);
+                    writes.add(productStore.put(product));
+                    if (previous != null) {
+                        changed.add(updatedEvent(previous, product));
                     }
                 }
             }
+            awaitDurable(CompletableFuture.allOf(writes.toArray(new CompletableFuture[0])));
+            changed.forEach(eventPublisher::publishEvent);
+            catalogLoader.writeSnapshot(products.values());
+            System.out.println("Refreshed " + fetched.size() + " products from catalog source in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
         } catch (Exception e) {
             System.err.println("Failed to load products from API: " + e.getMessage());
-            initializeFallbackProducts();
+            if (products.isEmpty()) {
+                initializeFallbackProducts();
+            }
+        }
+    }
+
+    private void apply(Product product) {
+        products.put(product.getId(), product);
+        searchIndex.index(product);
+        filterIndex.index(product);
+        idCounter.accumulateAndGet(product.getId() + 1, Math::max);
+    }
+
+    private static ProductChangedEvent updatedEvent(Product previous, Product updated) {
+        int stockDelta = stockOf(updated) - stockOf(previous);
+        return new ProductChangedEvent(updated.getId(), ProductChangedEvent.Type.UPDATED, updated.getVersion(), stockDelta);
+    }
+
+    private static int stockOf(Product product) {
+        return product.getStock() != null ? product.getStock() : 0;
+    }
+
+    private static long nextVersion(Product previous) {
+        return previous != null && previous.getVersion() != null ? previous.getVersion() + 1 : 1;
+    }
+
+    private Object lockFor(Long id) {
+        return writeLocks[(int) (id & (writeLocks.length - 1))];
+    }
+
+    private static void awaitDurable(CompletableFuture<Void> write) {
+        try {
+            write.join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Failed to persist product change", e.getCause());
         }
     }
 
     private void initializeFallbackProducts() {
-        createProduct(new Product(null, "Laptop", "High-performance laptop", new BigDecimal("999.99"), "Electronics", 10, "https://images.unsplash.com/photo-1496181133206-80ce9b88a853?w=400", "Generic", 4.5, Arrays.asList("https://images.unsplash.com/photo-1496181133206-80ce9b88a853?w=400")));
-        createProduct(new Product(null, "Smartphone", "Latest smartphone model", new BigDecimal("699.99"), "Electronics", 25, "https://images.unsplash.com/photo-1511707171634-5f897ff02aa9?w=400", "Generic", 4.7, Arrays.asList("https://images.unsplash.com/photo-1511707171634-5f897ff02aa9?w=400")));
-        createProduct(new Product(null, "Headphones", "Wireless noise-canceling headphones", new BigDecimal("199.99"), "Electronics", 50, "https://images.unsplash.com/photo-1505740420928-5e560c06d30e?w=400", "Generic", 4.3, Arrays.asList("https://images.unsplash.com/photo-1505740420928-5e560c06d30e?w=400")));
+        createProduct(new Product(null, "Laptop", "High-performance laptop", new BigDecimal("999.99"), "Electronics", 10, "https://images.unsplash.com/photo-1496181133206-80ce9b88a853?w=400", "Generic", 4.5, Arrays.asList("https://images.unsplash.com/photo-1496181133206-80ce9b88a853?w=400"), null));
+        createProduct(new Product(null, "Smartphone", "Latest smartphone model", new BigDecimal("699.99"), "Electronics", 25, "https://images.unsplash.com/photo-1511707171634-5f897ff02aa9?w=400", "Generic", 4.7, Arrays.asList("https://images.unsplash.com/photo-1511707171634-5f897ff02aa9?w=400"), null));
+        createProduct(new Product(null, "Headphones", "Wireless noise-canceling headphones", new BigDecimal("199.99"), "Electronics", 50, "https://images.unsplash.com/photo-1505740420928-5e560c06d30e?w=400", "Generic", 4.3, Arrays.asList("https://images.unsplash.com/photo-1505740420928-5e560c06d30e?w=400"), null));
     }
 
     public List<Product> getAllProducts() {
         return new ArrayList<>(products.values());
     }
 
+    /**
+     * Returns up to {@code limit} products in id order, starting after the position encoded in {@code cursor}.
+     */
+    public PageResponse<Product> getProductsPage(String cursor, int limit) {
+        Map<Long, Product> tail = cursor != null && !cursor.isEmpty()
+                ? products.tailMap(PageResponse.decodeCursor(cursor), false)
+                : products;
+        List<Product> items = new ArrayList<>(limit);
+        Long lastId = null;
+        boolean hasMore = false;
+        for (Map.Entry<Long, Product> entry : tail.entrySet()) {
+            if (items.size() == limit) {
+                hasMore = true;
+                break;
+            }
+            items.add(entry.getValue());
+            lastId = entry.getKey();
+        }
+        return new PageResponse<>(items, hasMore ? PageResponse.encodeCursor(lastId) : null);
+    }
+
+    /**
+     * Live, weakly consistent view of all products in id order, for streaming without copying.
+     */
+    public Iterable<Product> iterateProducts() {
+        return Collections.unmodifiableCollection(products.values());
+    }
+
+    public int getProductCount() {
+        return products.size();
+    }
+
     public Optional<Product> getProductById(Long id) {
         return Optional.ofNullable(products.get(id));
     }
 
     public List<Product> getProductsByCategory(String category) {
-        return products.values().stream()
-                .filter(p -> p.getCategory().equalsIgnoreCase(category))
-                .collect(Collectors.toList());
+        return resolve(filterIndex.idsForCategory(category));
     }
 
-    public List<Product> searchProducts(String query) {
-        String lowerQuery = query.toLowerCase();
-        return products.values().stream()
-                .filter(p -> p.getName().toLowerCase().contains(lowerQuery) || 
-                            p.getDescription().toLowerCase().contains(lowerQuery))
-                .collect(Collectors.toList());
+    /**
+     * Combines full-text search with category/brand/price/rating filters and sorting.
+     * Without a search term the most selective secondary index drives the query.
+     */
+    public List<Product> findProducts(ProductQuery query) {
+        long start = System.nanoTime();
+        try {
+            List<Long> candidates = query.getSearch() != null && !query.getSearch().isEmpty()
+                    ? searchIndex.search(query.getSearch())
+                    : null;
+            return resolve(filterIndex.select(query, candidates));
+        } finally {
+            searchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Looks up many products at once, returning one result per requested id in request order.
+     * A product whose current content version equals the one in {@code knownVersions} is reported as
+     * not modified without its body, so callers holding a cached copy can revalidate cheaply.
+     */
+    public List<ProductBatchResult> getProductsBatch(List<Long> ids, Map<Long, Long> knownVersions) {
+        List<ProductBatchResult> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Product product = id != null ? products.get(id) : null;
+            if (product == null) {
+                results.add(ProductBatchResult.missing(id));
+            } else if (knownVersions != null && product.getVersion() != null
+                    && product.getVersion().equals(knownVersions.get(id))) {
+                results.add(ProductBatchResult.notModified(id, product.getVersion()));
+            } else {
+                results.add(ProductBatchResult.found(product));
+            }
+        }
+        return results;
+    }
+
+    private List<Product> resolve(List<Long> ids) {
+        List<Product> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Product product = products.get(id);
+            if (product != null) {
+                results.add(product);
+            }
+        }
+        return results;
     }
 
     public Product createProduct(Product product) {
         Long id = idCounter.getAndIncrement();
         product.setId(id);
-        products.put(id, product);
+        product.setVersion(1L);
+        CompletableFuture<Void> write;
+        synchronized (lockFor(id)) {
+            apply(product);
+            write = productStore.put(product);
+        }
+        awaitDurable(write);
+        eventPublisher.publishEvent(new ProductChangedEvent(id, ProductChangedEvent.Type.CREATED));
         return product;
     }
 
     public Optional<Product> updateProduct(Long id, Product product) {
-        if (products.containsKey(id)) {
+        CompletableFuture<Void> write;
+        ProductChangedEvent event;
+        synchronized (lockFor(id)) {
+            Product previous = products.get(id);
+            if (previous == null) {
+                return Optional.empty();
+            }
             product.setId(id);
-            products.put(id, product);
-            return Optional.of(product);
+            product.setVersion(nextVersion(previous));
+            apply(product);
+            write = productStore.put(product);
+            event = updatedEvent(previous, product);
+        }
+        awaitDurable(write);
+        eventPublisher.publishEvent(event);
+        return Optional.of(product);
+    }
+
+    /**
+     * Shows a new stock level for a product. This only replaces the in-memory copy: it neither
+     * re-indexes nor writes the product store, and it keeps the version, which tracks content.
+     * The inventory journal is the durable record of stock and calls this in batches. The stock
+     * is read under the product's write lock, so a slower caller cannot overwrite a newer value.
+     */
+    public Optional<Product> updateStock(Long id, IntSupplier stock) {
+        synchronized (lockFor(id)) {
+            Product previous = products.get(id);
+            if (previous == null) {
+                return Optional.empty();
+            }
+            int value = stock.getAsInt();
+            if (previous.getStock() != null && previous.getStock() == value) {
+                return Optional.of(previous);
+            }
+            Product updated = new Product(id, previous.getName(), previous.getDescription(), previous.getPrice(),
+                    previous.getCategory(), value, previous.getImageUrl(), previous.getBrand(),
+                    previous.getRating(), previous.getImages(), previous.getVersion());
+            products.put(id, updated);
+            return Optional.of(updated);
         }
-        return Optional.empty();
     }
 
     public boolean deleteProduct(Long id) {
-        return products.remove(id) != null;
+        CompletableFuture<Void> write;
+        synchronized (lockFor(id)) {
+            if (products.remove(id) == null) {
+                return false;
+            }
+            searchIndex.remove(id);
+            filterIndex.remove(id);
+            write = productStore.delete(id);
+        }
+        awaitDurable(write);
+        eventPublisher.publishEvent(new ProductChangedEvent(id, ProductChangedEvent.Type.DELETED));
+        return true;
     }
 }
@@ -0,0 +1,283 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.model.Product;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pre-computes AI recommendations for the whole catalog so product pages are served from
+ * the recommendation cache instead of calling Gemini on the request path.
+ *
+ * A run walks the catalog in id order, skips products whose cached recommendation is still
+ * valid, and analyzes the rest on a bounded worker pool paced by a rate limit. Every
+ * {@value #CHECKPOINT_EVERY} products the highest id below which every product has been handled
+ * successfully is checkpointed to disk, so an interrupted run can resume where it stopped and a
+ * failed product is retried by the next resumed run.
+ *
+ * Results go into the cache's precomputed tier rather than only its LRU, which is smaller than
+ * a large catalog. The results added since the last checkpoint are appended to
+ * {@code store-path} before the checkpoint is written, the file is compacted at the end of a
+ * run, and it is loaded on startup, so a run after a restart skips what was already analyzed.
+ */
+@Service
+public class RecommendationBatchService {
+
+    private static final int CHECKPOINT_EVERY = 50;
+
+    private final ProductService productService;
+    private final AIRecommendationService aiRecommendationService;
+    private final RecommendationCache recommendationCache;
+    private final int concurrency;
+    private final long nanosPerPermit;
+    private final Path checkpointPath;
+    private final Path storePath;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean stopRequested = new AtomicBoolean();
+    private final AtomicLong nextPermitNanos = new AtomicLong();
+    private final ConcurrentSkipListSet<Long> inProgress = new ConcurrentSkipListSet<>();
+    private final ConcurrentSkipListSet<Long> failedIds = new ConcurrentSkipListSet<>();
+
+    private final AtomicLong processed = new AtomicLong();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile long lastDispatchedId;
+    private volatile long checkpointId;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String lastError;
+
+    public RecommendationBatchService(ProductService productService,
+                                      AIRecommendationService aiRecommendationService,
+                                      RecommendationCache recommendationCache,
+                                      @Value("${ai.recommendation.batch.concurrency:4}") int concurrency,
+                                      @Value("${ai.recommendation.batch.rate-per-second:2}") double ratePerSecond,
+                                      @Value("${ai.recommendation.batch.checkpoint-path:data/recommendation-batch.checkpoint}") String checkpointPath,
+                                      @Value("${ai.recommendation.batch.store-path:data/recommendations.jsonl}") String storePath) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("ai.recommendation.batch.concurrency must be at least 1, got " + concurrency);
+        }
+        if (!(ratePerSecond > 0)) {
+            throw new IllegalArgumentException("ai.recommendation.batch.rate-per-second must be greater than 0, got " + ratePerSecond);
+        }
+        this.productService = productService;
+        this.aiRecommendationService = aiRecommendationService;
+        this.recommendationCache = recommendationCache;
+        this.concurrency = concurrency;
+        this.nanosPerPermit = (long) (1_000_000_000L / ratePerSecond);
+        this.checkpointPath = Paths.get(checkpointPath);
+        this.storePath = Paths.get(storePath);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadPrecomputed() {
+        try {
+            int loaded = recommendationCache.loadPrecomputed(storePath);
+            if (loaded > 0) {
+                System.out.println("Loaded " + loaded + " precomputed AI recommendations from " + storePath);
+            }
+        } catch (IOException e) {
+            System.err.println("Ignoring unreadable AI recommendation store " + storePath + ": " + e.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${ai.recommendation.batch.initial-delay:PT5M}",
+               fixedDelayString = "${ai.recommendation.batch.interval:PT6H}")
+    public void runScheduled() {
+        if (aiRecommendationService.isConfigured()) {
+            start(true);
+        }
+    }
+
+    /**
+     * Starts a run in the background. Returns false if a run is already in progress.
+     *
+     * @param resume continue after the last checkpoint instead of starting from the first product
+     */
+    public boolean start(boolean resume) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        stopRequested.set(false);
+        processed.set(0);
+        skipped.reset();
+        succeeded.reset();
+        failed.reset();
+        failedIds.clear();
+        lastError = null;
+        finishedAt = null;
+        startedAt = Instant.now();
+        checkpointId = resume ? readCheckpoint() : 0;
+        lastDispatchedId = checkpointId;
+
+        Thread coordinator = new Thread(this::run, "recommendation-batch");
+        coordinator.setDaemon(true);
+        coordinator.start();
+        return true;
+    }
+
+    public void stop() {
+        stopRequested.set(true);
+    }
+
+    private void run() {
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "recommendation-batch-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Semaphore slots = new Semaphore(concurrency);
+        long startId = checkpointId;
+        try {
+            for (Product product : productService.iterateProducts()) {
+                if (stopRequested.get()) {
+                    break;
+                }
+                if (product.getId() <= startId) {
+                    continue;
+                }
+                if (recommendationCache.pin(product)) {
+                    skipped.increment();
+                    complete(product.getId(), false);
+                    continue;
+                }
+
+                slots.acquire();
+                awaitRatePermit();
+                inProgress.add(product.getId());
+                lastDispatchedId = product.getId();
+                workers.execute(() -> {
+                    try {
+                        recommendationCache.putPrecomputed(product, aiRecommendationService.analyzeProduct(product));
+                        succeeded.increment();
+                    } catch (Exception e) {
+                        failedIds.add(product.getId());
+                        failed.increment();
+                        lastError = "Product " + product.getId() + ": " + e.getMessage();
+                    } finally {
+                        inProgress.remove(product.getId());
+                        slots.release();
+                        complete(product.getId(), true);
+                    }
+                });
+            }
+            slots.acquire(concurrency);
+            boolean finished = !stopRequested.get();
+            if (finished) {
+                recommendationCache.savePrecomputed(storePath);
+            }
+            if (finished && failedIds.isEmpty()) {
+                Files.deleteIfExists(checkpointPath);
+            } else {
+                writeCheckpoint();
+            }
+            System.out.println("AI recommendation batch " + (finished ? "finished" : "stopped") + ": " + getStatus());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            lastError = e.getMessage();
+            System.err.println("AI recommendation batch failed: " + e.getMessage());
+        } finally {
+            workers.shutdownNow();
+            finishedAt = Instant.now();
+            running.set(false);
+        }
+    }
+
+    private void complete(Long productId, boolean dispatched) {
+        if (!dispatched) {
+            lastDispatchedId = Math.max(lastDispatchedId, productId);
+        }
+        // Exactly one caller sees each multiple
+        if (processed.incrementAndGet() % CHECKPOINT_EVERY == 0) {
+            writeCheckpoint();
+        }
+    }
+
+    /**
+     * Blocks until the next rate-limit slot. Slots are handed out at a fixed spacing, so bursts
+     * after an idle period are not allowed.
+     */
+    private void awaitRatePermit() throws InterruptedException {
+        long now = System.nanoTime();
+        long slot = nextPermitNanos.getAndAccumulate(now, (next, current) -> Math.max(next, current) + nanosPerPermit);
+        long waitNanos = Math.max(slot, now) - now;
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private synchronized void writeCheckpoint() {
+        // Read before the in-flight set: an id is added there before it is published here, so
+        // any product up to it that is still being analyzed shows up below
+        long safeId = lastDispatchedId;
+        Long lowestInFlight = inProgress.isEmpty() ? null : inProgress.first();
+        if (lowestInFlight != null) {
+            safeId = Math.min(safeId, lowestInFlight - 1);
+        }
+        // Held below the first failure, so resuming retries it
+        Long lowestFailed = failedIds.isEmpty() ? null : failedIds.first();
+        if (lowestFailed != null) {
+            safeId = Math.min(safeId, lowestFailed - 1);
+        }
+        checkpointId = Math.max(checkpointId, safeId);
+        try {
+            // Results first, so the checkpoint never points past what a restart can reload
+            recommendationCache.appendPrecomputed(storePath);
+            Files.createDirectories(checkpointPath.toAbsolutePath().getParent());
+            Files.writeString(checkpointPath, Long.toString(checkpointId), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            System.err.println("Failed to write AI batch checkpoint: " + e.getMessage());
+        }
+    }
+
+    private long readCheckpoint() {
+        try {
+            return Files.isRegularFile(checkpointPath)
+                    ? Long.parseLong(Files.readString(checkpointPath, StandardCharsets.UTF_8).trim())
+                    : 0;
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Ignoring unreadable AI batch checkpoint: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        Instant start = startedAt;
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        double elapsedSeconds = start != null ? Math.max((end.toEpochMilli() - start.toEpochMilli()) / 1000.0, 0.001) : 0;
+        long analyzed = succeeded.sum() + failed.sum();
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", running.get());
+        status.put("startedAt", start != null ? start.toString() : null);
+        status.put("finishedAt", finishedAt != null ? finishedAt.toString() : null);
+        status.put("catalogSize", productService.getProductCount());
+        status.put("processed", processed.get());
+        status.put("skipped", skipped.sum());
+        status.put("succeeded", succeeded.sum());
+        status.put("failed", failed.sum());
+        status.put("inFlight", inProgress.size());
+        status.put("checkpointId", checkpointId);
+        status.put("analyzedPerSecond", elapsedSeconds > 0 ? analyzed / elapsedSeconds : 0.0);
+        status.put("processedPerSecond", elapsedSeconds > 0 ? processed.get() / elapsedSeconds : 0.0);
+        status.put("concurrency", concurrency);
+        status.put("lastError", lastError);
+        return status;
+    }
+}
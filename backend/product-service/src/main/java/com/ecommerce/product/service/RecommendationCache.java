@@ -0,0 +1,322 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.event.ProductChangedEvent;
+import com.ecommerce.product.model.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache of AI recommendations, keyed by a SHA-256 hash of the product fields
+ * that go into the prompt. Stock is left out of the prompt, since it moves with every sale, so
+ * a product whose content has not changed always maps to the same entry, while any edit
+ * produces a new key. Entries also expire after a TTL and are dropped eagerly when
+ * ProductService reports an update or delete.
+ *
+ * Results of the catalog batch are also kept in a separate precomputed tier holding one entry
+ * per product, outside the LRU, so a catalog larger than {@code max-entries} does not evict
+ * them. That tier can be saved to and loaded from a file so it survives a restart.
+ */
+@Component
+public class RecommendationCache {
+
+    private record Entry(Long productId, String key, Map<String, Object> recommendation, long expiresAtMillis) {
+    }
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LinkedHashMap<String, Entry> entries;
+    private final Map<Long, Entry> entryByProductId = new ConcurrentHashMap<>();
+    private final Map<Long, Entry> precomputed = new ConcurrentHashMap<>();
+    // Products whose precomputed entry has not been written to the store file yet
+    private final Set<Long> unsaved = ConcurrentHashMap.newKeySet();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public RecommendationCache(@Value("${ai.recommendation.cache.max-entries:10000}") int maxEntries,
+                               @Value("${ai.recommendation.cache.ttl:24h}") Duration ttl) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > RecommendationCache.this.maxEntries) {
+                    entryByProductId.remove(eldest.getValue().productId(), eldest.getValue());
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public Optional<Map<String, Object>> get(Product product) {
+        String key = keyFor(product);
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAtMillis() <= System.currentTimeMillis()) {
+                entries.remove(key);
+                entryByProductId.remove(entry.productId(), entry);
+                expirations.increment();
+                entry = null;
+            }
+            if (entry == null) {
+                entry = precomputedEntry(product, key);
+            }
+            if (entry == null) {
+                misses.increment();
+                return Optional.empty();
+            }
+            hits.increment();
+            return Optional.of(entry.recommendation());
+        }
+    }
+
+    /**
+     * Makes sure the precomputed tier holds a live recommendation for the product's current
+     * content, copying it out of the LRU if it is only there. Returns false if neither has one.
+     */
+    public boolean pin(Product product) {
+        if (product.getId() == null) {
+            return false;
+        }
+        String key = keyFor(product);
+        if (isLive(precomputed.get(product.getId()), key)) {
+            return true;
+        }
+        Entry entry = entryByProductId.get(product.getId());
+        if (!isLive(entry, key)) {
+            return false;
+        }
+        synchronized (entries) {
+            if (!entries.containsKey(entry.key())) {
+                return false;
+            }
+        }
+        precomputed.put(product.getId(), entry);
+        unsaved.add(product.getId());
+        return true;
+    }
+
+    private Entry precomputedEntry(Product product, String key) {
+        Entry entry = product.getId() != null ? precomputed.get(product.getId()) : null;
+        if (entry == null || !entry.key().equals(key)) {
+            return null;
+        }
+        if (entry.expiresAtMillis() <= System.currentTimeMillis()) {
+            if (precomputed.remove(entry.productId(), entry)) {
+                expirations.increment();
+            }
+            return null;
+        }
+        return entry;
+    }
+
+    private static boolean isLive(Entry entry, String key) {
+        return entry != null && entry.key().equals(key) && entry.expiresAtMillis() > System.currentTimeMillis();
+    }
+
+    public void put(Product product, Map<String, Object> recommendation) {
+        String key = keyFor(product);
+        Entry entry = new Entry(product.getId(), key, recommendation, System.currentTimeMillis() + ttlMillis);
+        synchronized (entries) {
+            entries.put(key, entry);
+            Entry previous = product.getId() != null ? entryByProductId.put(product.getId(), entry) : null;
+            if (previous != null && !previous.key().equals(key)) {
+                entries.remove(previous.key());
+            }
+        }
+    }
+
+    /**
+     * Stores a batch result in the precomputed tier, replacing any earlier result for the product.
+     */
+    public void putPrecomputed(Product product, Map<String, Object> recommendation) {
+        String key = keyFor(product);
+        precomputed.put(product.getId(), new Entry(product.getId(), key, recommendation,
+                System.currentTimeMillis() + ttlMillis));
+        unsaved.add(product.getId());
+    }
+
+    public void invalidate(Long productId) {
+        boolean removed = precomputed.remove(productId) != null;
+        synchronized (entries) {
+            Entry entry = entryByProductId.remove(productId);
+            if (entry != null && entries.remove(entry.key()) != null) {
+                removed = true;
+            }
+        }
+        if (removed) {
+            invalidations.increment();
+        }
+    }
+
+    /**
+     * Writes the unexpired precomputed entries, one JSON object per line, to a temporary file and
+     * atomically moves it into place, so a crash mid-write leaves the previous file intact. This
+     * also drops the superseded lines that {@link #appendPrecomputed} left behind.
+     */
+    public void savePrecomputed(Path path) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, "recommendations-", ".tmp");
+        long now = System.currentTimeMillis();
+        try {
+            try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                unsaved.clear();
+                for (Entry entry : precomputed.values()) {
+                    if (entry.expiresAtMillis() > now) {
+                        writeLine(out, entry);
+                    }
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Appends the precomputed entries added since the last save or append, so a long batch run
+     * writes each result once instead of rewriting the whole tier. A later line for a product
+     * replaces an earlier one when the file is loaded.
+     */
+    public void appendPrecomputed(Path path) throws IOException {
+        if (unsaved.isEmpty()) {
+            return;
+        }
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (Iterator<Long> it = unsaved.iterator(); it.hasNext(); ) {
+                Long productId = it.next();
+                // Unmarked before reading, so an entry replaced meanwhile is marked again and
+                // written by the next append
+                it.remove();
+                Entry entry = precomputed.get(productId);
+                if (entry != null) {
+                    writeLine(out, entry);
+                }
+            }
+        }
+    }
+
+    private void writeLine(Writer out, Entry entry) throws IOException {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("productId", entry.productId());
+        node.put("key", entry.key());
+        node.put("expiresAtMillis", entry.expiresAtMillis());
+        node.set("recommendation", objectMapper.valueToTree(entry.recommendation()));
+        out.write(objectMapper.writeValueAsString(node));
+        out.write('\n');
+    }
+
+    /**
+     * Loads entries written by {@link #savePrecomputed} and {@link #appendPrecomputed}, skipping
+     * those that have expired since and a last line cut short by a crash. Entries whose product
+     * changed in the meantime are kept but never match its new content key.
+     *
+     * @return the number of entries loaded
+     */
+    public int loadPrecomputed(Path path) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return 0;
+        }
+        Map<Long, Entry> loaded = new HashMap<>();
+        long now = System.currentTimeMillis();
+        try (BufferedReader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(line);
+                } catch (JsonProcessingException e) {
+                    continue;
+                }
+                if (node == null || node.path("expiresAtMillis").asLong() <= now) {
+                    continue;
+                }
+                Map<String, Object> recommendation = objectMapper.convertValue(node.path("recommendation"),
+                        new TypeReference<Map<String, Object>>() { });
+                long productId = node.path("productId").asLong();
+                loaded.put(productId, new Entry(productId, node.path("key").asText(), recommendation,
+                        node.path("expiresAtMillis").asLong()));
+            }
+        }
+        loaded.forEach(precomputed::putIfAbsent);
+        return loaded.size();
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() != ProductChangedEvent.Type.CREATED) {
+            invalidate(event.productId());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size);
+        stats.put("maxEntries", maxEntries);
+        stats.put("precomputed", precomputed.size());
+        stats.put("ttlSeconds", ttlMillis / 1000);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+        stats.put("evictions", evictions.sum());
+        stats.put("expirations", expirations.sum());
+        stats.put("invalidations", invalidations.sum());
+        return stats;
+    }
+
+    /**
+     * Content address of a product: SHA-256 over the fields used to build the AI prompt.
+     */
+    static String keyFor(Product product) {
+        String content = String.join("\u0000",
+                String.valueOf(product.getName()),
+                String.valueOf(product.getBrand()),
+                String.valueOf(product.getCategory()),
+                product.getPrice() != null ? product.getPrice().stripTrailingZeros().toPlainString() : "null",
+                String.valueOf(product.getDescription()),
+                String.valueOf(product.getRating()));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.product.service;
+
+/**
+ * Thrown when an AI recommendation cannot be started because the in-flight limit is reached.
+ */
+public class RecommendationRejectedException extends RuntimeException {
+
+    public RecommendationRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.product.service;
+
+/**
+ * Thrown when a reservation cannot make the requested transition from its current state.
+ */
+public class ReservationStateException extends RuntimeException {
+
+    public ReservationStateException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,137 @@
+package com.ecommerce.product.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, checksummed log of inventory records, framed like the product log:
+ * {@code [int payloadLength][int crc32(payload)][payload]}. Replay stops at the first short or
+ * mismatching frame and truncates it. Compaction replaces the whole file with a fresh one.
+ */
+final class InventoryLog implements Closeable {
+
+    private static final int FRAME_HEADER = Integer.BYTES * 2;
+
+    private final Path path;
+    private FileChannel channel;
+
+    InventoryLog(Path path) {
+        this.path = path;
+    }
+
+    static byte[] frame(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER + payload.length);
+        frame.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+        return frame.array();
+    }
+
+    /**
+     * Replays every intact payload, truncates any torn tail and opens the log for appending.
+     * A payload the callback rejects with an {@link IllegalArgumentException} ends the replay
+     * like a bad checksum would. Returns the number of records replayed.
+     */
+    long open(Consumer<ByteBuffer> onRecord) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        long size = channel.size();
+        long validEnd = 0;
+        long records = 0;
+        if (size > 0) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            CRC32 crc = new CRC32();
+            while (buffer.remaining() >= FRAME_HEADER) {
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining()) {
+                    break;
+                }
+                ByteBuffer payload = buffer.slice(buffer.position(), length);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                try {
+                    onRecord.accept(payload);
+                } catch (IllegalArgumentException | BufferUnderflowException e) {
+                    break;
+                }
+                buffer.position(buffer.position() + length);
+                validEnd = buffer.position();
+                records++;
+            }
+        }
+
+        if (validEnd < size) {
+            System.err.println("Truncating " + (size - validEnd) + " bytes of torn inventory log tail");
+            channel.truncate(validEnd);
+            channel.force(true);
+        }
+        channel.position(validEnd);
+        return records;
+    }
+
+    /**
+     * Writes the frames with a single gathering write followed by one fsync.
+     */
+    void appendAndSync(List<byte[]> frames) throws IOException {
+        ByteBuffer[] buffers = new ByteBuffer[frames.size()];
+        long total = 0;
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = ByteBuffer.wrap(frames.get(i));
+            total += buffers[i].remaining();
+        }
+        long written = 0;
+        while (written < total) {
+            written += channel.write(buffers);
+        }
+        channel.force(false);
+    }
+
+    /**
+     * Replaces the log with one holding just the given frames. The new file is synced before it
+     * is moved into place, so a crash leaves either the old log or the complete new one.
+     */
+    void rewrite(List<byte[]> frames) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (byte[] frame : frames) {
+                ByteBuffer buffer = ByteBuffer.wrap(frame);
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+            }
+            out.force(true);
+        }
+        channel.close();
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+    }
+
+    long size() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
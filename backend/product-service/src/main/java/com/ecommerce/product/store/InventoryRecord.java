@@ -0,0 +1,122 @@
+package com.ecommerce.product.store;
+
+import com.ecommerce.product.model.ReservationItem;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A record of the inventory journal. Every record carries absolute values rather than deltas,
+ * so replaying one that a snapshot already covers changes nothing: the last record written for
+ * a product or a reservation wins.
+ */
+public sealed interface InventoryRecord {
+
+    byte ON_HAND = 1;
+    byte RESERVATION = 2;
+    byte FORGET = 3;
+    byte DROP = 4;
+
+    /**
+     * Units of a product that are either available or held by a reservation still on record.
+     */
+    record OnHand(long productId, int units) implements InventoryRecord {
+    }
+
+    /**
+     * The current state of a reservation, written on creation and on every transition.
+     */
+    record Reservation(String id, String state, List<ReservationItem> items, Instant expiresAt,
+                       Instant closedAt) implements InventoryRecord {
+    }
+
+    /**
+     * A closed reservation that is no longer kept. Forgetting a committed reservation takes its
+     * units out of the on-hand count for good, so the new counts travel in the same record.
+     */
+    record Forget(String id, List<OnHand> onHand) implements InventoryRecord {
+    }
+
+    /**
+     * A deleted product whose units are no longer tracked.
+     */
+    record Drop(long productId) implements InventoryRecord {
+    }
+
+    static byte[] encode(InventoryRecord record) {
+        if (record instanceof OnHand onHand) {
+            return ByteBuffer.allocate(1 + Long.BYTES + Integer.BYTES)
+                    .put(ON_HAND).putLong(onHand.productId()).putInt(onHand.units()).array();
+        }
+        if (record instanceof Reservation reservation) {
+            byte[] id = reservation.id().getBytes(StandardCharsets.UTF_8);
+            byte[] state = reservation.state().getBytes(StandardCharsets.UTF_8);
+            ByteBuffer buffer = ByteBuffer.allocate(1 + Short.BYTES * 2 + id.length + state.length
+                    + Long.BYTES * 2 + Integer.BYTES + reservation.items().size() * (Long.BYTES + Integer.BYTES));
+            buffer.put(RESERVATION)
+                    .putShort((short) id.length).put(id)
+                    .putShort((short) state.length).put(state)
+                    .putLong(reservation.expiresAt().toEpochMilli())
+                    .putLong(reservation.closedAt() != null ? reservation.closedAt().toEpochMilli() : -1)
+                    .putInt(reservation.items().size());
+            for (ReservationItem item : reservation.items()) {
+                buffer.putLong(item.getProductId()).putInt(item.getQuantity());
+            }
+            return buffer.array();
+        }
+        if (record instanceof Forget forget) {
+            byte[] id = forget.id().getBytes(StandardCharsets.UTF_8);
+            ByteBuffer buffer = ByteBuffer.allocate(1 + Short.BYTES + id.length + Integer.BYTES
+                    + forget.onHand().size() * (Long.BYTES + Integer.BYTES));
+            buffer.put(FORGET).putShort((short) id.length).put(id).putInt(forget.onHand().size());
+            for (OnHand onHand : forget.onHand()) {
+                buffer.putLong(onHand.productId()).putInt(onHand.units());
+            }
+            return buffer.array();
+        }
+        Drop drop = (Drop) record;
+        return ByteBuffer.allocate(1 + Long.BYTES).put(DROP).putLong(drop.productId()).array();
+    }
+
+    static InventoryRecord decode(ByteBuffer buffer) {
+        byte op = buffer.get();
+        switch (op) {
+            case ON_HAND:
+                return new OnHand(buffer.getLong(), buffer.getInt());
+            case RESERVATION: {
+                String id = readString(buffer);
+                String state = readString(buffer);
+                Instant expiresAt = Instant.ofEpochMilli(buffer.getLong());
+                long closedAt = buffer.getLong();
+                int count = buffer.getInt();
+                List<ReservationItem> items = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    items.add(new ReservationItem(buffer.getLong(), buffer.getInt()));
+                }
+                return new Reservation(id, state, items, expiresAt, closedAt >= 0 ? Instant.ofEpochMilli(closedAt) : null);
+            }
+            case FORGET: {
+                String id = readString(buffer);
+                int count = buffer.getInt();
+                List<OnHand> onHand = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    onHand.add(new OnHand(buffer.getLong(), buffer.getInt()));
+                }
+                return new Forget(id, onHand);
+            }
+            case DROP:
+                return new Drop(buffer.getLong());
+            default:
+                throw new IllegalArgumentException("Unknown inventory record type " + op);
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,151 @@
+package com.ecommerce.product.store;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Durable journal of the inventory: on-hand units per product and the state of every
+ * reservation still on record.
+ *
+ * It has its own log next to the product log and the same group commit, so reservations never
+ * go through the catalog's write path or its indexes. When the log grows past
+ * {@code inventory.store.compact-threshold-bytes} it is rewritten to hold only the current state;
+ * records queued meanwhile are written after it and replay idempotently on top.
+ */
+@Component
+public class InventoryStore {
+
+    private record PendingWrite(byte[] frame, CompletableFuture<Void> done) {
+    }
+
+    private final boolean enabled;
+    private final InventoryLog log;
+    private final long compactThresholdBytes;
+    private final int maxBatch;
+    private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+
+    private volatile boolean running;
+    private Thread writer;
+    private Supplier<List<InventoryRecord>> snapshotSource;
+
+    public InventoryStore(@Value("${product.store.enabled:true}") boolean enabled,
+                          @Value("${product.store.directory:data/store}") String directory,
+                          @Value("${inventory.store.compact-threshold-bytes:16777216}") long compactThresholdBytes,
+                          @Value("${product.store.group-commit.max-batch:4096}") int maxBatch) {
+        this.enabled = enabled;
+        this.log = new InventoryLog(Paths.get(directory).resolve("inventory.log"));
+        this.compactThresholdBytes = compactThresholdBytes;
+        this.maxBatch = maxBatch;
+    }
+
+    /**
+     * Replays the journal through {@code onRecord}, then starts accepting writes.
+     *
+     * @param snapshotSource supplies the current state when the log is compacted
+     * @return the number of records replayed
+     */
+    public synchronized long open(Consumer<InventoryRecord> onRecord,
+                                  Supplier<List<InventoryRecord>> snapshotSource) throws IOException {
+        if (!enabled || running) {
+            return 0;
+        }
+        this.snapshotSource = snapshotSource;
+        long replayed = log.open(payload -> onRecord.accept(InventoryRecord.decode(payload)));
+
+        running = true;
+        writer = new Thread(this::writeLoop, "inventory-store-writer");
+        writer.setDaemon(true);
+        writer.start();
+        return replayed;
+    }
+
+    /**
+     * Queues a record. The future completes once the batch holding it has been synced to disk.
+     */
+    public CompletableFuture<Void> append(InventoryRecord record) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (!running) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Inventory store is not open"));
+        }
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        queue.add(new PendingWrite(InventoryLog.frame(InventoryRecord.encode(record)), done));
+        return done;
+    }
+
+    private void writeLoop() {
+        List<PendingWrite> batch = new ArrayList<>();
+        List<byte[]> frames = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                for (PendingWrite write : batch) {
+                    frames.add(write.frame());
+                }
+
+                try {
+                    log.appendAndSync(frames);
+                    batch.forEach(write -> write.done().complete(null));
+                } catch (IOException e) {
+                    batch.forEach(write -> write.done().completeExceptionally(e));
+                }
+
+                if (log.size() >= compactThresholdBytes) {
+                    compact();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                System.err.println("Inventory store writer error: " + e.getMessage());
+            } finally {
+                batch.clear();
+                frames.clear();
+            }
+        }
+    }
+
+    private void compact() {
+        try {
+            long start = System.nanoTime();
+            List<InventoryRecord> records = snapshotSource.get();
+            List<byte[]> frames = new ArrayList<>(records.size());
+            for (InventoryRecord record : records) {
+                frames.add(InventoryLog.frame(InventoryRecord.encode(record)));
+            }
+            log.rewrite(frames);
+            System.out.println("Compacted inventory log to " + records.size() + " records in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } catch (IOException e) {
+            System.err.println("Inventory log compaction failed: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        log.close();
+    }
+}
@@ -0,0 +1,161 @@
+package com.ecommerce.product.store;
+
+import com.ecommerce.product.model.Product;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary encoding of a {@link Product}, shared by the log and the snapshot.
+ *
+ * Layout: id (long), a presence bitmap for the nullable fields, then each present field in
+ * declaration order. Strings are a length-prefixed UTF-8 run and prices are stored as scale
+ * plus unscaled two's-complement bytes, so BigDecimal values round-trip exactly.
+ */
+final class ProductCodec {
+
+    private static final int NAME = 1;
+    private static final int DESCRIPTION = 1 << 1;
+    private static final int PRICE = 1 << 2;
+    private static final int CATEGORY = 1 << 3;
+    private static final int STOCK = 1 << 4;
+    private static final int IMAGE_URL = 1 << 5;
+    private static final int BRAND = 1 << 6;
+    private static final int RATING = 1 << 7;
+    private static final int IMAGES = 1 << 8;
+    private static final int VERSION = 1 << 9;
+
+    private ProductCodec() {
+    }
+
+    static byte[] encode(Product product) {
+        byte[] name = utf8(product.getName());
+        byte[] description = utf8(product.getDescription());
+        byte[] category = utf8(product.getCategory());
+        byte[] imageUrl = utf8(product.getImageUrl());
+        byte[] brand = utf8(product.getBrand());
+        byte[] unscaledPrice = product.getPrice() != null ? product.getPrice().unscaledValue().toByteArray() : null;
+        List<byte[]> images = new ArrayList<>();
+        if (product.getImages() != null) {
+            for (String image : product.getImages()) {
+                images.add(utf8(image != null ? image : ""));
+            }
+        }
+
+        int flags = 0;
+        int size = Long.BYTES + Short.BYTES;
+        if (name != null) { flags |= NAME; size += Integer.BYTES + name.length; }
+        if (description != null) { flags |= DESCRIPTION; size += Integer.BYTES + description.length; }
+        if (unscaledPrice != null) { flags |= PRICE; size += Integer.BYTES + Short.BYTES + unscaledPrice.length; }
+        if (category != null) { flags |= CATEGORY; size += Integer.BYTES + category.length; }
+        if (product.getStock() != null) { flags |= STOCK; size += Integer.BYTES; }
+        if (imageUrl != null) { flags |= IMAGE_URL; size += Integer.BYTES + imageUrl.length; }
+        if (brand != null) { flags |= BRAND; size += Integer.BYTES + brand.length; }
+        if (product.getRating() != null) { flags |= RATING; size += Double.BYTES; }
+        if (product.getImages() != null) {
+            flags |= IMAGES;
+            size += Integer.BYTES;
+            for (byte[] image : images) {
+                size += Integer.BYTES + image.length;
+            }
+        }
+        if (product.getVersion() != null) { flags |= VERSION; size += Long.BYTES; }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putLong(product.getId());
+        buffer.putShort((short) flags);
+        putBytes(buffer, name);
+        putBytes(buffer, description);
+        if (unscaledPrice != null) {
+            buffer.putInt(product.getPrice().scale());
+            buffer.putShort((short) unscaledPrice.length);
+            buffer.put(unscaledPrice);
+        }
+        putBytes(buffer, category);
+        if (product.getStock() != null) {
+            buffer.putInt(product.getStock());
+        }
+        putBytes(buffer, imageUrl);
+        putBytes(buffer, brand);
+        if (product.getRating() != null) {
+            buffer.putDouble(product.getRating());
+        }
+        if (product.getImages() != null) {
+            buffer.putInt(images.size());
+            for (byte[] image : images) {
+                putBytes(buffer, image);
+            }
+        }
+        if (product.getVersion() != null) {
+            buffer.putLong(product.getVersion());
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Decodes one product starting at the buffer's position and advances past it.
+     */
+    static Product decode(ByteBuffer buffer) {
+        try {
+            Product product = new Product();
+            product.setId(buffer.getLong());
+            int flags = buffer.getShort() & 0xFFFF;
+            if ((flags & NAME) != 0) product.setName(getString(buffer));
+            if ((flags & DESCRIPTION) != 0) product.setDescription(getString(buffer));
+            if ((flags & PRICE) != 0) {
+                int scale = buffer.getInt();
+                byte[] unscaled = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(unscaled);
+                product.setPrice(new BigDecimal(new BigInteger(unscaled), scale));
+            }
+            if ((flags & CATEGORY) != 0) product.setCategory(getString(buffer));
+            if ((flags & STOCK) != 0) product.setStock(buffer.getInt());
+            if ((flags & IMAGE_URL) != 0) product.setImageUrl(getString(buffer));
+            if ((flags & BRAND) != 0) product.setBrand(getString(buffer));
+            if ((flags & RATING) != 0) product.setRating(buffer.getDouble());
+            if ((flags & IMAGES) != 0) {
+                int count = buffer.getInt();
+                List<String> images = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    images.add(getString(buffer));
+                }
+                product.setImages(images);
+            }
+            if ((flags & VERSION) != 0) product.setVersion(buffer.getLong());
+            return product;
+        } catch (BufferUnderflowException | NegativeArraySizeException e) {
+            throw new IllegalStateException("Corrupt product record", e);
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] value) {
+        if (value != null) {
+            buffer.putInt(value.length);
+            buffer.put(value);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalStateException("Corrupt product record");
+        }
+        if (buffer.hasArray()) {
+            String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
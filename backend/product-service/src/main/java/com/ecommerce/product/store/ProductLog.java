@@ -0,0 +1,143 @@
+package com.ecommerce.product.store;
+
+import com.ecommerce.product.model.Product;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, checksummed log of product writes.
+ *
+ * Each frame is {@code [int payloadLength][int crc32(payload)][payload]} where the payload is an
+ * op byte followed by either an encoded product (PUT) or a product id (DELETE). Replay stops at
+ * the first short or mismatching frame and truncates it, which discards a write torn by a crash.
+ */
+final class ProductLog implements Closeable {
+
+    static final byte PUT = 1;
+    static final byte DELETE = 2;
+
+    private static final int FRAME_HEADER = Integer.BYTES * 2;
+
+    private final Path path;
+    private FileChannel channel;
+
+    ProductLog(Path path) {
+        this.path = path;
+    }
+
+    static byte[] putFrame(Product product) {
+        byte[] encoded = ProductCodec.encode(product);
+        ByteBuffer payload = ByteBuffer.allocate(1 + encoded.length);
+        payload.put(PUT).put(encoded);
+        return frame(payload.array());
+    }
+
+    static byte[] deleteFrame(long productId) {
+        ByteBuffer payload = ByteBuffer.allocate(1 + Long.BYTES);
+        payload.put(DELETE).putLong(productId);
+        return frame(payload.array());
+    }
+
+    private static byte[] frame(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER + payload.length);
+        frame.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+        return frame.array();
+    }
+
+    /**
+     * Replays every intact record through the callbacks, truncates any torn tail and opens the
+     * log for appending. Returns the number of records replayed.
+     */
+    long open(Consumer<Product> onPut, Consumer<Long> onDelete) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        long size = channel.size();
+        long validEnd = 0;
+        long records = 0;
+        if (size > 0) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            CRC32 crc = new CRC32();
+            while (buffer.remaining() >= FRAME_HEADER) {
+                int start = buffer.position();
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining()) {
+                    break;
+                }
+                ByteBuffer payload = buffer.slice(buffer.position(), length);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    buffer.position(start);
+                    break;
+                }
+                byte op = payload.get();
+                if (op == PUT) {
+                    onPut.accept(ProductCodec.decode(payload));
+                } else if (op == DELETE) {
+                    onDelete.accept(payload.getLong());
+                } else {
+                    break;
+                }
+                buffer.position(buffer.position() + length);
+                validEnd = buffer.position();
+                records++;
+            }
+        }
+
+        if (validEnd < size) {
+            System.err.println("Truncating " + (size - validEnd) + " bytes of torn product log tail");
+            channel.truncate(validEnd);
+            channel.force(true);
+        }
+        channel.position(validEnd);
+        return records;
+    }
+
+    /**
+     * Writes the frames with a single gathering write followed by one fsync.
+     */
+    void appendAndSync(List<byte[]> frames) throws IOException {
+        ByteBuffer[] buffers = new ByteBuffer[frames.size()];
+        long total = 0;
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = ByteBuffer.wrap(frames.get(i));
+            total += buffers[i].remaining();
+        }
+        long written = 0;
+        while (written < total) {
+            written += channel.write(buffers);
+        }
+        channel.force(false);
+    }
+
+    long size() throws IOException {
+        return channel.size();
+    }
+
+    void reset() throws IOException {
+        channel.truncate(0);
+        channel.position(0);
+        channel.force(true);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.ecommerce.product.store;
+
+import com.ecommerce.product.model.Product;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Binary snapshot of the whole catalog: a magic header, one {@code [length][crc32][product]}
+ * frame per product, an end marker carrying the product count, then the ids of deleted products
+ * as a count followed by the ids. Snapshots are written to a temporary file, fsynced and
+ * atomically renamed, and read back through a memory mapping.
+ */
+final class ProductSnapshotFile {
+
+    private static final int MAGIC = 0x50534E32; // "PSN2"
+    private static final int END_MARKER = -1;
+
+    private final Path path;
+
+    ProductSnapshotFile(Path path) {
+        this.path = path;
+    }
+
+    boolean exists() {
+        return Files.isRegularFile(path);
+    }
+
+    long write(Iterable<Product> products, Collection<Long> deletedIds) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, "products-", ".snapshot.tmp");
+        long count = 0;
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+                CRC32 crc = new CRC32();
+                out.writeInt(MAGIC);
+                for (Product product : products) {
+                    byte[] encoded = ProductCodec.encode(product);
+                    crc.reset();
+                    crc.update(encoded);
+                    out.writeInt(encoded.length);
+                    out.writeInt((int) crc.getValue());
+                    out.write(encoded);
+                    count++;
+                }
+                out.writeInt(END_MARKER);
+                out.writeLong(count);
+                List<Long> deleted = new ArrayList<>(deletedIds);
+                out.writeInt(deleted.size());
+                for (long id : deleted) {
+                    out.writeLong(id);
+                }
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return count;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Decodes every product and deleted id of the snapshot. A missing end marker or a checksum
+     * mismatch means the file is corrupt and fails the load rather than silently recovering a
+     * partial catalog.
+     */
+    long read(Consumer<Product> consumer, Consumer<Long> onDeleted) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int magic = buffer.remaining() >= Integer.BYTES ? buffer.getInt() : 0;
+            if (magic != MAGIC) {
+                throw new IOException("Not a product snapshot: " + path);
+            }
+            CRC32 crc = new CRC32();
+            long count = 0;
+            while (buffer.remaining() >= Integer.BYTES) {
+                int length = buffer.getInt();
+                if (length == END_MARKER) {
+                    if (buffer.remaining() < Long.BYTES || buffer.getLong() != count) {
+                        throw new IOException("Product snapshot count mismatch: " + path);
+                    }
+                    readDeleted(buffer, onDeleted);
+                    return count;
+                }
+                if (length <= 0 || buffer.remaining() < Integer.BYTES + length) {
+                    break;
+                }
+                int checksum = buffer.getInt();
+                ByteBuffer record = buffer.slice(buffer.position(), length);
+                crc.reset();
+                crc.update(record.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    throw new IOException("Product snapshot checksum mismatch at record " + count + ": " + path);
+                }
+                consumer.accept(ProductCodec.decode(record));
+                buffer.position(buffer.position() + length);
+                count++;
+            }
+            throw new IOException("Truncated product snapshot: " + path);
+        }
+    }
+
+    private void readDeleted(ByteBuffer buffer, Consumer<Long> onDeleted) throws IOException {
+        int count = buffer.remaining() >= Integer.BYTES ? buffer.getInt() : -1;
+        if (count < 0 || buffer.remaining() != (long) count * Long.BYTES) {
+            throw new IOException("Truncated deleted ids in product snapshot: " + path);
+        }
+        for (int i = 0; i < count; i++) {
+            onDeleted.accept(buffer.getLong());
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.ecommerce.product.store;
+
+import com.ecommerce.product.model.Product;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Embedded durable storage for the product catalog.
+ *
+ * Writes are appended to a checksummed log by a single writer thread that drains every pending
+ * write into one batch and acknowledges the whole batch after a single fsync (group commit), so
+ * concurrent writers share the cost of the sync instead of paying it one by one. When the log
+ * grows past {@code product.store.compact-threshold-bytes} the current catalog is written as a
+ * binary snapshot and the log is reset. Recovery maps the snapshot and replays the log tail.
+ *
+ * The ids of deleted products are remembered across compactions, so a deleted product can be
+ * told apart from one the store has never seen.
+ */
+@Component
+public class ProductStore {
+
+    private record PendingWrite(List<byte[]> frames, CompletableFuture<Void> done) {
+    }
+
+    private final boolean enabled;
+    private final ProductLog log;
+    private final ProductSnapshotFile snapshot;
+    private final long compactThresholdBytes;
+    private final int maxBatch;
+    private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+    private final Set<Long> deletedIds = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean running;
+    private Thread writer;
+    private Supplier<Iterable<Product>> snapshotSource;
+
+    public ProductStore(@Value("${product.store.enabled:true}") boolean enabled,
+                        @Value("${product.store.directory:data/store}") String directory,
+                        @Value("${product.store.compact-threshold-bytes:67108864}") long compactThresholdBytes,
+                        @Value("${product.store.group-commit.max-batch:4096}") int maxBatch) {
+        Path root = Paths.get(directory);
+        this.enabled = enabled;
+        this.log = new ProductLog(root.resolve("products.log"));
+        this.snapshot = new ProductSnapshotFile(root.resolve("products.snapshot"));
+        this.compactThresholdBytes = compactThresholdBytes;
+        this.maxBatch = maxBatch;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Loads the snapshot and replays the log, then starts accepting writes.
+     *
+     * @param snapshotSource supplies the live catalog when the log is compacted into a new snapshot
+     * @return the recovered products in id order
+     */
+    public synchronized Collection<Product> open(Supplier<Iterable<Product>> snapshotSource) throws IOException {
+        if (!enabled || running) {
+            return Collections.emptyList();
+        }
+        this.snapshotSource = snapshotSource;
+
+        long start = System.nanoTime();
+        Map<Long, Product> recovered = new TreeMap<>();
+        long snapshotCount = snapshot.exists() ? snapshot.read(p -> recovered.put(p.getId(), p), deletedIds::add) : 0;
+        long replayed = log.open(p -> {
+            recovered.put(p.getId(), p);
+            deletedIds.remove(p.getId());
+        }, id -> {
+            recovered.remove(id);
+            deletedIds.add(id);
+        });
+        if (snapshotCount > 0 || replayed > 0) {
+            System.out.println("Recovered " + recovered.size() + " products (" + snapshotCount + " from snapshot, "
+                    + replayed + " log records) in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        }
+
+        running = true;
+        writer = new Thread(this::writeLoop, "product-store-writer");
+        writer.setDaemon(true);
+        writer.start();
+        return recovered.values();
+    }
+
+    /**
+     * Returns true if the product was deleted and has not been written again since.
+     */
+    public boolean isDeleted(long productId) {
+        return deletedIds.contains(productId);
+    }
+
+    public CompletableFuture<Void> put(Product product) {
+        deletedIds.remove(product.getId());
+        return enqueue(List.of(ProductLog.putFrame(product)));
+    }
+
+    public CompletableFuture<Void> putAll(Collection<Product> products) {
+        List<byte[]> frames = new ArrayList<>(products.size());
+        for (Product product : products) {
+            deletedIds.remove(product.getId());
+            frames.add(ProductLog.putFrame(product));
+        }
+        return enqueue(frames);
+    }
+
+    public CompletableFuture<Void> delete(long productId) {
+        deletedIds.add(productId);
+        return enqueue(List.of(ProductLog.deleteFrame(productId)));
+    }
+
+    private CompletableFuture<Void> enqueue(List<byte[]> frames) {
+        if (!enabled || frames.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (!running) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Product store is not open"));
+        }
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        queue.add(new PendingWrite(frames, done));
+        return done;
+    }
+
+    private void writeLoop() {
+        List<PendingWrite> batch = new ArrayList<>();
+        List<byte[]> frames = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                for (PendingWrite write : batch) {
+                    frames.addAll(write.frames());
+                }
+
+                try {
+                    log.appendAndSync(frames);
+                    batch.forEach(write -> write.done().complete(null));
+                } catch (IOException e) {
+                    batch.forEach(write -> write.done().completeExceptionally(e));
+                }
+
+                if (log.size() >= compactThresholdBytes) {
+                    compact();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                System.err.println("Product store writer error: " + e.getMessage());
+            } finally {
+                batch.clear();
+                frames.clear();
+            }
+        }
+    }
+
+    /**
+     * Runs on the writer thread. Every record already in the log was applied to the catalog
+     * before it was queued, so the snapshot covers it; records still queued are written to the
+     * fresh log afterwards and replay idempotently on top of the snapshot.
+     */
+    private void compact() {
+        try {
+            long start = System.nanoTime();
+            long count = snapshot.write(snapshotSource.get(), deletedIds);
+            log.reset();
+            System.out.println("Compacted product log into snapshot of " + count + " products in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } catch (IOException e) {
+            System.err.println("Product log compaction failed: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        log.close();
+    }
+}
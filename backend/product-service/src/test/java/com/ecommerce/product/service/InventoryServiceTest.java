@@ -0,0 +1,189 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.model.Product;
+import com.ecommerce.product.model.Reservation;
+import com.ecommerce.product.model.ReservationItem;
+import com.ecommerce.product.store.InventoryStore;
+import com.ecommerce.product.store.ProductStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class InventoryServiceTest {
+
+    private static final int THREADS = 8;
+
+    @TempDir
+    Path directory;
+
+    private ProductService productService;
+    private InventoryStore inventoryStore;
+    private InventoryService inventory;
+    private final ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+    @BeforeEach
+    void setUp() {
+        // In-memory catalog; no snapshot file and an unreachable source, so it starts empty
+        CatalogLoader loader = new CatalogLoader(directory.resolve("no-snapshot.json").toString(),
+                "http://127.0.0.1:9", 100, 1, Duration.ofSeconds(1));
+        productService = new ProductService(event -> {
+        }, loader, new ProductStore(false, directory.toString(), 1L << 20, 64), new SimpleMeterRegistry(), false);
+        inventory = open();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        pool.shutdownNow();
+        inventoryStore.close();
+    }
+
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        long id = product(100);
+
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        race(THREADS, () -> {
+            for (int i = 0; i < 50; i++) {
+                try {
+                    inventory.reserve(List.of(new ReservationItem(id, 1)), null);
+                    reserved.incrementAndGet();
+                } catch (InsufficientStockException e) {
+                    refused.incrementAndGet();
+                }
+            }
+            return null;
+        });
+
+        assertEquals(100, reserved.get());
+        assertEquals(THREADS * 50 - 100, refused.get());
+        assertEquals(Optional.of(0), inventory.getAvailable(id));
+    }
+
+    @Test
+    void aShortItemRollsBackTheOthers() {
+        long plenty = product(10);
+        long scarce = product(1);
+
+        assertThrows(InsufficientStockException.class, () -> inventory.reserve(
+                List.of(new ReservationItem(plenty, 4), new ReservationItem(scarce, 2)), null));
+
+        assertEquals(Optional.of(10), inventory.getAvailable(plenty));
+        assertEquals(Optional.of(1), inventory.getAvailable(scarce));
+    }
+
+    @Test
+    void racingCommitAndReleaseReturnTheUnitsOnce() throws Exception {
+        long id = product(200);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            ids.add(inventory.reserve(List.of(new ReservationItem(id, 2)), null).getId());
+        }
+        assertEquals(Optional.of(0), inventory.getAvailable(id));
+
+        // Half the threads commit and half release every reservation, each in its own order
+        AtomicInteger roles = new AtomicInteger();
+        race(THREADS, () -> {
+            boolean committer = roles.getAndIncrement() % 2 == 0;
+            List<String> order = new ArrayList<>(ids);
+            Collections.shuffle(order);
+            for (String reservationId : order) {
+                if (committer) {
+                    try {
+                        inventory.commit(reservationId);
+                    } catch (ReservationStateException e) {
+                        // Released first, which a commit must not undo
+                    }
+                } else {
+                    inventory.release(reservationId);
+                }
+            }
+            return null;
+        });
+
+        for (String reservationId : ids) {
+            assertEquals("RELEASED", inventory.getReservation(reservationId).orElseThrow().getState());
+        }
+        assertEquals(Optional.of(200), inventory.getAvailable(id));
+    }
+
+    @Test
+    void repeatedCommitsAndReleasesAreNoOps() {
+        long id = product(5);
+        Reservation reservation = inventory.reserve(List.of(new ReservationItem(id, 3)), null);
+
+        assertEquals("COMMITTED", inventory.commit(reservation.getId()).orElseThrow().getState());
+        assertEquals("COMMITTED", inventory.commit(reservation.getId()).orElseThrow().getState());
+        assertEquals(Optional.of(2), inventory.getAvailable(id));
+
+        assertEquals("RELEASED", inventory.release(reservation.getId()).orElseThrow().getState());
+        assertEquals("RELEASED", inventory.release(reservation.getId()).orElseThrow().getState());
+        assertThrows(ReservationStateException.class, () -> inventory.commit(reservation.getId()));
+        assertEquals(Optional.of(5), inventory.getAvailable(id));
+    }
+
+    @Test
+    void recoversAvailableUnitsFromTheJournal() throws Exception {
+        long id = product(10);
+        String committed = inventory.reserve(List.of(new ReservationItem(id, 3)), null).getId();
+        inventory.commit(committed);
+        inventory.reserve(List.of(new ReservationItem(id, 2)), null);
+        String released = inventory.reserve(List.of(new ReservationItem(id, 4)), null).getId();
+        inventory.release(released);
+        inventoryStore.close();
+
+        inventory = open();
+
+        assertEquals(Optional.of(5), inventory.getAvailable(id));
+        assertEquals("COMMITTED", inventory.getReservation(committed).orElseThrow().getState());
+        assertEquals("RELEASED", inventory.getReservation(released).orElseThrow().getState());
+    }
+
+    private InventoryService open() {
+        inventoryStore = new InventoryStore(true, directory.toString(), 1L << 20, 64);
+        return new InventoryService(productService, inventoryStore, Duration.ofMinutes(15), Duration.ofHours(2),
+                Duration.ofDays(30));
+    }
+
+    private long product(int stock) {
+        return productService.createProduct(new Product(null, "Product", "", new BigDecimal("1.00"), "misc", stock,
+                null, "Brand", 4.0, List.of(), null)).getId();
+    }
+
+    /**
+     * Runs the task on {@code threads} threads released at the same moment and waits for all of them.
+     */
+    private void race(int threads, Callable<Void> task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        for (Future<Void> future : futures) {
+            future.get();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.ecommerce.product.store;
+
+import com.ecommerce.product.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductCodecTest {
+
+    @Test
+    void roundTripsEveryField() {
+        Product product = new Product(7L, "Laptop \u2013 14\"", "Fast, light\nand quiet", new BigDecimal("999.990"),
+                "Electronics", 12, "https://example.com/7.jpg", "Acme", 4.25,
+                List.of("https://example.com/7a.jpg", "https://example.com/7b.jpg"), 3L);
+
+        assertEquals(product, roundTrip(product));
+    }
+
+    @Test
+    void roundTripsMissingFields() {
+        Product product = new Product(8L, null, null, null, null, null, null, null, null, null, null);
+
+        assertEquals(product, roundTrip(product));
+    }
+
+    @Test
+    void keepsPriceScaleAndEmptyLists() {
+        Product product = new Product(9L, "", "", new BigDecimal("-0.10"), "", 0, "", "", 0.0, List.of(), 1L);
+
+        Product decoded = roundTrip(product);
+
+        assertEquals(product, decoded);
+        assertEquals(2, decoded.getPrice().scale());
+    }
+
+    private static Product roundTrip(Product product) {
+        return ProductCodec.decode(ByteBuffer.wrap(ProductCodec.encode(product)));
+    }
+}
@@ -0,0 +1,130 @@
+package com.ecommerce.product.store;
+
+import com.ecommerce.product.model.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductStoreTest {
+
+    @TempDir
+    Path directory;
+
+    // Stands in for ProductService's catalog, which is what gets compacted into the snapshot
+    private final Map<Long, Product> catalog = new ConcurrentSkipListMap<>();
+    private ProductStore store;
+
+    @AfterEach
+    void close() throws Exception {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    void recoversPutsAndDeletesFromTheLog() throws Exception {
+        open(1L << 20);
+        putAll(product(1, "1.00", 1), product(2, "2.00", 1), product(3, "3.00", 1));
+        put(product(2, "2.50", 2));
+        delete(3);
+
+        List<Product> recovered = reopen(1L << 20);
+
+        assertEquals(List.of(product(1, "1.00", 1), product(2, "2.50", 2)), recovered);
+        assertTrue(store.isDeleted(3));
+        assertFalse(store.isDeleted(1));
+    }
+
+    @Test
+    void recoversFromTheSnapshotAndKeepsDeletesAcrossCompaction() throws Exception {
+        // Every batch goes past the threshold, so each write is compacted into a new snapshot
+        open(1);
+        putAll(product(1, "1.00", 1), product(2, "2.00", 1), product(3, "3.00", 1));
+        delete(2);
+        put(product(3, "3.50", 2));
+        store.close();
+        assertEquals(0, Files.size(directory.resolve("products.log")));
+
+        List<Product> recovered = reopen(1L << 20);
+
+        assertEquals(List.of(product(1, "1.00", 1), product(3, "3.50", 2)), recovered);
+        assertTrue(store.isDeleted(2));
+    }
+
+    @Test
+    void putAfterDeleteClearsTheTombstone() throws Exception {
+        open(1);
+        put(product(5, "5.00", 1));
+        delete(5);
+        put(product(5, "5.00", 3));
+
+        List<Product> recovered = reopen(1L << 20);
+
+        assertEquals(List.of(product(5, "5.00", 3)), recovered);
+        assertFalse(store.isDeleted(5));
+    }
+
+    @Test
+    void dropsATornLogTail() throws Exception {
+        open(1L << 20);
+        putAll(product(1, "1.00", 1), product(2, "2.00", 1));
+        store.close();
+        byte[] torn = ProductLog.putFrame(product(3, "3.00", 1));
+        Files.write(directory.resolve("products.log"), Arrays.copyOf(torn, torn.length - 3),
+                StandardOpenOption.APPEND);
+
+        List<Product> recovered = reopen(1L << 20);
+
+        assertEquals(List.of(product(1, "1.00", 1), product(2, "2.00", 1)), recovered);
+        put(product(4, "4.00", 1));
+        assertEquals(3, reopen(1L << 20).size());
+    }
+
+    private void open(long compactThresholdBytes) throws Exception {
+        store = new ProductStore(true, directory.toString(), compactThresholdBytes, 16);
+        store.open(catalog::values).forEach(product -> catalog.put(product.getId(), product));
+    }
+
+    private List<Product> reopen(long compactThresholdBytes) throws Exception {
+        store.close();
+        catalog.clear();
+        open(compactThresholdBytes);
+        return new ArrayList<>(catalog.values());
+    }
+
+    private void put(Product product) {
+        catalog.put(product.getId(), product);
+        store.put(product).join();
+    }
+
+    private void putAll(Product... products) {
+        for (Product product : products) {
+            catalog.put(product.getId(), product);
+        }
+        store.putAll(List.of(products)).join();
+    }
+
+    private void delete(long id) {
+        catalog.remove(id);
+        store.delete(id).join();
+    }
+
+    private static Product product(long id, String price, long version) {
+        return new Product(id, "Product " + id, "Description " + id, new BigDecimal(price), "Category",
+                (int) id * 10, null, "Brand", 4.0, List.of("https://example.com/" + id + ".jpg"), version);
+    }
+}
@@ -1,5 +1,7 @@
 package com.ecommerce.user.config;
 
+import com.ecommerce.auth.TokenCodec;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -8,6 +10,13 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
@@ -17,6 +26,38 @@ public class SecurityConfig {
         return new BCryptPasswordEncoder();
     }
 
+    @Bean
+    public TokenCodec tokenCodec(@Value("${auth.token.secret}") String secret) {
+        return new TokenCodec(secret);
+    }
+
+    /**
+     * Runs BCrypt hashing and matching off the Tomcat pool. Both the threads and the queue are
+     * bounded, so a login burst is rejected quickly instead of starving every other endpoint.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService passwordHashingExecutor(@Value("${auth.bcrypt.threads:0}") int threads,
+                                                   @Value("${auth.bcrypt.queue-capacity:64}") int queueCapacity) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger count = new AtomicInteger();
+        return new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bcrypt-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Hashes passwords of bulk imports, one worker per core by default. It is separate from the
+     * login pool so a migration running flat out does not lock users out.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool passwordImportPool(@Value("${users.import.threads:0}") int threads) {
+        return new ForkJoinPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
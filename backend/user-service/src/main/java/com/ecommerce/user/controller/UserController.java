@@ -1,24 +1,55 @@
 package com.ecommerce.user.controller;
 
+import com.ecommerce.user.model.RevocationsResponse;
 import com.ecommerce.user.model.User;
+import com.ecommerce.user.model.UserImportResponse;
+import com.ecommerce.user.security.RevocationList;
+import com.ecommerce.user.service.TokenService;
 import com.ecommerce.user.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.IOException;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private RevocationList revocationList;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
+    public ResponseEntity<?> getAllUsers(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean stream) {
+        if (stream) {
+            return JsonStreams.array(objectMapper, userService.iterateUsers());
+        }
+        if (limit != null || cursor != null) {
+            return page(cursor, limit);
+        }
         return ResponseEntity.ok(userService.getAllUsers());
     }
 
@@ -30,22 +61,85 @@ public class UserController {
     }
 
     @PostMapping("/register")
-    public ResponseEntity<?> registerUser(@RequestBody User user) {
-        return userService.registerUser(user)
-                .<ResponseEntity<?>>map(u -> ResponseEntity.status(HttpStatus.CREATED).body(u))
-                .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT)
-                        .body(Map.of("message", "Email already exists")));
+    public CompletableFuture<ResponseEntity<?>> registerUser(@RequestBody User user) {
+        try {
+            return userService.registerUser(user).thenApply(registered -> registered
+                    .<ResponseEntity<?>>map(u -> ResponseEntity.status(HttpStatus.CREATED).body(u))
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT)
+                            .body(Map.of("message", "Email already exists"))));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(busy());
+        }
     }
 
+    /**
+     * Imports a JSON array of users in one request, reading it as a stream. Passwords may be plain
+     * text, which is hashed, or existing BCrypt hashes, which are kept. Each record gets its own result.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> importUsers(HttpServletRequest request) throws IOException {
+        try {
+            UserImportResponse response = userService.importUsers(request.getInputStream());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Checks the credentials and returns the user together with an access and a refresh token.
+     * Later requests send {@code Authorization: Bearer <accessToken>} instead of the password.
+     */
     @PostMapping("/login")
-    public ResponseEntity<?> loginUser(@RequestBody Map<String, String> credentials) {
+    public CompletableFuture<ResponseEntity<?>> loginUser(@RequestBody Map<String, String> credentials) {
         String email = credentials.get("email");
         String password = credentials.get("password");
         
-        return userService.loginUser(email, password)
+        try {
+            return userService.loginUser(email, password).thenApply(user -> user
+                    .<ResponseEntity<?>>map(u -> ResponseEntity.ok(tokenService.issue(u)))
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                            .body(Map.of("message", "Invalid credentials"))));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(busy());
+        }
+    }
+
+    @PostMapping("/token/refresh")
+    public ResponseEntity<?> refreshToken(@RequestBody Map<String, String> body) {
+        return tokenService.refresh(body.get("refreshToken"))
                 .<ResponseEntity<?>>map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(Map.of("message", "Invalid credentials")));
+                        .body(Map.of("message", "Invalid or expired refresh token")));
+    }
+
+    /**
+     * Revokes the access token of the request and, if given, the refresh token in the body.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                       @RequestBody(required = false) Map<String, String> body) {
+        tokenService.revoke(bearer(authorization), body != null ? body.get("refreshToken") : null);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/me")
+    public ResponseEntity<?> getCurrentUser(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        return tokenService.authenticate(bearer(authorization))
+                .flatMap(claims -> userService.getUserById(claims.userId()))
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(Map.of("message", "Invalid or expired token")));
+    }
+
+    /**
+     * Revocations after {@code after} in {@code epoch}, polled by the token verifiers of the
+     * gateway and the other services.
+     */
+    @GetMapping("/tokens/revocations")
+    public ResponseEntity<RevocationsResponse> getRevocations(@RequestParam(required = false) String epoch,
+                                                              @RequestParam(defaultValue = "0") long after) {
+        return ResponseEntity.ok(revocationList.changesSince(epoch, after));
     }
 
     @PutMapping("/{id}")
@@ -61,4 +155,27 @@ public class UserController {
                 ? ResponseEntity.noContent().build()
                 : ResponseEntity.notFound().build();
     }
+
+    private static ResponseEntity<?> busy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("message", "Too many sign-ins right now, please retry"));
+    }
+
+    private static String bearer(String authorization) {
+        return authorization != null && authorization.startsWith("Bearer ") ? authorization.substring(7).trim() : null;
+    }
+
+    private ResponseEntity<?> page(String cursor, Integer limit) {
+        int size = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", "limit must be between 1 and " + MAX_PAGE_SIZE));
+        }
+        try {
+            return ResponseEntity.ok(userService.getUsersPage(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
 }
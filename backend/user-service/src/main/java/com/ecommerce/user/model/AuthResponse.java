@@ -0,0 +1,23 @@
+package com.ecommerce.user.model;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Login and refresh response: the user's fields at the top level, as login has always returned,
+ * plus a short-lived access token and the refresh token that renews it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthResponse {
+    @JsonUnwrapped
+    private User user;
+    private String accessToken;
+    private String refreshToken;
+    private String tokenType;
+    // Seconds until the access token expires
+    private long expiresIn;
+}
@@ -0,0 +1,29 @@
+package com.ecommerce.user.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Revocations journaled after the sequence a verifier last saw. When {@code epoch} differs from
+ * the one the verifier knows, {@code revoked} is the full set and replaces its copy.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevocationsResponse {
+    private String epoch;
+    private long sequence;
+    private List<Revocation> revoked;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Revocation {
+        private long tokenId;
+        // Epoch seconds after which the token is invalid anyway and can be forgotten
+        private long expiresAt;
+    }
+}
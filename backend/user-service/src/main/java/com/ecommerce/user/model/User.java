@@ -1,5 +1,6 @@
 package com.ecommerce.user.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -12,6 +13,8 @@ import java.time.LocalDateTime;
 public class User {
     private Long id;
     private String email;
+    // Accepted on input, never serialized: responses must not carry the password hash
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
     private String firstName;
     private String lastName;
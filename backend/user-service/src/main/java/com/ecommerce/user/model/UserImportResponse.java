@@ -0,0 +1,21 @@
+package com.ecommerce.user.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserImportResponse {
+    private int imported;
+    private int rejected;
+    private List<UserImportResult> results;
+    // Set when the submitted body could not be read to the end; results cover the records before it
+    private String error;
+    private long elapsedMillis;
+}
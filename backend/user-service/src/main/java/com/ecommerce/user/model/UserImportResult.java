@@ -0,0 +1,33 @@
+package com.ecommerce.user.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one record of a bulk import, identified by its position in the submitted array.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserImportResult {
+    public static final String CREATED = "CREATED";
+    public static final String DUPLICATE = "DUPLICATE";
+    public static final String INVALID = "INVALID";
+    public static final String FAILED = "FAILED";
+
+    private int index;
+    private String status;
+    private Long userId;
+    private String error;
+
+    public static UserImportResult created(int index, Long userId) {
+        return new UserImportResult(index, CREATED, userId, null);
+    }
+
+    public static UserImportResult rejected(int index, String status, String error) {
+        return new UserImportResult(index, status, null, error);
+    }
+}
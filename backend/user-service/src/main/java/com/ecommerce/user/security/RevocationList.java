@@ -0,0 +1,182 @@
+package com.ecommerce.user.security;
+
+import com.ecommerce.auth.SessionToken;
+import com.ecommerce.user.model.RevocationsResponse;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ids of tokens revoked before their expiry, kept only until they would have expired anyway, so
+ * the set stays as small as the number of live revoked tokens.
+ *
+ * Every revocation is synced to {@code auth.revocation.path} before it takes effect and the file
+ * is reloaded on start, so a restart does not bring revoked tokens back. Pruning rewrites the
+ * file without the expired entries.
+ *
+ * Every revocation is also journaled under an increasing sequence number; verifiers in other
+ * services poll {@link #changesSince} to mirror the set. The epoch changes on every start, which
+ * tells pollers their sequence no longer applies and makes them take the reloaded set whole.
+ */
+@Component
+public class RevocationList {
+
+    private static final int RECORD_BYTES = Long.BYTES * 2;
+
+    private final String epoch = UUID.randomUUID().toString();
+    private final Map<Long, Long> revoked = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<Long, RevocationsResponse.Revocation> journal = new ConcurrentSkipListMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Path path;
+    private FileChannel file;
+
+    public RevocationList(@Value("${auth.revocation.path:data/revocations.log}") String path) throws IOException {
+        this.path = Paths.get(path);
+        load();
+    }
+
+    /**
+     * Reads the unexpired revocations back and drops a record torn by a crash.
+     */
+    private void load() throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        byte[] bytes = Files.exists(path) ? Files.readAllBytes(path) : new byte[0];
+        int intact = bytes.length - bytes.length % RECORD_BYTES;
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, intact);
+        long now = Instant.now().getEpochSecond();
+        while (buffer.remaining() >= RECORD_BYTES) {
+            long tokenId = buffer.getLong();
+            long expiresAt = buffer.getLong();
+            if (expiresAt > now && revoked.putIfAbsent(tokenId, expiresAt) == null) {
+                journal.put(sequence.incrementAndGet(), new RevocationsResponse.Revocation(tokenId, expiresAt));
+            }
+        }
+        file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (intact < bytes.length) {
+            file.truncate(intact);
+            file.force(true);
+        }
+        file.position(intact);
+        if (!revoked.isEmpty()) {
+            System.out.println("Loaded " + revoked.size() + " token revocations from " + path);
+        }
+    }
+
+    /**
+     * @return false if the token was already revoked
+     */
+    public boolean revoke(SessionToken token) {
+        long expiresAt = token.expiresAt().getEpochSecond();
+        if (revoked.putIfAbsent(token.tokenId(), expiresAt) != null) {
+            return false;
+        }
+        // Persisted, numbered and journaled in one step, so a poller never sees a sequence whose
+        // entry is missing and never sees a revocation that a crash could still undo
+        synchronized (journal) {
+            try {
+                ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES).putLong(token.tokenId()).putLong(expiresAt).flip();
+                while (record.hasRemaining()) {
+                    file.write(record);
+                }
+                file.force(false);
+            } catch (IOException e) {
+                revoked.remove(token.tokenId(), expiresAt);
+                throw new UncheckedIOException("Failed to persist token revocation", e);
+            }
+            journal.put(sequence.incrementAndGet(), new RevocationsResponse.Revocation(token.tokenId(), expiresAt));
+        }
+        return true;
+    }
+
+    public boolean isRevoked(long tokenId) {
+        return revoked.containsKey(tokenId);
+    }
+
+    public RevocationsResponse changesSince(String knownEpoch, long after) {
+        long latest;
+        synchronized (journal) {
+            latest = sequence.get();
+        }
+        Map<Long, RevocationsResponse.Revocation> changes;
+        if (!epoch.equals(knownEpoch)) {
+            changes = journal.headMap(latest, true);
+        } else if (after < latest) {
+            changes = journal.subMap(after, false, latest, true);
+        } else {
+            changes = Map.of();
+        }
+        return new RevocationsResponse(epoch, latest, new ArrayList<>(changes.values()));
+    }
+
+    @Scheduled(fixedDelayString = "${auth.revocation.prune-interval:PT1M}")
+    public void pruneExpired() {
+        long now = Instant.now().getEpochSecond();
+        synchronized (journal) {
+            if (!revoked.values().removeIf(expiresAt -> expiresAt <= now)) {
+                return;
+            }
+            journal.values().removeIf(revocation -> revocation.getExpiresAt() <= now);
+            try {
+                rewrite();
+            } catch (IOException e) {
+                // The old file still holds every live revocation; the expired ones are skipped on load
+                System.err.println("Failed to compact token revocations: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Replaces the file with one holding only the live revocations. Runs under the journal lock.
+     */
+    private void rewrite() throws IOException {
+        List<RevocationsResponse.Revocation> live = new ArrayList<>(journal.values());
+        ByteBuffer buffer = ByteBuffer.allocate(live.size() * RECORD_BYTES);
+        for (RevocationsResponse.Revocation revocation : live) {
+            buffer.putLong(revocation.getTokenId()).putLong(revocation.getExpiresAt());
+        }
+        buffer.flip();
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(true);
+        }
+        file.close();
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        file = FileChannel.open(path, StandardOpenOption.WRITE);
+        file.position(file.size());
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        synchronized (journal) {
+            file.close();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.ecommerce.user.service;
+
+import com.ecommerce.auth.SessionToken;
+import com.ecommerce.auth.TokenCodec;
+import com.ecommerce.user.model.AuthResponse;
+import com.ecommerce.user.model.User;
+import com.ecommerce.user.security.RevocationList;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Issues, refreshes and revokes signed session tokens. Verifying one is a single HMAC and a
+ * lookup in the revocation set, so requests carrying a token never touch BCrypt.
+ */
+@Service
+public class TokenService {
+
+    private final SecureRandom random = new SecureRandom();
+
+    @Autowired
+    private TokenCodec tokenCodec;
+
+    @Autowired
+    private RevocationList revocationList;
+
+    @Autowired
+    private UserService userService;
+
+    @Value("${auth.token.access-ttl:PT15M}")
+    private Duration accessTtl;
+
+    @Value("${auth.token.refresh-ttl:P7D}")
+    private Duration refreshTtl;
+
+    public AuthResponse issue(User user) {
+        Instant now = Instant.now();
+        SessionToken access = new SessionToken(SessionToken.Type.ACCESS, user.getId(), random.nextLong(), now.plus(accessTtl));
+        SessionToken refresh = new SessionToken(SessionToken.Type.REFRESH, user.getId(), random.nextLong(), now.plus(refreshTtl));
+        return new AuthResponse(user, tokenCodec.encode(access), tokenCodec.encode(refresh), "Bearer",
+                accessTtl.toSeconds());
+    }
+
+    /**
+     * Returns the claims of a valid, unexpired and unrevoked access token.
+     */
+    public Optional<SessionToken> authenticate(String accessToken) {
+        return verify(accessToken, SessionToken.Type.ACCESS);
+    }
+
+    /**
+     * Exchanges a refresh token for a new pair. The refresh token is single-use: it is revoked
+     * here, so a stolen copy stops working as soon as either party has used it.
+     */
+    public Optional<AuthResponse> refresh(String refreshToken) {
+        Optional<SessionToken> claims = verify(refreshToken, SessionToken.Type.REFRESH);
+        if (claims.isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<User> user = userService.getUserById(claims.get().userId());
+        // Of two concurrent refreshes with the same token only the one that revokes it wins
+        if (user.isEmpty() || !revocationList.revoke(claims.get())) {
+            return Optional.empty();
+        }
+        return Optional.of(issue(user.get()));
+    }
+
+    /**
+     * Revokes whichever of the tokens are valid; the others are ignored.
+     */
+    public void revoke(String accessToken, String refreshToken) {
+        tokenCodec.decode(accessToken).ifPresent(revocationList::revoke);
+        tokenCodec.decode(refreshToken).ifPresent(revocationList::revoke);
+    }
+
+    private Optional<SessionToken> verify(String token, SessionToken.Type type) {
+        return tokenCodec.verify(token, type, Instant.now())
+                .filter(claims -> !revocationList.isRevoked(claims.tokenId()));
+    }
+}
@@ -1,28 +1,111 @@
 package com.ecommerce.user.service;
 
+import com.ecommerce.user.model.PageResponse;
 import com.ecommerce.user.model.User;
+import com.ecommerce.user.model.UserImportResponse;
+import com.ecommerce.user.model.UserImportResult;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
 
 @Service
 public class UserService {
-    private final Map<Long, User> users = new ConcurrentHashMap<>();
+    // $2a$, $2b$ or $2y$, a two-digit cost, then 53 characters of salt and hash
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[aby]?\\$\\d{2}\\$[./A-Za-z0-9]{53}$");
+
+    private final ConcurrentNavigableMap<Long, User> users = new ConcurrentSkipListMap<>();
     private final Map<String, Long> emailToUserId = new ConcurrentHashMap<>();
     private final AtomicLong idCounter = new AtomicLong(1);
     
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    @Qualifier("passwordHashingExecutor")
+    private ExecutorService passwordHashing;
+
+    @Autowired
+    @Qualifier("passwordImportPool")
+    private ForkJoinPool passwordImportPool;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${users.import.chunk-size:1024}")
+    private int importChunkSize;
+
+    private Timer loginHashTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        loginHashTimer = Timer.builder("users.login.bcrypt")
+                .description("BCrypt password checks of logins, excluding time queued for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("users.store.size", emailToUserId, Map::size)
+                .description("Registered users, including registrations still being hashed")
+                .register(meterRegistry);
+    }
+
     public List<User> getAllUsers() {
         return new ArrayList<>(users.values());
     }
 
+    /**
+     * Returns up to {@code limit} users in id order, starting after the position encoded in {@code cursor}.
+     */
+    public PageResponse<User> getUsersPage(String cursor, int limit) {
+        Map<Long, User> tail = cursor != null && !cursor.isEmpty()
+                ? users.tailMap(PageResponse.decodeCursor(cursor), false)
+                : users;
+        List<User> items = new ArrayList<>(limit);
+        Long lastId = null;
+        boolean hasMore = false;
+        for (Map.Entry<Long, User> entry : tail.entrySet()) {
+            if (items.size() == limit) {
+                hasMore = true;
+                break;
+            }
+            items.add(entry.getValue());
+            lastId = entry.getKey();
+        }
+        return new PageResponse<>(items, hasMore ? PageResponse.encodeCursor(lastId) : null);
+    }
+
+    /**
+     * Live, weakly consistent view of all users in id order, for streaming without copying.
+     */
+    public Iterable<User> iterateUsers() {
+        return Collections.unmodifiableCollection(users.values());
+    }
+
     public Optional<User> getUserById(Long id) {
         return Optional.ofNullable(users.get(id));
     }
@@ -32,27 +115,164 @@ public class UserService {
         return userId != null ? Optional.ofNullable(users.get(userId)) : Optional.empty();
     }
 
-    public Optional<User> registerUser(User user) {
+    /**
+     * Hashes the password on the password hashing pool and stores the user.
+     *
+     * @throws java.util.concurrent.RejectedExecutionException if the hashing pool is saturated
+     */
+    public CompletableFuture<Optional<User>> registerUser(User user) {
         String email = user.getEmail().toLowerCase();
-        
-        if (emailToUserId.containsKey(email)) {
-            return Optional.empty();
+        Long id = reserveEmail(email);
+        if (id == null) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+
+        CompletableFuture<String> hash;
+        try {
+            hash = CompletableFuture.supplyAsync(() -> passwordEncoder.encode(user.getPassword()), passwordHashing);
+        } catch (RejectedExecutionException e) {
+            emailToUserId.remove(email, id);
+            throw e;
         }
-        
+        return hash.whenComplete((hashed, error) -> {
+                    if (error != null) {
+                        emailToUserId.remove(email, id);
+                    }
+                })
+                .thenApply(hashed -> Optional.of(store(id, user, hashed)));
+    }
+
+    /**
+     * Claims the email for a new user id before any slow work is done, so two concurrent
+     * registrations of the same address cannot both succeed.
+     *
+     * @return the id reserved for the user, or null if the email is taken
+     */
+    private Long reserveEmail(String email) {
         Long id = idCounter.getAndIncrement();
+        return emailToUserId.putIfAbsent(email, id) == null ? id : null;
+    }
+
+    private User store(Long id, User user, String passwordHash) {
         user.setId(id);
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        user.setPassword(passwordHash);
         user.setCreatedAt(LocalDateTime.now());
-        
         users.put(id, user);
-        emailToUserId.put(email, id);
-        
-        return Optional.of(user);
+        return user;
+    }
+
+    /**
+     * Imports the users of the JSON array read from {@code body}, chunk by chunk. Within a chunk
+     * every email is reserved first, then all passwords are hashed in parallel on the import pool;
+     * values that already are BCrypt hashes are stored as they are. A body that breaks off
+     * mid-array keeps the records read before the break and reports it in the response.
+     *
+     * @throws IllegalArgumentException if the body is not a JSON array
+     */
+    public UserImportResponse importUsers(InputStream body) throws IOException {
+        long start = System.nanoTime();
+        List<UserImportResult> results = new ArrayList<>();
+        String error = null;
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            JsonToken first;
+            try {
+                first = parser.nextToken();
+            } catch (IOException e) {
+                first = null;
+            }
+            if (first != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of users");
+            }
+            List<User> chunk = new ArrayList<>(importChunkSize);
+            try {
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (token == null) {
+                        error = "The body ended before the array was closed";
+                        break;
+                    }
+                    chunk.add(parser.readValueAs(User.class));
+                    if (chunk.size() == importChunkSize) {
+                        results.addAll(importChunk(chunk, results.size()));
+                        chunk = new ArrayList<>(importChunkSize);
+                    }
+                }
+            } catch (IOException e) {
+                error = "Could not read the user at index " + (results.size() + chunk.size()) + ": " + e.getMessage();
+            }
+            if (!chunk.isEmpty()) {
+                results.addAll(importChunk(chunk, results.size()));
+            }
+        }
+
+        int imported = 0;
+        for (UserImportResult result : results) {
+            if (UserImportResult.CREATED.equals(result.getStatus())) {
+                imported++;
+            }
+        }
+        return new UserImportResponse(imported, results.size() - imported, results, error,
+                (System.nanoTime() - start) / 1_000_000);
     }
 
-    public Optional<User> loginUser(String email, String password) {
-        return getUserByEmail(email)
-                .filter(user -> passwordEncoder.matches(password, user.getPassword()));
+    private List<UserImportResult> importChunk(List<User> chunk, int firstIndex) {
+        UserImportResult[] results = new UserImportResult[chunk.size()];
+        Long[] ids = new Long[chunk.size()];
+        List<CompletableFuture<String>> hashes = new ArrayList<>(Collections.nCopies(chunk.size(), null));
+        for (int i = 0; i < chunk.size(); i++) {
+            User user = chunk.get(i);
+            if (user == null || user.getEmail() == null || user.getEmail().isBlank()
+                    || user.getPassword() == null || user.getPassword().isEmpty()) {
+                results[i] = UserImportResult.rejected(firstIndex + i, UserImportResult.INVALID,
+                        "email and password are required");
+                continue;
+            }
+            ids[i] = reserveEmail(user.getEmail().toLowerCase());
+            if (ids[i] == null) {
+                results[i] = UserImportResult.rejected(firstIndex + i, UserImportResult.DUPLICATE,
+                        "Email already exists");
+                continue;
+            }
+            String password = user.getPassword();
+            hashes.set(i, BCRYPT_HASH.matcher(password).matches()
+                    ? CompletableFuture.completedFuture(password)
+                    : CompletableFuture.supplyAsync(() -> passwordEncoder.encode(password), passwordImportPool));
+        }
+
+        for (int i = 0; i < chunk.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            User user = chunk.get(i);
+            try {
+                store(ids[i], user, hashes.get(i).join());
+                results[i] = UserImportResult.created(firstIndex + i, ids[i]);
+            } catch (CompletionException e) {
+                emailToUserId.remove(user.getEmail().toLowerCase(), ids[i]);
+                results[i] = UserImportResult.rejected(firstIndex + i, UserImportResult.FAILED,
+                        "Could not hash the password");
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Checks the credentials on the password hashing pool, keeping the deliberately slow BCrypt
+     * match off the request threads.
+     *
+     * @throws java.util.concurrent.RejectedExecutionException if the hashing pool is saturated
+     */
+    public CompletableFuture<Optional<User>> loginUser(String email, String password) {
+        Optional<User> candidate = email != null ? getUserByEmail(email) : Optional.empty();
+        if (candidate.isEmpty() || password == null) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            boolean matches = passwordEncoder.matches(password, candidate.get().getPassword());
+            loginHashTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return matches ? candidate : Optional.<User>empty();
+        }, passwordHashing);
     }
 
     public Optional<User> updateUser(Long id, User user) {